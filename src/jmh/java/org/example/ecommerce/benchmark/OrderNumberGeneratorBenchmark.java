@@ -0,0 +1,47 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.application.service.order.impl.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link SnowflakeOrderNumberGenerator#next()} on one thread and with
+ * eight threads sharing one generator, where the CAS on its state is contended.
+ * The contended score is the total for all threads; the sequence allows 4096 ids
+ * per millisecond before it borrows the next one.
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="OrderNumberGeneratorBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderNumberGeneratorBenchmark {
+
+    private SnowflakeOrderNumberGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SnowflakeOrderNumberGenerator(1, 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String singleThread() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String contended() {
+        return generator.next();
+    }
+}
@@ -4,11 +4,18 @@ package org.example.ecommerce.application.service;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.domain.model.mail.MailMessage;
 import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
@@ -17,18 +24,56 @@ public class EmailService {
 
     public void sendEmail(String email, String subject, String body) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            // true هنا يعني HTML
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8");
-            helper.setTo(email);
-            helper.setSubject(subject);
-            helper.setText(body, true); // true -> HTML
-
-            mailSender.send(mimeMessage);
+            mailSender.send(createMessage(email, subject, body));
         } catch (MailException e) {
             throw new MailSendException("Failed to send email", e);
         } catch (MessagingException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Sends several queued messages over one SMTP connection.
+     *
+     * @param messages the queued messages
+     * @return the failure of each message that was not sent, keyed by message id
+     */
+    public Map<Long, Exception> sendAll(List<MailMessage> messages) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        for (MailMessage message : messages) {
+            try {
+                ids.put(createMessage(message.getRecipient(), message.getSubject(), message.getBody()), message.getId());
+            } catch (MessagingException e) {
+                failures.put(message.getId(), e);
+            }
+        }
+        if (ids.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(ids.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // لو الـ SMTP رجع الرسائل اللي فشلت بس، الباقي اتبعت
+            if (e.getFailedMessages().isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, e));
+            } else {
+                e.getFailedMessages().forEach((mime, cause) -> failures.put(ids.get(mime), cause));
+            }
+        } catch (MailException e) {
+            ids.values().forEach(id -> failures.put(id, e));
+        }
+        return failures;
+    }
+
+    private MimeMessage createMessage(String email, String subject, String body) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        // true هنا يعني HTML
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8");
+        helper.setTo(email);
+        helper.setSubject(subject);
+        helper.setText(body, true); // true -> HTML
+        return mimeMessage;
+    }
 }
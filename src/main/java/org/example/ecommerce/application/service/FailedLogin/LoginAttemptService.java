@@ -15,7 +15,17 @@ public interface LoginAttemptService {
      *
      * @param email the email of the user who failed to log in
      */
-    void loginFailed(String email);
+    default void loginFailed(String email) {
+        loginFailed(email, null);
+    }
+
+    /**
+     * Records a failed login attempt for the given email, coming from the given client.
+     *
+     * @param email    the email of the user who failed to log in
+     * @param clientIp the caller's address, or null if unknown
+     */
+    void loginFailed(String email, String clientIp);
 
     /**
      * Checks if the user associated with the given email
@@ -24,7 +34,18 @@ public interface LoginAttemptService {
      * @param email the email of the user
      * @return true if the user is blocked, false otherwise
      */
-    boolean isBlocked(String email);
+    default boolean isBlocked(String email) {
+        return isBlocked(email, null);
+    }
+
+    /**
+     * Checks if the email or the client address is currently blocked.
+     *
+     * @param email    the email of the user
+     * @param clientIp the caller's address, or null if unknown
+     * @return true if either is blocked, false otherwise
+     */
+    boolean isBlocked(String email, String clientIp);
 
     /**
      * Resets the failed login attempts for the given email.
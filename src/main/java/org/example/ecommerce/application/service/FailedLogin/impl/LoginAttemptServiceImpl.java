@@ -1,123 +1,109 @@
 package org.example.ecommerce.application.service.FailedLogin.impl;
 
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.FailedLogin.LoginAttemptService;
 import org.example.ecommerce.domain.common.FailedLoginAttempt;
 import org.example.ecommerce.domain.common.repository.FailedLoginAttemptRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of {@link LoginAttemptService}.
  * <p>
- * This service is responsible for handling failed login attempts,
- * blocking users after exceeding the maximum allowed attempts,
- * and resetting attempts when required.
+ * Failures are counted in memory, in sliding windows per email and per client
+ * IP (limits under {@code login.throttle.*}), so a burst of bad passwords costs
+ * no database work. Only transitions are written to {@code failed_login_attempts},
+ * in the background: an email becoming blocked, and a blocked email being reset.
+ * Blocks still running are loaded back at startup.
  * </p>
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
-@Transactional
 public class LoginAttemptServiceImpl implements LoginAttemptService {
 
     private final FailedLoginAttemptRepository repository;
-
-    /** Maximum number of failed attempts before blocking the user. */
-    private static final int MAX_ATTEMPTS = 4;
-
-    /** Duration for which the user will remain blocked after exceeding attempts. */
-    private static final Duration BLOCK_DURATION = Duration.ofMinutes(15);
+    private final SlidingWindowRateLimiter emailLimiter;
+    private final SlidingWindowRateLimiter ipLimiter;
+    private final int emailMaxAttempts;
+    private final Duration emailBlockDuration;
+    private final ExecutorService writer;
+
+    public LoginAttemptServiceImpl(FailedLoginAttemptRepository repository,
+                                   @Value("${login.throttle.email.max-attempts:4}") int emailMaxAttempts,
+                                   @Value("${login.throttle.email.window-minutes:15}") long emailWindowMinutes,
+                                   @Value("${login.throttle.email.block-minutes:15}") long emailBlockMinutes,
+                                   @Value("${login.throttle.ip.max-attempts:50}") int ipMaxAttempts,
+                                   @Value("${login.throttle.ip.window-minutes:5}") long ipWindowMinutes,
+                                   @Value("${login.throttle.ip.block-minutes:15}") long ipBlockMinutes,
+                                   @Value("${login.throttle.max-entries:100000}") int maxEntries) {
+        this.repository = repository;
+        this.emailMaxAttempts = emailMaxAttempts;
+        this.emailBlockDuration = Duration.ofMinutes(emailBlockMinutes);
+        this.emailLimiter = new SlidingWindowRateLimiter(emailMaxAttempts,
+                Duration.ofMinutes(emailWindowMinutes), emailBlockDuration, maxEntries);
+        this.ipLimiter = new SlidingWindowRateLimiter(ipMaxAttempts,
+                Duration.ofMinutes(ipWindowMinutes), Duration.ofMinutes(ipBlockMinutes), maxEntries);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-attempt-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     /**
-     * Records a failed login attempt for the given email.
+     * Records a failed login attempt for the given email and client IP.
      * <p>
-     * - If no previous record exists, a new one is created.
-     * - If the block duration has expired, the counter is reset.
-     * - If attempts exceed {@code MAX_ATTEMPTS}, the user is blocked.
+     * The email is blocked once it reaches {@code login.throttle.email.max-attempts}
+     * failures inside the sliding window, the IP at {@code login.throttle.ip.max-attempts}.
      * </p>
      *
-     * @param email the user’s email
+     * @param email    the user’s email
+     * @param clientIp the caller's address, may be null
      */
     @Override
-    public void loginFailed(String email) {
-        if (email == null || email.trim().isEmpty()) {
+    public void loginFailed(String email, String clientIp) {
+        if (isBlank(email)) {
             log.warn("Cannot register failed login attempt for null or empty email");
             return;
         }
+        String key = normalize(email);
 
-        LocalDateTime now = LocalDateTime.now();
-        log.debug("Processing failed login attempt for user: {}", email);
-
-        // Fetch or create new attempt
-        FailedLoginAttempt attempt = repository.findByEmail(email)
-                .orElseGet(() -> {
-                    log.debug("Creating new failed login attempt record for user: {}", email);
-                    FailedLoginAttempt newAttempt = new FailedLoginAttempt();
-                    newAttempt.setEmail(email);
-                    newAttempt.setAttempts(0);
-                    newAttempt.setLastAttemptTime(now);
-                    return newAttempt;
-                });
-
-        // Reset counter if block duration expired
-        if (attempt.getLastAttemptTime() == null ||
-                attempt.getLastAttemptTime().isBefore(now.minus(BLOCK_DURATION))) {
-            log.debug("Resetting attempt counter for user [{}] - block period expired", email);
-            attempt.setAttempts(1);
+        int count = emailLimiter.recordFailure(key);
+        if (count < 0) {
+            LocalDateTime now = LocalDateTime.now();
+            log.warn("User [{}] is now blocked until {}", email, now.plus(emailBlockDuration));
+            persist(key, emailMaxAttempts, now);
         } else {
-            attempt.setAttempts(attempt.getAttempts() + 1);
-        }
-
-        attempt.setLastAttemptTime(now);
-
-        // Save changes immediately
-        try {
-            repository.saveAndFlush(attempt);
-            log.debug("Saved failed login attempt: ID={}, Email={}, Attempts={}",
-                    attempt.getId(), attempt.getEmail(), attempt.getAttempts());
-        } catch (Exception e) {
-            log.error("Failed to save login attempt for user [{}]: {}", email, e.getMessage(), e);
-            throw new RuntimeException("Failed to record login attempt", e);
+            log.info("Failed login attempt #{} for user [{}]", count, email);
         }
 
-        if (attempt.getAttempts() >= MAX_ATTEMPTS) {
-            log.warn("User [{}] is now blocked until {} (attempts: {})",
-                    email, attempt.getLastAttemptTime().plus(BLOCK_DURATION), attempt.getAttempts());
-        } else {
-            log.info("Failed login attempt #{} for user [{}]", attempt.getAttempts(), email);
+        if (!isBlank(clientIp) && ipLimiter.recordFailure(clientIp) < 0) {
+            log.warn("Client [{}] is now blocked after too many failed attempts", clientIp);
         }
     }
 
     /**
-     * Checks whether a user is blocked.
-     * <p>
-     * A user is considered blocked if the number of failed attempts
-     * is greater than or equal to {@code MAX_ATTEMPTS}
-     * and the block duration has not yet expired.
-     * </p>
+     * Checks whether the email or the client IP is currently blocked. Memory only.
      *
-     * @param email the user’s email
+     * @param email    the user’s email
+     * @param clientIp the caller's address, may be null
      * @return true if blocked, false otherwise
      */
     @Override
-    public boolean isBlocked(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            return false;
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-
-        boolean blocked = repository.findByEmail(email)
-                .map(attempt -> attempt.getAttempts() >= MAX_ATTEMPTS &&
-                        attempt.getLastAttemptTime().isAfter(now.minus(BLOCK_DURATION)))
-                .orElse(false);
-
-        log.debug("Block status for user [{}]: {}", email, blocked);
+    public boolean isBlocked(String email, String clientIp) {
+        boolean blocked = (!isBlank(email) && emailLimiter.isBlocked(normalize(email)))
+                || (!isBlank(clientIp) && ipLimiter.isBlocked(clientIp));
+        log.debug("Block status for user [{}] from [{}]: {}", email, clientIp, blocked);
         return blocked;
     }
 
@@ -125,31 +111,79 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
      * Resets failed login attempts for the given email.
      * <p>
      * Typically called after a successful login or when an admin resets attempts manually.
+     * The database is only touched when the email was blocked.
      * </p>
      *
      * @param email the user’s email
      */
     @Override
     public void resetAttempts(String email) {
-        if (email == null || email.trim().isEmpty()) {
+        if (isBlank(email)) {
             log.warn("Cannot reset attempts for null or empty email");
             return;
         }
+        String key = normalize(email);
+        if (emailLimiter.reset(key)) {
+            log.info("Login block of user [{}] lifted", email);
+            persist(key, 0, null);
+        }
+    }
+
+    /**
+     * Restores the blocks that have not expired yet, so a restart doesn't lift them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreBlocks() {
+        LocalDateTime now = LocalDateTime.now();
+        int restored = 0;
+        for (FailedLoginAttempt attempt : repository.findByAttemptsGreaterThanEqualAndLastAttemptTimeAfter(
+                emailMaxAttempts, now.minus(emailBlockDuration))) {
+            emailLimiter.block(normalize(attempt.getEmail()), Duration.between(attempt.getLastAttemptTime(), now));
+            restored++;
+        }
+        if (restored > 0) {
+            log.info("Restored {} active login blocks", restored);
+        }
+    }
 
-        repository.findByEmail(email).ifPresent(attempt -> {
-            log.debug("Resetting attempts for user [{}] - previous attempts: {}",
-                    email, attempt.getAttempts());
+    @Scheduled(fixedDelayString = "${login.throttle.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        int purged = emailLimiter.purgeIdle() + ipLimiter.purgeIdle();
+        if (purged > 0) {
+            log.debug("Purged {} idle login throttle entries, {} emails / {} IPs left",
+                    purged, emailLimiter.size(), ipLimiter.size());
+        }
+    }
 
-            attempt.setAttempts(0);
-            attempt.setLastAttemptTime(null);
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
 
+    // كتابة الحالة الجديدة في الخلفية، من غير ما الـ request يستنى الداتابيز
+    private void persist(String email, int attempts, LocalDateTime lastAttemptTime) {
+        writer.execute(() -> {
             try {
+                FailedLoginAttempt attempt = repository.findByEmail(email).orElseGet(() -> {
+                    FailedLoginAttempt newAttempt = new FailedLoginAttempt();
+                    newAttempt.setEmail(email);
+                    return newAttempt;
+                });
+                attempt.setAttempts(attempts);
+                attempt.setLastAttemptTime(lastAttemptTime);
                 repository.saveAndFlush(attempt);
-                log.info("Successfully reset login attempts for user [{}]", email);
             } catch (Exception e) {
-                log.error("Failed to reset login attempts for user [{}]: {}", email, e.getMessage(), e);
-                throw new RuntimeException("Failed to reset login attempts", e);
+                log.error("Failed to persist login block state for user [{}]: {}", email, e.getMessage(), e);
             }
         });
     }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
 }
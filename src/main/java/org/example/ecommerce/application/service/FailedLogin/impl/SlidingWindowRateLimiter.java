@@ -0,0 +1,143 @@
+package org.example.ecommerce.application.service.FailedLogin.impl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sliding-window failure counter per key (email or client IP).
+ * <p>
+ * Each key keeps the counts of the current and the previous fixed window; the
+ * sliding count weights the previous window by how much of it still overlaps.
+ * Reaching {@code maxAttempts} blocks the key for {@code blockDuration}. The state
+ * of a key is an immutable snapshot swapped with compare-and-set, so no locks are
+ * taken. At most {@code maxEntries} keys are kept; idle keys are evicted first.
+ * </p>
+ */
+final class SlidingWindowRateLimiter {
+
+    private final int maxAttempts;
+    private final long windowNanos;
+    private final long blockNanos;
+    private final int maxEntries;
+    private final Map<String, AtomicReference<State>> counters = new ConcurrentHashMap<>();
+
+    SlidingWindowRateLimiter(int maxAttempts, Duration window, Duration blockDuration, int maxEntries) {
+        this.maxAttempts = maxAttempts;
+        this.windowNanos = window.toNanos();
+        this.blockNanos = blockDuration.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Counts one failure.
+     *
+     * @return the sliding count after this failure, or {@code -1} if this failure blocked the key
+     */
+    int recordFailure(String key) {
+        if (counters.size() >= maxEntries && !counters.containsKey(key)) {
+            evict();
+        }
+        AtomicReference<State> ref = counters.computeIfAbsent(key, k -> new AtomicReference<>(State.EMPTY));
+        long now = System.nanoTime();
+        while (true) {
+            State current = ref.get();
+            State rolled = current.rollTo(now, windowNanos);
+            int count = rolled.slidingCount(now, windowNanos) + 1;
+            boolean blocksNow = count >= maxAttempts && !rolled.isBlocked(now);
+            State next = new State(rolled.windowStart, rolled.current + 1, rolled.previous,
+                    blocksNow ? now + blockNanos : rolled.blockedUntil, now);
+            if (ref.compareAndSet(current, next)) {
+                return blocksNow ? -1 : count;
+            }
+        }
+    }
+
+    boolean isBlocked(String key) {
+        AtomicReference<State> ref = counters.get(key);
+        return ref != null && ref.get().isBlocked(System.nanoTime());
+    }
+
+    /**
+     * Blocks the key for the rest of a block that started {@code elapsed} ago (restored state).
+     */
+    void block(String key, Duration elapsed) {
+        long now = System.nanoTime();
+        long blockedUntil = now + blockNanos - elapsed.toNanos();
+        if (blockedUntil - now > 0) {
+            counters.put(key, new AtomicReference<>(new State(now, 0, 0, blockedUntil, now)));
+        }
+    }
+
+    /**
+     * Forgets the key.
+     *
+     * @return whether the key was blocked at that moment
+     */
+    boolean reset(String key) {
+        AtomicReference<State> removed = counters.remove(key);
+        return removed != null && removed.get().isBlocked(System.nanoTime());
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    /**
+     * Drops keys that are neither blocked nor counted in the sliding window any more.
+     */
+    int purgeIdle() {
+        long now = System.nanoTime();
+        int before = counters.size();
+        counters.values().removeIf(ref -> ref.get().isIdle(now, windowNanos));
+        return before - counters.size();
+    }
+
+    private void evict() {
+        if (purgeIdle() > 0 && counters.size() < maxEntries) {
+            return;
+        }
+        // لسه مليان: نشيل الأقدم استخدامًا من غير المحظورين
+        long now = System.nanoTime();
+        int excess = counters.size() - maxEntries + Math.max(1, maxEntries / 10);
+        counters.entrySet().stream()
+                .filter(entry -> !entry.getValue().get().isBlocked(now))
+                .sorted((a, b) -> Long.compare(a.getValue().get().lastSeen - b.getValue().get().lastSeen, 0))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(counters::remove);
+    }
+
+    private record State(long windowStart, int current, int previous, long blockedUntil, long lastSeen) {
+
+        static final State EMPTY = new State(Long.MIN_VALUE, 0, 0, Long.MIN_VALUE, Long.MIN_VALUE);
+
+        // ينقل الـ window الحالية لو الوقت عدّاها
+        State rollTo(long now, long windowNanos) {
+            if (windowStart == Long.MIN_VALUE) {
+                return new State(now, 0, 0, blockedUntil, lastSeen);
+            }
+            long elapsedWindows = (now - windowStart) / windowNanos;
+            if (elapsedWindows <= 0) {
+                return this;
+            }
+            long start = windowStart + elapsedWindows * windowNanos;
+            return new State(start, 0, elapsedWindows == 1 ? current : 0, blockedUntil, lastSeen);
+        }
+
+        int slidingCount(long now, long windowNanos) {
+            double overlap = 1.0 - (double) (now - windowStart) / windowNanos;
+            return current + (int) Math.floor(previous * Math.max(0.0, overlap));
+        }
+
+        boolean isBlocked(long now) {
+            return blockedUntil != Long.MIN_VALUE && blockedUntil - now > 0;
+        }
+
+        boolean isIdle(long now, long windowNanos) {
+            return !isBlocked(now) && now - lastSeen > 2 * windowNanos;
+        }
+    }
+}
@@ -11,7 +11,9 @@ import org.example.ecommerce.domain.model.seller.exception.SellerException;
 import org.example.ecommerce.domain.model.seller.repository.SellerRepository;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.infrastructure.dto.seller.SellerProfile;
+import org.example.ecommerce.infrastructure.event.UserChangedEvent;
 import org.example.ecommerce.infrastructure.mapper.SellerMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,6 +37,7 @@ public class SellerServiceForAdminsImpl implements SellerServiceForAdmins {
     private final SellerRepository sellerRepository;
     private final SellerMapper sellerMapper;
     private final GetSellerContext getSellerContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves all sellers with pagination and sorting.
@@ -132,6 +135,9 @@ public class SellerServiceForAdminsImpl implements SellerServiceForAdmins {
         }
 
         sellerRepository.deleteSellerById(id);
+        if (user != null) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+        }
     }
 
     /**
@@ -161,6 +167,10 @@ public class SellerServiceForAdminsImpl implements SellerServiceForAdmins {
         Seller seller = sellerOpt.get();
         seller.setAccountStatus(status);
         sellerRepository.save(seller);
+        if (seller.getUser() != null) {
+            // حظر/إغلاق الحساب
+            eventPublisher.publishEvent(new UserChangedEvent(seller.getUser().getId(), seller.getUser().getEmail()));
+        }
         return Optional.of(seller);
     }
 }
@@ -10,10 +10,12 @@ import org.example.ecommerce.domain.model.user.exception.*;
 import org.example.ecommerce.domain.model.user.repository.UserRepository;
 import org.example.ecommerce.infrastructure.dto.user.UserProfile;
 import org.example.ecommerce.infrastructure.dto.user.UserUpdateDto;
+import org.example.ecommerce.infrastructure.event.UserChangedEvent;
 import org.example.ecommerce.infrastructure.mapper.UserMapper;
 import org.example.ecommerce.infrastructure.utils.IsEmail;
 import org.example.ecommerce.infrastructure.utils.IsFullName;
 import org.example.ecommerce.infrastructure.utils.IsPhoneNumber;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -43,6 +45,7 @@ public class UserServiceForAdminsImpl implements UserServiceForAdmins {
     private final UserRepository userRepository;
     private final MessageSource messageSource;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Find a user by email.
@@ -189,6 +192,8 @@ public class UserServiceForAdminsImpl implements UserServiceForAdmins {
                     }
 
                     User savedUser = userRepository.save(user);
+                    // الإيميل ممكن يكون اتغير
+                    eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), email));
                     return userMapper.toUserProfile(savedUser);
                 });
     }
@@ -0,0 +1,28 @@
+package org.example.ecommerce.application.service.authentication;
+
+/**
+ * Runs the CPU-bound password hashing ({@code PasswordEncoder}) on a dedicated,
+ * bounded pool instead of the request threads.
+ * <p>
+ * When the pool's queue is full, or a hash waits longer than the configured
+ * timeout, {@code PasswordHashingBusyException} is thrown (HTTP 429) instead of
+ * tying up more request threads.
+ * </p>
+ */
+public interface PasswordHashingService {
+
+    boolean matches(String rawPassword, String encodedPassword);
+
+    String encode(String rawPassword);
+
+    /**
+     * Whether the hash was made with an older algorithm or a lower cost than the current one.
+     */
+    boolean needsRehash(String encodedPassword);
+
+    /**
+     * Re-encodes the password in the background and stores it if the user's hash
+     * is still {@code encodedPassword}. Skipped silently when the pool is busy.
+     */
+    void rehashInBackground(Long userId, String rawPassword, String encodedPassword);
+}
@@ -1,6 +1,7 @@
 package org.example.ecommerce.application.service.authentication.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
 import org.example.ecommerce.application.service.jwt.JwtService;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.model.user.UserRole;
@@ -8,20 +9,27 @@ import org.example.ecommerce.domain.model.user.exception.InvalidPWD;
 import org.example.ecommerce.infrastructure.response.ApiResponse;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @RequiredArgsConstructor
 public abstract class AbstractLoginStrategy<T> implements LoginStrategy<T> {
 
-    protected final PasswordEncoder passwordEncoder;
+    protected final PasswordHashingService passwordHashingService;
     protected final JwtService jwtService;
     protected final MessageSource messageSource;
 
-    protected void validatePassword(String rawPassword, String encodedPassword) {
-        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+    /**
+     * Checks the password on the hashing pool; a hash made with an older cost is
+     * upgraded in the background after a successful check.
+     */
+    protected void validatePassword(String rawPassword, User user) {
+        String encodedPassword = user.getPassword();
+        if (!passwordHashingService.matches(rawPassword, encodedPassword)) {
             String msg = messageSource.getMessage("user.invalid.password", null, LocaleContextHolder.getLocale());
             throw new InvalidPWD(msg);
         }
+        if (passwordHashingService.needsRehash(encodedPassword)) {
+            passwordHashingService.rehashInBackground(user.getId(), rawPassword, encodedPassword);
+        }
     }
 
     protected ApiResponse buildResponse(User user, String identifier) {
@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.authentication.Authentication;
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
 import org.example.ecommerce.application.service.jwt.JwtService;
 import org.example.ecommerce.domain.model.user.Authority;
 import org.example.ecommerce.domain.model.user.User;
@@ -16,7 +17,6 @@ import org.example.ecommerce.infrastructure.dto.user.LoginRequestWithEmail;
 import org.example.ecommerce.infrastructure.dto.user.SignUpRequest;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -26,7 +26,7 @@ import java.util.Optional;
 public class AuthenticationImpl implements Authentication {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final MessageSource messageSource;
     private final LoginContext loginContext;
@@ -59,7 +59,7 @@ public class AuthenticationImpl implements Authentication {
         log.info("Initializing User entity...");
         user.setEmail(signUpRequest.email());
         log.debug("User Email: {}", signUpRequest.email());
-        user.setPassword(passwordEncoder.encode(signUpRequest.password()));
+        user.setPassword(passwordHashingService.encode(signUpRequest.password()));
         user.setFullName(signUpRequest.fullName());
         log.debug("User FullName: {}", signUpRequest.fullName());
         user.setPhoneNumber(signUpRequest.phoneNumber());
@@ -0,0 +1,147 @@
+package org.example.ecommerce.application.service.authentication.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
+import org.example.ecommerce.domain.common.exception.PasswordHashingBusyException;
+import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordHashingService} backed by a fixed pool of
+ * {@code security.password.hashing.threads} (default: one per core) with a queue
+ * of {@code security.password.hashing.queue-capacity}. Request threads only wait
+ * for the result, for at most {@code security.password.hashing.timeout-ms}.
+ */
+@Service
+@Slf4j
+public class BoundedPasswordHashingService implements PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public BoundedPasswordHashingService(PasswordEncoder passwordEncoder,
+                                         UserRepository userRepository,
+                                         @Value("${security.password.hashing.threads:0}") int threads,
+                                         @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                         @Value("${security.password.hashing.timeout-ms:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        // AbortPolicy: لما الطابور يتملي بنرفض على طول بدل ما الـ request threads تستنى
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        // بيقرا الـ prefix والـ cost بس، من غير hashing
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void rehashInBackground(Long userId, String rawPassword, String encodedPassword) {
+        try {
+            executor.execute(() -> {
+                try {
+                    String rehashed = passwordEncoder.encode(rawPassword);
+                    if (userRepository.updatePasswordIfUnchanged(userId, encodedPassword, rehashed) == 1) {
+                        log.info("Password hash of user {} upgraded to the current cost", userId);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Password rehash of user {} failed: {}", userId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Hashing pool busy, rehash of user {} postponed to the next login", userId);
+        }
+    }
+
+    /**
+     * Logs how long one hash takes at the configured cost, to size the pool and
+     * the cost factor for this hardware.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void logHashingCost() {
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                passwordEncoder.encode("calibration-" + started);
+                long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                log.info("Password encode takes ~{} ms at the configured cost: ~{} hashes/s per core, ~{} hashes/s for the pool",
+                        millis, 1000 / millis, 1000 * executor.getCorePoolSize() / millis);
+            });
+        } catch (RejectedExecutionException ignored) {
+            // مش مهم، مجرد قياس
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue full ({} queued), rejecting request", executor.getQueue().size());
+            throw new PasswordHashingBusyException("Too many login requests, please retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingBusyException("Too many login requests, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingBusyException("Password check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
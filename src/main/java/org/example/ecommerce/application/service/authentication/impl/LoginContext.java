@@ -1,42 +1,44 @@
 package org.example.ecommerce.application.service.authentication.impl;
 
-import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.infrastructure.dto.user.LoginRequestWithEmail;
 import org.example.ecommerce.infrastructure.dto.user.LoginRequestWithPhoneNumber;
 import org.example.ecommerce.infrastructure.response.ApiResponse;
-import org.springframework.context.ApplicationContext;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.regex.Pattern;
 @Service
-@RequiredArgsConstructor
 public class LoginContext {
 
-    private final ApplicationContext applicationContext;
+    private final LoginStrategy<LoginRequestWithEmail> loginWithEmail;
+    private final LoginStrategy<LoginRequestWithPhoneNumber> loginWithPhoneNumber;
 
-    private static final String EMAIL_REGEX =
-            "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
-    private static final String EGYPT_PHONE_REGEX =
-            "^(\\+20|0)?(10|11|12|15)[0-9]{8}$";
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+    private static final Pattern EGYPT_PHONE_PATTERN =
+            Pattern.compile("^(\\+20|0)?(10|11|12|15)[0-9]{8}$");
+
+    // الاستراتيجيات بتتحدد مرة واحدة عند الـ startup بدل getBean في كل login
+    public LoginContext(@Qualifier(LoginTypes.LOGIN_WITH_EMAIL_VALUE) LoginStrategy<LoginRequestWithEmail> loginWithEmail,
+                        @Qualifier(LoginTypes.LOGIN_WITH_PHONE_NUMBER_VALUE) LoginStrategy<LoginRequestWithPhoneNumber> loginWithPhoneNumber) {
+        this.loginWithEmail = loginWithEmail;
+        this.loginWithPhoneNumber = loginWithPhoneNumber;
+    }
 
     private boolean isEmail(String input) {
-        return Pattern.matches(EMAIL_REGEX, input);
+        return EMAIL_PATTERN.matcher(input).matches();
     }
 
     private boolean isEgyptianPhone(String input) {
-        return Pattern.matches(EGYPT_PHONE_REGEX, input);
+        return EGYPT_PHONE_PATTERN.matcher(input).matches();
     }
 
     public ApiResponse login(String emailOrPhone, String password) {
         if (isEmail(emailOrPhone)) {
-            LoginStrategy<LoginRequestWithEmail> strategy =
-                    applicationContext.getBean(LoginTypes.LOGIN_WITH_EMAIL_VALUE, LoginStrategy.class);
-            return strategy.login(new LoginRequestWithEmail(emailOrPhone, password));
+            return loginWithEmail.login(new LoginRequestWithEmail(emailOrPhone, password));
 
         } else if (isEgyptianPhone(emailOrPhone)) {
-            LoginStrategy<LoginRequestWithPhoneNumber> strategy =
-                    applicationContext.getBean(LoginTypes.LOGIN_WITH_PHONE_NUMBER_VALUE, LoginStrategy.class);
-            return strategy.login(new LoginRequestWithPhoneNumber(emailOrPhone, password));
+            return loginWithPhoneNumber.login(new LoginRequestWithPhoneNumber(emailOrPhone, password));
         }
 
         throw new IllegalArgumentException("Invalid login identifier: " + emailOrPhone);
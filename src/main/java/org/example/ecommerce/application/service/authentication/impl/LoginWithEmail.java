@@ -2,6 +2,7 @@ package org.example.ecommerce.application.service.authentication.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
 import org.example.ecommerce.application.service.jwt.JwtService;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.model.user.exception.UserNotFoundException;
@@ -10,7 +11,6 @@ import org.example.ecommerce.infrastructure.dto.user.LoginRequestWithEmail;
 import org.example.ecommerce.infrastructure.response.ApiResponse;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -20,10 +20,10 @@ public class LoginWithEmail extends AbstractLoginStrategy<LoginRequestWithEmail>
     private final UserRepository userRepository;
 
     public LoginWithEmail(UserRepository userRepository,
-                          PasswordEncoder passwordEncoder,
+                          PasswordHashingService passwordHashingService,
                           JwtService jwtService,
                           MessageSource messageSource) {
-        super(passwordEncoder, jwtService, messageSource);
+        super(passwordHashingService, jwtService, messageSource);
         this.userRepository = userRepository;
     }
 
@@ -38,7 +38,7 @@ public class LoginWithEmail extends AbstractLoginStrategy<LoginRequestWithEmail>
                     return new UserNotFoundException(msg);
                 });
 
-        validatePassword(request.password(), user.getPassword());
+        validatePassword(request.password(), user);
         return buildResponse(user, request.email());
     }
 }
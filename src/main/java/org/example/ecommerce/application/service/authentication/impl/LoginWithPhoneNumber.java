@@ -1,6 +1,7 @@
 package org.example.ecommerce.application.service.authentication.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
 import org.example.ecommerce.application.service.jwt.JwtService;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.model.user.exception.UserNotFoundException;
@@ -9,7 +10,6 @@ import org.example.ecommerce.infrastructure.dto.user.LoginRequestWithPhoneNumber
 import org.example.ecommerce.infrastructure.response.ApiResponse;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 @Slf4j
 @Component(LoginTypes.LOGIN_WITH_PHONE_NUMBER_VALUE)
@@ -18,10 +18,10 @@ public class LoginWithPhoneNumber extends AbstractLoginStrategy<LoginRequestWith
     private final UserRepository userRepository;
 
     public LoginWithPhoneNumber(UserRepository userRepository,
-                                PasswordEncoder passwordEncoder,
+                                PasswordHashingService passwordHashingService,
                                 JwtService jwtService,
                                 MessageSource messageSource) {
-        super(passwordEncoder, jwtService, messageSource);
+        super(passwordHashingService, jwtService, messageSource);
         this.userRepository = userRepository;
     }
 
@@ -36,7 +36,7 @@ public class LoginWithPhoneNumber extends AbstractLoginStrategy<LoginRequestWith
                     return new UserNotFoundException(msg);
                 });
 
-        validatePassword(request.password(), user.getPassword());
+        validatePassword(request.password(), user);
         return buildResponse(user, request.userPhoneNumber());
     }
 }
@@ -0,0 +1,37 @@
+package org.example.ecommerce.application.service.cart;
+
+import org.example.ecommerce.domain.model.cart.GuestCart;
+
+import java.util.Optional;
+
+/**
+ * Storage for anonymous (TEMP_CART_ID) carts.
+ * <p>
+ * Guest carts never touch the relational tables; they are materialized into a
+ * {@code Cart} row only when the visitor logs in (merge) or checks out. Entries
+ * expire after a period of inactivity. The implementation is chosen with
+ * {@code cart.guest.store}: {@code memory} (default, one instance) or
+ * {@code redis} (shared); see {@code CartStoreConfig}.
+ * </p>
+ */
+public interface CartStore {
+
+    Optional<GuestCart> find(String tempId);
+
+    /**
+     * Atomically adds {@code quantity} of a product, creating the cart if needed.
+     *
+     * @return the cart after the change
+     */
+    GuestCart addItem(String tempId, Long productId, int quantity);
+
+    void remove(String tempId);
+
+    /**
+     * Whether this tempId was already merged into a user cart and has had no
+     * guest changes since, so the login merge can be skipped.
+     */
+    boolean isMerged(String tempId);
+
+    void markMerged(String tempId);
+}
@@ -1,95 +1,147 @@
 package org.example.ecommerce.application.service.cart.impl;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.cart.CartService;
+import org.example.ecommerce.application.service.cart.CartStore;
 import org.example.ecommerce.domain.model.cart.Cart;
 import org.example.ecommerce.domain.model.cart.CartItem;
+import org.example.ecommerce.domain.model.cart.GuestCart;
 import org.example.ecommerce.domain.model.cart.repository.CartItemRepository;
+import org.example.ecommerce.domain.model.cart.exception.CartConflictException;
 import org.example.ecommerce.domain.model.cart.repository.CartRepository;
+import org.example.ecommerce.domain.model.inventory.exception.InsufficientStockException;
 import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.exception.ProductNotFoundException;
 import org.example.ecommerce.domain.model.product.repository.ProductRepository;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CartServiceImpl implements CartService {
 
+    private static final int MAX_ADD_ATTEMPTS = 3;
+
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CartStore cartStore;
 
     /**
      * إضافة منتج إلى السلة سواء للمستخدم المسجل أو الـ guest
+     * <p>
+     * Cart and CartItem are versioned: if another request changed the same cart
+     * meanwhile, the commit fails and the whole add is retried on fresh rows.
+     * </p>
      */
     @Override
-    @Transactional
     public Optional<CartItem> addCartItem(Long userId, Long productId, Integer quantity, String tempId) {
         log.info("➡️ addCartItem started. userId={}, productId={}, quantity={}, tempId={}", userId, productId, quantity, tempId);
 
-        try {
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be greater than 0");
+        }
+        if (userId == null) {
+            return Optional.of(addGuestCartItem(productId, quantity, tempId));
+        }
 
-            if (quantity == null || quantity <= 0) {
-                throw new RuntimeException("Quantity must be greater than 0");
+        for (int attempt = 1; ; attempt++) {
+            try {
+                CartItem cartItem = transactionTemplate.execute(status -> doAddCartItem(userId, productId, quantity));
+                log.info("✅ addCartItem finished successfully for userId={}, productId={}", userId, productId);
+                return Optional.ofNullable(cartItem);
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // تعديل متزامن على نفس السلة (أو إنشاء نفس السلة مرتين): نعيد من الأول
+                if (attempt >= MAX_ADD_ATTEMPTS) {
+                    log.warn("addCartItem gave up after {} conflicting attempts, userId={}, tempId={}", attempt, userId, tempId);
+                    throw new CartConflictException("Cart was modified concurrently, please retry");
+                }
+                log.debug("addCartItem conflict (attempt {}), retrying: {}", attempt, e.getMessage());
+            } catch (InsufficientStockException | ProductNotFoundException e) {
+                log.warn("addCartItem rejected for productId={}: {}", productId, e.getMessage());
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("❌ Error in addCartItem: {}", e.getMessage(), e);
+                throw new RuntimeException("Error adding item to cart: " + e.getMessage());
             }
+        }
+    }
 
-            Cart cart;
-            if (userId != null) {
-                User user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-                cart = cartRepository.findByUser(user).orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    return cartRepository.save(newCart);
-                });
-            } else {
-                cart = cartRepository.findByTempId(tempId).orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setTempId(tempId);
-                    return cartRepository.save(newCart);
+    // كل الـ lookups بالـ ids، والمجاميع بتتحدث بالفرق بدل ما نلف على كل العناصر
+    private CartItem doAddCartItem(Long userId, Long productId, int quantity) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found"));
+
+        Cart cart = findOrCreateUserCart(userId);
+
+        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
+                .orElseGet(() -> {
+                    CartItem newItem = new CartItem();
+                    newItem.setCart(cart);
+                    newItem.setProduct(product);
+                    newItem.setUserId(userId);
+                    newItem.setQuantity(0);
+                    return newItem;
                 });
-            }
 
-            CartItem cartItem = cartItemRepository.findByCartAndProduct(cart, product)
-                    .orElseGet(() -> {
-                        CartItem newItem = new CartItem();
-                        newItem.setCart(cart);
-                        newItem.setProduct(product);
-                        newItem.setUserId(userId);
-                        newItem.setQuantity(0);
-                        return newItem;
-                    });
-
-            int newQuantity = cartItem.getQuantity() + quantity;
-            cartItem.setQuantity(newQuantity);
-            cartItem.setSellingPrice((long) newQuantity * product.getSellingPrice());
-            cartItem.setMaximumRetailPrice((long) newQuantity * product.getMaximumRetailPrice());
-
-            cartItem = cartItemRepository.save(cartItem);
-
-            if (!cart.getCartItems().contains(cartItem)) {
-                cart.getCartItems().add(cartItem);
-            }
+        int newQuantity = cartItem.getQuantity() + quantity;
+        // فحص مبدئي بس؛ الخصم الفعلي بيحصل atomically وقت الـ checkout
+        if (product.getQuantity() == null || newQuantity > product.getQuantity()) {
+            throw new InsufficientStockException("Only " + product.getQuantity() + " items left in stock");
+        }
 
-            recalculateCartTotals(cart);
-            cartRepository.save(cart);
+        long oldSellingPrice = valueOrZero(cartItem.getSellingPrice());
+        long oldMaximumRetailPrice = valueOrZero(cartItem.getMaximumRetailPrice());
+        cartItem.setQuantity(newQuantity);
+        cartItem.setSellingPrice((long) newQuantity * product.getSellingPrice());
+        cartItem.setMaximumRetailPrice((long) newQuantity * product.getMaximumRetailPrice());
+        cartItem = cartItemRepository.save(cartItem);
+
+        applyDelta(cart,
+                quantity,
+                cartItem.getSellingPrice() - oldSellingPrice,
+                cartItem.getMaximumRetailPrice() - oldMaximumRetailPrice);
+        cartRepository.save(cart); // بيزود الـ version حتى لو العنصر بس اللي اتغير
+        return cartItem;
+    }
 
-            log.info("✅ addCartItem finished successfully for userId={}, productId={}", userId, productId);
-            return Optional.of(cartItem);
+    // الـ guest cart في الـ CartStore بس، من غير أي كتابة في الداتابيز
+    private CartItem addGuestCartItem(Long productId, int quantity, String tempId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found"));
 
-        } catch (Exception e) {
-            log.error("❌ Error in addCartItem: {}", e.getMessage(), e);
-            throw new RuntimeException("Error adding item to cart: " + e.getMessage());
+        int newQuantity = cartStore.find(tempId).map(cart -> cart.quantityOf(productId)).orElse(0) + quantity;
+        if (product.getQuantity() == null || newQuantity > product.getQuantity()) {
+            throw new InsufficientStockException("Only " + product.getQuantity() + " items left in stock");
         }
+
+        cartStore.addItem(tempId, productId, quantity);
+        log.info("✅ guest cart {} updated, productId={}", tempId, productId);
+        return toCartItem(product, newQuantity, null);
+    }
+
+    private Cart findOrCreateUserCart(Long userId) {
+        return cartRepository.findByUserId(userId).orElseGet(() -> {
+            Cart newCart = new Cart();
+            newCart.setUser(userRepository.getReferenceById(userId));
+            return cartRepository.save(newCart);
+        });
     }
 
     /**
@@ -120,6 +172,12 @@ public class CartServiceImpl implements CartService {
                     return Optional.empty();
                 }
 
+                Optional<GuestCart> guestCart = cartStore.find(tempId);
+                if (guestCart.isPresent()) {
+                    return Optional.of(toCart(guestCart.get()));
+                }
+
+                // سلال guest قديمة اتحفظت في الداتابيز قبل الـ CartStore
                 Optional<Cart> cartOpt = cartRepository.findByTempId(tempId);
                 if (cartOpt.isEmpty()) {
                     log.info("No cart found for tempId: {}", tempId);
@@ -153,66 +211,153 @@ public class CartServiceImpl implements CartService {
 //        }
 //    }
 
-    @Transactional
+    /**
+     * دمج سلة الـ guest (الـ CartStore أو سلة temp قديمة في الداتابيز) في سلة المستخدم
+     * <p>
+     * Set-based: both carts' items are read with one query, merged in memory by
+     * product id and written with one batch. The tempId is then marked merged, so
+     * the calls on every later request return without touching the DB.
+     * </p>
+     * <p>
+     * The first requests after login often merge at the same time. The loser hits a
+     * version conflict on the user cart and returns quietly: the winner's merge
+     * already holds the guest items, and if the conflict came from something else
+     * the tempId is still unmerged, so the next request merges it. Retrying in place
+     * could add the guest items twice while the winner has committed but not yet
+     * marked the tempId.
+     * </p>
+     */
     public void checkIfUserLoginAndHaveCookie(Long userId, String tempId) {
-        if (userId != null && tempId != null) {
-            Cart tempCart = cartRepository.findByTempId(tempId).orElse(null);
-            if (tempCart == null) return;
-
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User with ID " + userId + " not found"));
-
-            Cart userCart = cartRepository.findByUser(user).orElse(null);
-
-            if (userCart != null) {
-                // دمج السلة المؤقتة مع سلة المستخدم
-                for (CartItem tempItem : tempCart.getCartItems()) {
-                    CartItem existingItem = cartItemRepository.findByCartAndProduct(userCart, tempItem.getProduct())
-                            .orElse(null);
-
-                    if (existingItem != null) {
-                        existingItem.setQuantity(existingItem.getQuantity() + tempItem.getQuantity());
-                        existingItem.setSellingPrice(existingItem.getQuantity() * tempItem.getProduct().getSellingPrice());
-                        existingItem.setMaximumRetailPrice(existingItem.getQuantity() * tempItem.getProduct().getMaximumRetailPrice());
-                        existingItem.setUserId(user.getId()); // تعيين userId الحقيقي
-                        cartItemRepository.save(existingItem);
-                    } else {
-                        tempItem.setCart(userCart);
-                        tempItem.setUserId(user.getId()); // تعيين userId الحقيقي
-                        userCart.getCartItems().add(tempItem);
-                    }
-                }
+        if (userId == null || tempId == null || cartStore.isMerged(tempId)) {
+            return;
+        }
 
-                recalculateCartTotals(userCart);
-                cartRepository.save(userCart);
-                cartRepository.delete(tempCart);
+        GuestCart guestCart = cartStore.find(tempId).orElse(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> mergeTempCarts(userId, tempId, guestCart));
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // طلب تاني بيدمج نفس السلة (أو بيعدل سلة المستخدم) في نفس اللحظة
+            if (cartStore.isMerged(tempId)) {
+                log.debug("Temp cart {} already merged by a concurrent request for user {}", tempId, userId);
             } else {
-                // ربط tempCart مباشرة بالمستخدم إذا لم يكن لديه سلة
-                tempCart.setUser(user);
-                tempCart.setTempId(null); // إزالة tempId لتجنب تكرار الفريد
-                for (CartItem item : tempCart.getCartItems()) {
-                    item.setUserId(user.getId()); // تأكد من أن كل العناصر لها userId
-                }
-                cartRepository.save(tempCart);
+                log.info("Merge of temp cart {} into cart of user {} conflicted, left for the next request: {}",
+                        tempId, userId, e.getMessage());
             }
+            return;
         }
+        cartStore.remove(tempId);
+        cartStore.markMerged(tempId);
     }
 
     @Override
-    @Transactional
     public void mergeTempCartToUser(String tempId, Long userId) {
         checkIfUserLoginAndHaveCookie(userId, tempId);
     }
 
+    private void mergeTempCarts(Long userId, String tempId, GuestCart guestCart) {
+        Cart tempCart = cartRepository.findByTempId(tempId).orElse(null);
+        if (tempCart == null && (guestCart == null || guestCart.items().isEmpty())) {
+            return;
+        }
+
+        Cart userCart = findOrCreateUserCart(userId);
+        List<Long> cartIds = tempCart == null
+                ? List.of(userCart.getId())
+                : List.of(userCart.getId(), tempCart.getId());
+
+        // الكميات الجاية من الـ guest: من الـ CartStore ومن السلة القديمة
+        Map<Long, Integer> incoming = new HashMap<>();
+        if (guestCart != null) {
+            guestCart.items().forEach((productId, quantity) -> incoming.merge(productId, quantity, Integer::sum));
+        }
+
+        Map<Long, CartItem> merged = new HashMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (CartItem item : cartItemRepository.findByCartIdIn(cartIds)) {
+            Long productId = item.getProduct().getId();
+            products.put(productId, item.getProduct());
+            if (userCart.getId().equals(item.getCart().getId())) {
+                merged.put(productId, item);
+            } else {
+                incoming.merge(productId, item.getQuantity(), Integer::sum);
+            }
+        }
+
+        List<Long> missing = incoming.keySet().stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing).forEach(product -> products.put(product.getId(), product));
+        }
+
+        incoming.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                return; // المنتج اتمسح من ساعة ما اتضاف
+            }
+            CartItem item = merged.computeIfAbsent(productId, id -> {
+                CartItem newItem = toCartItem(product, 0, userId);
+                newItem.setCart(userCart);
+                return newItem;
+            });
+            int newQuantity = item.getQuantity() + quantity;
+            item.setQuantity(newQuantity);
+            item.setUserId(userId);
+            item.setSellingPrice((long) newQuantity * product.getSellingPrice());
+            item.setMaximumRetailPrice((long) newQuantity * product.getMaximumRetailPrice());
+        });
+
+        cartItemRepository.saveAll(merged.values());
+        if (tempCart != null) {
+            cartRepository.delete(tempCart); // عناصرها بتتمسح معاها (orphanRemoval)
+        }
+
+        recalculateCartTotals(userCart, merged.values());
+        cartRepository.save(userCart);
+        log.info("Temp cart {} merged into cart of user {} ({} items)", tempId, userId, merged.size());
+    }
+
+    // سلة للعرض بس (من غير id) مبنية من الـ guest cart وأسعار المنتجات الحالية
+    private Cart toCart(GuestCart guestCart) {
+        Map<Long, Product> products = loadProducts(guestCart);
+        Cart cart = new Cart();
+        cart.setTempId(guestCart.tempId());
+        guestCart.items().forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product != null) {
+                cart.getCartItems().add(toCartItem(product, quantity, null));
+            }
+        });
+        recalculateCartTotals(cart);
+        return cart;
+    }
+
+    private Map<Long, Product> loadProducts(GuestCart guestCart) {
+        return productRepository.findAllById(guestCart.items().keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private CartItem toCartItem(Product product, int quantity, Long userId) {
+        CartItem item = new CartItem();
+        item.setProduct(product);
+        item.setUserId(userId);
+        item.setQuantity(quantity);
+        item.setSellingPrice((long) quantity * product.getSellingPrice());
+        item.setMaximumRetailPrice((long) quantity * product.getMaximumRetailPrice());
+        return item;
+    }
+
     /**
      * إعادة حساب المجاميع والخصومات للسلة
      */
     private void recalculateCartTotals(Cart cart) {
+        recalculateCartTotals(cart, cart.getCartItems());
+    }
+
+    private void recalculateCartTotals(Cart cart, Collection<CartItem> cartItems) {
         long totalPrice = 0L;
         long totalDiscountPrice = 0L;
         int totalItem = 0;
 
-        for (CartItem cartItem : cart.getCartItems()) {
+        for (CartItem cartItem : cartItems) {
             Long sellingPrice = cartItem.getSellingPrice();
             Long maximumPrice = cartItem.getMaximumRetailPrice();
             Integer itemQuantity = cartItem.getQuantity();
@@ -230,6 +375,23 @@ public class CartServiceImpl implements CartService {
         cart.setQuantity(totalItem);
     }
 
+    /**
+     * تحديث المجاميع بفرق العنصر اللي اتغير من غير ما نحمّل باقي العناصر
+     */
+    private void applyDelta(Cart cart, int quantityDelta, long sellingPriceDelta, long maximumRetailPriceDelta) {
+        long totalPrice = valueOrZero(cart.getTotalMaximumRetailPrice()) + maximumRetailPriceDelta;
+        long totalDiscountPrice = valueOrZero(cart.getTotalSellingPrice()) + sellingPriceDelta;
+
+        cart.setTotalMaximumRetailPrice(totalPrice);
+        cart.setTotalSellingPrice(totalDiscountPrice);
+        cart.setDiscount(calculateDiscountPercentage(totalPrice, totalDiscountPrice));
+        cart.setQuantity((cart.getQuantity() == null ? 0 : cart.getQuantity()) + quantityDelta);
+    }
+
+    private long valueOrZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
     private long calculateDiscount(long totalPrice, long totalDiscountPrice) {
         return (totalPrice <= 0 || totalDiscountPrice < 0) ? 0L : totalPrice - totalDiscountPrice;
     }
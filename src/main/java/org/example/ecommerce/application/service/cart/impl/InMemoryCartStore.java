@@ -0,0 +1,119 @@
+package org.example.ecommerce.application.service.cart.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.cart.CartStore;
+import org.example.ecommerce.domain.model.cart.GuestCart;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CartStore} kept in a {@link ConcurrentHashMap} of this instance.
+ * <p>
+ * Each read or write pushes the expiry out by {@code cart.guest.ttl-hours}; expired
+ * carts are purged periodically. Past {@code cart.guest.max-size} the oldest-expiring
+ * carts are dropped. Carts are lost on restart and are not shared between
+ * instances; multi-instance deployments use {@link RedisCartStore}.
+ * </p>
+ * <p>
+ * Merged tempIds are remembered with the same TTL; losing one only costs another
+ * (empty) merge lookup.
+ * </p>
+ */
+@Slf4j
+public class InMemoryCartStore implements CartStore {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> carts = new ConcurrentHashMap<>();
+    private final Map<String, Long> merged = new ConcurrentHashMap<>();
+
+    public InMemoryCartStore(long ttlHours, int maxSize) {
+        this.ttlNanos = Duration.ofHours(ttlHours).toNanos();
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public Optional<GuestCart> find(String tempId) {
+        if (tempId == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        Entry entry = carts.computeIfPresent(tempId, (id, current) ->
+                current.expiresAt - now > 0 ? new Entry(current.cart, now + ttlNanos) : null);
+        return entry == null ? Optional.empty() : Optional.of(entry.cart);
+    }
+
+    @Override
+    public GuestCart addItem(String tempId, Long productId, int quantity) {
+        if (carts.size() >= maxSize) {
+            shrink();
+        }
+        merged.remove(tempId);
+        long now = System.nanoTime();
+        Entry entry = carts.compute(tempId, (id, current) -> {
+            GuestCart cart = current == null || current.expiresAt - now <= 0 ? GuestCart.empty(id) : current.cart;
+            return new Entry(cart.withAdded(productId, quantity), now + ttlNanos);
+        });
+        return entry.cart;
+    }
+
+    @Override
+    public void remove(String tempId) {
+        if (tempId != null) {
+            carts.remove(tempId);
+        }
+    }
+
+    @Override
+    public boolean isMerged(String tempId) {
+        if (tempId == null) {
+            return false;
+        }
+        Long expiresAt = merged.get(tempId);
+        return expiresAt != null && expiresAt - System.nanoTime() > 0;
+    }
+
+    @Override
+    public void markMerged(String tempId) {
+        if (tempId == null) {
+            return;
+        }
+        if (merged.size() >= maxSize) {
+            merged.clear();
+        }
+        merged.put(tempId, System.nanoTime() + ttlNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.guest.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        int before = carts.size();
+        carts.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        merged.values().removeIf(expiresAt -> expiresAt - now <= 0);
+        int purged = before - carts.size();
+        if (purged > 0) {
+            log.info("Purged {} expired guest carts, {} left", purged, carts.size());
+        }
+    }
+
+    private void shrink() {
+        purgeExpired();
+        int excess = carts.size() - maxSize + maxSize / 10;
+        if (excess <= 0) {
+            return;
+        }
+        carts.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.expiresAt - b.expiresAt, 0)))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(carts::remove);
+        log.warn("Guest cart store full, dropped {} least recently used carts", excess);
+    }
+
+    private record Entry(GuestCart cart, long expiresAt) {}
+}
@@ -0,0 +1,94 @@
+package org.example.ecommerce.application.service.cart.impl;
+
+import org.example.ecommerce.application.service.cart.CartStore;
+import org.example.ecommerce.domain.model.cart.GuestCart;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link CartStore} shared by all instances through Redis.
+ * <p>
+ * A cart is a hash {@code cart:guest:<tempId>} of product id to quantity with a
+ * sliding TTL of {@code cart.guest.ttl-hours}; the add, the TTL refresh and clearing
+ * the merged marker run as one Lua script, so concurrent adds from several
+ * instances are never lost. Size is bounded by the Redis eviction policy rather
+ * than {@code cart.guest.max-size}.
+ * </p>
+ */
+public class RedisCartStore implements CartStore {
+
+    private static final String CART_PREFIX = "cart:guest:";
+    private static final String MERGED_PREFIX = "cart:merged:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD_ITEM = new DefaultRedisScript<>("""
+            redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('DEL', KEYS[2])
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate, long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    @Override
+    public Optional<GuestCart> find(String tempId) {
+        if (tempId == null) {
+            return Optional.empty();
+        }
+        String key = CART_PREFIX + tempId;
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+        if (entries.isEmpty()) {
+            return Optional.empty();
+        }
+        redisTemplate.expire(key, ttl);
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        entries.forEach((productId, quantity) ->
+                items.put(Long.valueOf(productId.toString()), Integer.valueOf(quantity.toString())));
+        return Optional.of(new GuestCart(tempId, items));
+    }
+
+    @Override
+    public GuestCart addItem(String tempId, Long productId, int quantity) {
+        List<?> flat = redisTemplate.execute(ADD_ITEM,
+                List.of(CART_PREFIX + tempId, MERGED_PREFIX + tempId),
+                productId.toString(), Integer.toString(quantity), Long.toString(ttl.toMillis()));
+        // HGETALL بيرجع field, value, field, value ...
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        for (int i = 0; flat != null && i + 1 < flat.size(); i += 2) {
+            items.put(Long.valueOf(flat.get(i).toString()), Integer.valueOf(flat.get(i + 1).toString()));
+        }
+        return new GuestCart(tempId, items);
+    }
+
+    @Override
+    public void remove(String tempId) {
+        if (tempId != null) {
+            redisTemplate.delete(CART_PREFIX + tempId);
+        }
+    }
+
+    @Override
+    public boolean isMerged(String tempId) {
+        return tempId != null && Boolean.TRUE.equals(redisTemplate.hasKey(MERGED_PREFIX + tempId));
+    }
+
+    @Override
+    public void markMerged(String tempId) {
+        if (tempId != null) {
+            redisTemplate.opsForValue().set(MERGED_PREFIX + tempId, "1", ttl);
+        }
+    }
+}
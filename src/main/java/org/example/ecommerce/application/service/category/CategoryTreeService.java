@@ -0,0 +1,22 @@
+package org.example.ecommerce.application.service.category;
+
+import org.example.ecommerce.infrastructure.dto.category.CategoryTreeSnapshot;
+
+/**
+ * Keeps an in-memory snapshot of the category tree for storefront reads.
+ */
+public interface CategoryTreeService {
+
+    /**
+     * Returns the current snapshot, building it on first use.
+     *
+     * @return the current category tree snapshot
+     */
+    CategoryTreeSnapshot current();
+
+    /**
+     * Rebuilds the snapshot from the database and swaps it in atomically.
+     * Called after a category is created, updated or deleted.
+     */
+    void rebuild();
+}
@@ -7,19 +7,24 @@ import org.example.ecommerce.application.service.category.CategoryService;
 import org.example.ecommerce.domain.common.exception.ImageIsRequired;
 import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.category.exception.CategoryAlreadyExistsException;
+import org.example.ecommerce.domain.model.category.exception.CategoryInUseException;
 import org.example.ecommerce.domain.model.category.exception.CategoryNotFoundException;
+import org.example.ecommerce.domain.model.category.exception.InvalidCategoryParentException;
 import org.example.ecommerce.domain.model.category.reppository.CategoryRepository;
 import org.example.ecommerce.infrastructure.dto.category.*;
 import org.example.ecommerce.infrastructure.event.CategoryEvent;
 import org.example.ecommerce.infrastructure.event.Type;
 import org.example.ecommerce.infrastructure.mapper.CategoryMapper;
 import org.example.ecommerce.infrastructure.utils.ImageUploadUtil;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -86,6 +91,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category saved = categoryRepository.save(category);
+        saved.setPath(saved.buildPath()); // الـ path محتاج الـ id بعد الحفظ
 
         String username = getCurrentUsername();
 
@@ -157,14 +163,31 @@ public class CategoryServiceImpl implements CategoryService {
         if (createCategoryDto.level() != null) category.setLevel(createCategoryDto.level());
         category.setImageUrl(iconImageUrl);
 
+        String oldPath = category.getPath();
         if (createCategoryDto.parentCategoryId() != null) {
             Category parent = categoryRepository.findById(createCategoryDto.parentCategoryId())
                     .orElseThrow(() -> new CategoryNotFoundException("Parent category with id " + createCategoryDto.parentCategoryId() + " not found"));
+            if (parent.getId().equals(category.getId())
+                    || (oldPath != null && parent.getPath() != null && parent.getPath().startsWith(oldPath))) {
+                throw new InvalidCategoryParentException("Category " + id + " cannot be moved under itself or one of its descendants");
+            }
             category.setParentCategory(parent);
         }
 
         Category updatedCategory = categoryRepository.save(category);
 
+        // لو الأب اتغير: نعدل الـ path للفرع كله في query واحدة
+        String newPath = updatedCategory.buildPath();
+        if (oldPath == null) {
+            updatedCategory.setPath(newPath);
+        } else if (!newPath.equals(oldPath)) {
+            int moved = categoryRepository.replacePathPrefix(oldPath, newPath);
+            // الـ bulk update عمل clear للـ persistence context، فبنقرا الكاتيجوري تاني
+            updatedCategory = categoryRepository.findById(id)
+                    .orElseThrow(() -> new CategoryNotFoundException("Category with id " + id + " not found"));
+            log.info("Category id={} moved from {} to {}, {} paths updated", id, oldPath, newPath, moved);
+        }
+
         String username = getCurrentUsername();
         eventPublisher.publishEvent(new CategoryEvent(updatedCategory, Type.UPDATED, username));
 
@@ -182,11 +205,12 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     /**
-     * Deletes a category by ID, including all child categories.
+     * Deletes a category by ID, including all descendant categories.
      *
      * @param id the ID of the category to delete
      * @return true if deletion was successful
      * @throws CategoryNotFoundException if the category does not exist
+     * @throws CategoryInUseException    if the category or one of its descendants still has products
      */
     @Override
     @Transactional
@@ -196,13 +220,28 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Category with id " + id + " not found"));
 
-        List<Category> childCategories = categoryRepository.findByParentCategory(category);
-        if (!childCategories.isEmpty()) {
-            categoryRepository.deleteAll(childCategories);
+        if (category.getPath() != null) {
+            // منتجات في أي كاتيجوري تحت الفرع هتكسر الـ FK، فبنرفض قبل الحذف
+            long products = categoryRepository.countProductsInSubtree(category.getPath());
+            if (products > 0) {
+                throw new CategoryInUseException("Category with id " + id + " still has " + products + " products in its subtree");
+            }
+            int deleted = categoryRepository.deleteSubtree(category.getPath());
+            log.info("Deleted {} categories under path {}", deleted, category.getPath());
+        } else {
+            List<Category> childCategories = categoryRepository.findByParentCategory(category);
+            List<Category> subtree = new ArrayList<>(childCategories);
+            subtree.add(category);
+            long products = categoryRepository.countProductsIn(subtree);
+            if (products > 0) {
+                throw new CategoryInUseException("Category with id " + id + " still has " + products + " products in its subtree");
+            }
+            if (!childCategories.isEmpty()) {
+                categoryRepository.deleteAll(childCategories);
+            }
+            categoryRepository.delete(category);
         }
 
-        categoryRepository.delete(category);
-
         String username = getCurrentUsername();
         eventPublisher.publishEvent(new CategoryEvent(category, Type.DELETED, username));
 
@@ -223,28 +262,44 @@ public class CategoryServiceImpl implements CategoryService {
 
     /**
      * Retrieves all categories in a hierarchical structure.
+     * Children come from the {@code children} mapping, entities are not modified.
      *
      * @return list of root categories with children populated
      */
     @Override
     public List<Category> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
+        return categoryRepository.findAll().stream()
+                .filter(c -> c.getParentCategory() == null)
+                .toList();
+    }
 
-        Map<Long, Category> categoryMap = categories.stream()
+    /**
+     * Fills in the materialized path of categories created before the column existed.
+     * Runs once at startup and does nothing when every category already has a path.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPaths() {
+        List<Category> categories = categoryRepository.findAll();
+        Map<Long, Category> byId = categories.stream()
                 .collect(Collectors.toMap(Category::getId, Function.identity()));
 
-        for (Category category : categories) {
-            if (category.getParentCategory() != null) {
-                Category parent = categoryMap.get(category.getParentCategory().getId());
-                if (parent != null) {
-                    parent.getChildren().add(category);
-                }
-            }
+        long missing = categories.stream().filter(c -> c.getPath() == null).count();
+        if (missing == 0) {
+            return;
         }
+        categories.forEach(c -> resolvePath(c, byId));
+        log.info("Backfilled materialized path for {} categories", missing);
+    }
 
-        return categories.stream()
-                .filter(c -> c.getParentCategory() == null)
-                .toList();
+    private String resolvePath(Category category, Map<Long, Category> byId) {
+        if (category.getPath() == null) {
+            Category parent = category.getParentCategory() != null
+                    ? byId.get(category.getParentCategory().getId())
+                    : null;
+            String parentPath = parent != null ? resolvePath(parent, byId) : "/";
+            category.setPath(parentPath + category.getId() + "/");
+        }
+        return category.getPath();
     }
 
     /**
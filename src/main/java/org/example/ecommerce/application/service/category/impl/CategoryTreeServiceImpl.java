@@ -0,0 +1,127 @@
+package org.example.ecommerce.application.service.category.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.category.CategoryTreeService;
+import org.example.ecommerce.domain.common.exception.INTERNAL_SERVER_ERROR;
+import org.example.ecommerce.domain.model.category.Category;
+import org.example.ecommerce.domain.model.category.reppository.CategoryRepository;
+import org.example.ecommerce.infrastructure.dto.category.CategoryDto;
+import org.example.ecommerce.infrastructure.dto.category.CategoryTreeSnapshot;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the category tree from one flat {@code findAll()} and keeps it as an
+ * immutable {@link CategoryTreeSnapshot}.
+ * <p>
+ * Readers never block once the snapshot exists; rebuilds are serialized and
+ * replace the reference in one step, so a reader sees either the old tree or
+ * the new one. Entities are never mutated, the tree is assembled from DTOs.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeServiceImpl implements CategoryTreeService {
+
+    private static final Comparator<Category> BY_ID = Comparator.comparing(Category::getId);
+
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<CategoryTreeSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Override
+    public CategoryTreeSnapshot current() {
+        CategoryTreeSnapshot tree = snapshot.get();
+        if (tree != null) {
+            return tree;
+        }
+        synchronized (this) {
+            tree = snapshot.get();
+            if (tree == null) {
+                tree = build();
+                snapshot.set(tree);
+            }
+            return tree;
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        try {
+            snapshot.set(build());
+        } catch (RuntimeException e) {
+            // نلغي النسخة القديمة عشان أول request يعيد البناء
+            snapshot.set(null);
+            log.error("Failed to rebuild category tree, snapshot invalidated", e);
+        }
+    }
+
+    private CategoryTreeSnapshot build() {
+        List<Category> categories = categoryRepository.findAll();
+
+        Map<Long, Category> byId = categories.stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Map<Long, List<Category>> childrenByParent = categories.stream()
+                .filter(c -> c.getParentCategory() != null)
+                .sorted(BY_ID)
+                .collect(Collectors.groupingBy(c -> c.getParentCategory().getId()));
+
+        List<CategoryDto> roots = categories.stream()
+                .filter(c -> c.getParentCategory() == null)
+                .sorted(BY_ID)
+                .map(c -> toDto(c, byId, childrenByParent))
+                .toList();
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(roots);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            long next = version.incrementAndGet();
+            log.info("Category tree rebuilt: version={}, categories={}, etag={}", next, categories.size(), etag);
+            return new CategoryTreeSnapshot(next, roots, json, etag);
+        } catch (JsonProcessingException e) {
+            throw new INTERNAL_SERVER_ERROR("Could not serialize category tree");
+        }
+    }
+
+    // الأب بيتجاب من الـ map مش من الـ lazy proxy
+    private CategoryDto toDto(Category category,
+                              Map<Long, Category> byId,
+                              Map<Long, List<Category>> childrenByParent) {
+        CategoryDto.ParentCategory parent = null;
+        if (category.getParentCategory() != null) {
+            Category p = byId.get(category.getParentCategory().getId());
+            if (p != null) {
+                parent = new CategoryDto.ParentCategory(p.getId(), p.getNameEn(), p.getNameAr(), p.getCategoryId());
+            }
+        }
+
+        List<CategoryDto> children = childrenByParent.getOrDefault(category.getId(), List.of()).stream()
+                .map(child -> toDto(child, byId, childrenByParent))
+                .toList();
+
+        return CategoryDto.builder()
+                .id(category.getId())
+                .nameEn(category.getNameEn())
+                .nameAr(category.getNameAr())
+                .categoryId(category.getCategoryId())
+                .level(category.getLevel())
+                .imageUrl(category.getImageUrl())
+                .parentCategory(parent)
+                .children(children)
+                .build();
+    }
+}
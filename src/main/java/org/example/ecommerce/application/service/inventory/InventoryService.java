@@ -0,0 +1,51 @@
+package org.example.ecommerce.application.service.inventory;
+
+import org.example.ecommerce.domain.model.order.Order;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stock reservation at checkout.
+ * <p>
+ * {@link #reserve(Collection)} takes the ordered quantities from
+ * {@code product.quantity} with conditional atomic updates, in product-id order
+ * so concurrent checkouts lock rows in the same order and cannot deadlock. It
+ * runs in the caller's transaction: if one product is short the whole checkout
+ * rolls back. Reservations are confirmed on payment, or released on cancel or
+ * when they expire unpaid.
+ * </p>
+ */
+public interface InventoryService {
+
+    /**
+     * @throws org.example.ecommerce.domain.model.inventory.exception.InsufficientStockException
+     *         if any product does not have enough stock
+     */
+    void reserve(Collection<Order> orders);
+
+    /**
+     * Marks the active reservations of paid orders as sold.
+     *
+     * @return ids of the orders whose stock was already released (cancelled, or their
+     *         payment window expired) before the payment arrived; they stay cancelled
+     *         and the payment for them has to be refunded
+     */
+    List<Long> confirm(Collection<Order> orders);
+
+    /**
+     * Puts the stock of a cancelled order back. Safe to call twice.
+     * <p>
+     * Confirmed reservations go back too; the order was already paid, so it is
+     * flagged for refund.
+     * </p>
+     */
+    void release(Long orderId);
+
+    /**
+     * Releases reservations whose payment window passed and cancels their pending orders,
+     * one transaction per order so a failing order is retried on the next sweep without
+     * holding back the rest of the batch.
+     */
+    void releaseExpired();
+}
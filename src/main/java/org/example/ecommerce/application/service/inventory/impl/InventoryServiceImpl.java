@@ -0,0 +1,181 @@
+package org.example.ecommerce.application.service.inventory.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.inventory.InventoryService;
+import org.example.ecommerce.domain.model.inventory.ReservationStatus;
+import org.example.ecommerce.domain.model.inventory.StockReservation;
+import org.example.ecommerce.domain.model.inventory.exception.InsufficientStockException;
+import org.example.ecommerce.domain.model.inventory.repository.StockRepository;
+import org.example.ecommerce.domain.model.inventory.repository.StockReservationRepository;
+import org.example.ecommerce.domain.model.order.Order;
+import org.example.ecommerce.domain.model.order.OrderItem;
+import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.model.order.repository.OrderRepository;
+import org.example.ecommerce.domain.payment.PaymentDetails;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@Slf4j
+public class InventoryServiceImpl implements InventoryService {
+
+    private final StockRepository stockRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reservationTtl;
+    private final int sweepBatchSize;
+
+    public InventoryServiceImpl(StockRepository stockRepository,
+                                StockReservationRepository stockReservationRepository,
+                                OrderRepository orderRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${inventory.reservation.ttl-minutes:30}") long ttlMinutes,
+                                @Value("${inventory.reservation.sweep-batch-size:100}") int sweepBatchSize) {
+        this.stockRepository = stockRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationTtl = Duration.ofMinutes(ttlMinutes);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Collection<Order> orders) {
+        // إجمالي الكمية لكل منتج، مترتب بالـ id عشان كل الـ checkouts تقفل الصفوف بنفس الترتيب
+        Map<Long, Integer> totals = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                totals.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : totals.entrySet()) {
+            if (!stockRepository.tryDecrement(entry.getKey(), entry.getValue())) {
+                // الـ rollback بيرجع اللي اتخصم قبل كده
+                throw new InsufficientStockException("Not enough stock for product " + entry.getKey());
+            }
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                reservations.add(new StockReservation(order.getId(), item.getProduct().getId(), item.getQuantity(), expiresAt));
+            }
+        }
+        stockReservationRepository.saveAll(reservations);
+        log.info("Reserved stock for {} products across {} orders", totals.size(), orders.size());
+    }
+
+    @Override
+    @Transactional
+    public List<Long> confirm(Collection<Order> orders) {
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        // الـ UPDATE بيستنى أي release شغال على نفس الصفوف، فاللي بعده بيشوف النتيجة النهائية
+        int confirmed = stockReservationRepository.confirmByOrderIds(orderIds);
+        List<Long> released = stockReservationRepository.findOrderIdsByStatus(orderIds, ReservationStatus.RELEASED);
+        if (!released.isEmpty()) {
+            log.warn("Stock of orders {} was released before their payment arrived", released);
+        }
+        log.debug("Confirmed {} stock reservations for orders {}", confirmed, orderIds);
+        return released;
+    }
+
+    @Override
+    @Transactional
+    public void release(Long orderId) {
+        releaseReservations(orderId, ReservationStatus.ACTIVE);
+        // الطلب كان اتدفع: المخزون المتباع يرجع والفلوس لازم ترجع
+        if (releaseReservations(orderId, ReservationStatus.CONFIRMED) > 0) {
+            // نفس الـ instance اللي الـ caller شايله في الـ transaction دي، فالـ save بتاعه ما يمسحش العلامة
+            orderRepository.findById(orderId).ifPresent(order -> {
+                if (order.getPaymentDetails() == null) {
+                    order.setPaymentDetails(new PaymentDetails());
+                }
+                order.getPaymentDetails().setRefundRequired(true);
+            });
+            log.error("Order {} was cancelled after payment and its sold stock released, flagged for refund", orderId);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:60000}")
+    public void releaseExpired() {
+        List<Long> orderIds = stockReservationRepository.findExpiredOrderIds(LocalDateTime.now(), Limit.of(sweepBatchSize));
+        int cancelled = 0;
+        int failed = 0;
+        for (Long orderId : orderIds) {
+            // كل طلب في transaction لوحده عشان deadlock أو lock timeout على منتج واحد ما يرجعش الباقي
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(orderId)))) {
+                    cancelled++;
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Releasing expired reservations of order {} failed, retrying on the next sweep: {}",
+                        orderId, e.getMessage());
+            }
+        }
+        if (!orderIds.isEmpty()) {
+            log.info("Payment window expired for {} orders, {} cancelled and their stock released, {} failed",
+                    orderIds.size(), cancelled, failed);
+        }
+    }
+
+    private boolean expire(Long orderId) {
+        // الدفع سبقنا وأكد الحجز: الطلب ما يتلغاش
+        if (releaseReservations(orderId, ReservationStatus.ACTIVE) == 0) {
+            return false;
+        }
+        Order order = orderRepository.findById(orderId)
+                .filter(o -> o.getOrderStatus() == OrderStatus.PENDING)
+                .orElse(null);
+        if (order == null) {
+            return false;
+        }
+        order.setOrderStatus(OrderStatus.CANCELLED);
+        eventPublisher.publishEvent(OrderLifecycleEvent.of(order, OrderLifecycleEvent.Change.CANCELLED));
+        return true;
+    }
+
+    private int releaseReservations(Long orderId, ReservationStatus status) {
+        List<StockReservation> reservations = new ArrayList<>(
+                stockReservationRepository.findByOrderIdAndStatus(orderId, status));
+        reservations.sort(Comparator.comparing(StockReservation::getProductId));
+        int released = 0;
+        for (StockReservation reservation : reservations) {
+            // لو حد تاني (الـ sweeper أو الدفع) سبقنا الصف ده ما بيرجعش مرتين
+            if (stockReservationRepository.release(reservation.getId(), status) == 1) {
+                stockRepository.increment(reservation.getProductId(), reservation.getQuantity());
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} {} stock reservations of order {}", released, status, orderId);
+        }
+        return released;
+    }
+}
@@ -1,15 +1,13 @@
 package org.example.ecommerce.application.service.jwt.impl;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.jwt.JwtService;
 import org.example.ecommerce.domain.model.user.User;
-import org.example.ecommerce.infrastructure.config.constant.ApplicationConstants;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
@@ -17,21 +15,14 @@ import java.util.Date;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtServiceImpl implements JwtService {
-    @Override
-    public String generateToken(User user) {
-        // الحصول على مفتاح السر من البيئة أو القيمة الافتراضية
-        String secret = System.getenv(ApplicationConstants.JWT_SECRET_KEY);
-        if (secret == null || secret.isBlank()) {
-            secret = ApplicationConstants.JWT_SECRET_DEFAULT_VALUE;
-            log.warn("JWT secret key not found in environment. Using default secret.");
-        } else {
-            log.info("JWT secret key loaded from environment.");
-        }
 
-        SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final JwtTokenVerifier jwtTokenVerifier;
 
+    @Override
+    public String generateToken(User user) {
         // الوقت الحالي
         ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
         Date issuedAt = Date.from(now.toInstant());
@@ -48,6 +39,7 @@ public class JwtServiceImpl implements JwtService {
 
         // بناء التوكن
         String token = Jwts.builder()
+                .header().keyId(jwtTokenVerifier.activeKid()).and()
                 .setIssuer("Masala")
                 .setSubject(user.getEmail())
                 .claim("id", user.getId())
@@ -55,7 +47,7 @@ public class JwtServiceImpl implements JwtService {
                 .claim("authorities", authorities)
                 .setIssuedAt(issuedAt)
                 .setExpiration(expirationDate)
-                .signWith(secretKey)
+                .signWith(jwtTokenVerifier.signingKey())
                 .compact();
 
         log.info("JWT token generated successfully for user: {}", user.getEmail());
@@ -0,0 +1,24 @@
+package org.example.ecommerce.application.service.mail;
+
+import java.util.Collection;
+
+/**
+ * Durable outgoing mail queue.
+ * <p>
+ * {@code enqueue*} only inserts rows, in the caller's transaction, so mail is
+ * sent only if the business change commits and never blocks the request on SMTP.
+ * {@link #dispatch()} runs in the background and delivers due messages with
+ * exponential retry; messages that keep failing are dead-lettered.
+ * </p>
+ */
+public interface MailQueueService {
+
+    void enqueue(String recipient, String subject, String body);
+
+    void enqueueAll(Collection<String> recipients, String subject, String body);
+
+    /**
+     * Claims one batch of due messages and sends it.
+     */
+    void dispatch();
+}
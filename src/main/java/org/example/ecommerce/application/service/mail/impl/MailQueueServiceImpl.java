@@ -0,0 +1,196 @@
+package org.example.ecommerce.application.service.mail.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.EmailService;
+import org.example.ecommerce.application.service.mail.MailQueueService;
+import org.example.ecommerce.domain.model.mail.MailMessage;
+import org.example.ecommerce.domain.model.mail.MailStatus;
+import org.example.ecommerce.domain.model.mail.repository.MailMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class MailQueueServiceImpl implements MailQueueService {
+
+    private final MailMessageRepository mailMessageRepository;
+    private final EmailService emailService;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleAfter;
+    private final Duration sendTimeout;
+
+    public MailQueueServiceImpl(MailMessageRepository mailMessageRepository,
+                                EmailService emailService,
+                                @Value("${mail.dispatcher.workers:4}") int workers,
+                                @Value("${mail.dispatcher.batch-size:100}") int batchSize,
+                                @Value("${mail.dispatcher.max-attempts:6}") int maxAttempts,
+                                @Value("${mail.dispatcher.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                                @Value("${mail.dispatcher.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                                @Value("${mail.dispatcher.stale-after-seconds:600}") long staleAfterSeconds,
+                                @Value("${mail.dispatcher.send-timeout-seconds:120}") long sendTimeoutSeconds) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.sendTimeout = Duration.ofSeconds(sendTimeoutSeconds);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void enqueue(String recipient, String subject, String body) {
+        mailMessageRepository.save(new MailMessage(recipient, subject, body));
+    }
+
+    @Override
+    public void enqueueAll(Collection<String> recipients, String subject, String body) {
+        List<MailMessage> messages = recipients.stream()
+                .distinct()
+                .map(recipient -> new MailMessage(recipient, subject, body))
+                .toList();
+        if (!messages.isEmpty()) {
+            mailMessageRepository.saveAll(messages);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${mail.dispatcher.poll-interval-ms:2000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = mailMessageRepository.releaseStale(now.minus(staleAfter));
+        if (released > 0) {
+            log.warn("Released {} mail messages stuck in SENDING", released);
+        }
+
+        List<Long> due = mailMessageRepository.findDueIds(now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        if (mailMessageRepository.claim(due, claimToken, now) == 0) {
+            return;
+        }
+        List<MailMessage> claimed = mailMessageRepository.findByClaimToken(claimToken);
+
+        // رسائل نفس المستلم بتتبعت مع بعض على connection واحد
+        Map<String, List<MailMessage>> byRecipient = claimed.stream()
+                .collect(Collectors.groupingBy(MailMessage::getRecipient));
+        List<List<MailMessage>> batches = List.copyOf(byRecipient.values());
+        List<Callable<Void>> tasks = batches.stream()
+                .map(batch -> (Callable<Void>) () -> {
+                    send(batch);
+                    return null;
+                })
+                .toList();
+
+        // الـ dispatch شغال على thread الـ scheduler، فلازم يخلص في وقت محدود
+        List<Future<Void>> futures;
+        try {
+            futures = workers.invokeAll(tasks, sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Mail dispatch interrupted, {} messages will be released as stale", claimed.size());
+            return;
+        }
+
+        List<MailMessage> finished = new ArrayList<>();
+        List<Long> timedOut = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            if (futures.get(i).isCancelled()) {
+                batches.get(i).forEach(message -> timedOut.add(message.getId()));
+            } else {
+                finished.addAll(batches.get(i));
+            }
+        }
+
+        if (!finished.isEmpty()) {
+            mailMessageRepository.saveAll(finished);
+        }
+        if (!timedOut.isEmpty()) {
+            // الـ task اللي اتلغت ممكن تكون بعتت فعلاً، فالرسالة ممكن توصل مرتين (at-least-once)
+            int released = mailMessageRepository.release(timedOut, claimToken, LocalDateTime.now().plus(initialBackoff));
+            log.warn("Mail dispatch timed out after {}, released {} messages for retry", sendTimeout, released);
+        }
+        log.info("Mail dispatch finished: claimed={}, recipients={}, timedOut={}", claimed.size(), byRecipient.size(), timedOut.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void send(List<MailMessage> batch) {
+        Map<Long, Exception> failures;
+        try {
+            failures = emailService.sendAll(batch);
+        } catch (RuntimeException e) {
+            failures = batch.stream().collect(Collectors.toMap(MailMessage::getId, m -> e));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (MailMessage message : batch) {
+            message.setClaimToken(null);
+            message.setAttempts(message.getAttempts() + 1);
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                message.setStatus(MailStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+            } else if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(MailStatus.DEAD);
+                message.setLastError(truncate(failure.getMessage()));
+                log.error("Mail {} to {} dead-lettered after {} attempts", message.getId(), message.getRecipient(), message.getAttempts(), failure);
+            } else {
+                message.setStatus(MailStatus.PENDING);
+                message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                message.setLastError(truncate(failure.getMessage()));
+                log.warn("Mail {} to {} failed (attempt {}), retry at {}", message.getId(), message.getRecipient(), message.getAttempts(), message.getNextAttemptAt());
+            }
+        }
+    }
+
+    // 30s, 60s, 120s ... لحد maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.ecommerce.application.service.notification;
+
+import org.example.ecommerce.domain.model.notification.Notification;
+import org.example.ecommerce.domain.model.user.UserRole;
+
+/**
+ * Pushes saved notifications to connected WebSocket clients.
+ * <p>
+ * Delivery is targeted: a user receives only their own notifications on
+ * {@code /user/queue/notifications}, and role notifications go to
+ * {@code /topic/<role>/notifications} (e.g. {@code /topic/admin/notifications}),
+ * which only members of that role may subscribe to.
+ * Push is best effort; the notification is already stored and listed by the REST endpoints.
+ * </p>
+ */
+public interface NotificationPushService {
+
+    String USER_QUEUE = "/queue/notifications";
+
+    /**
+     * @param email the recipient's email, which is the STOMP principal name
+     */
+    void pushToUser(String email, Notification notification);
+
+    void pushToRole(UserRole role, Notification notification);
+
+    /**
+     * @return the topic a role's notifications are published on
+     */
+    static String roleTopic(UserRole role) {
+        return "/topic/" + roleSegment(role) + "/notifications";
+    }
+
+    /**
+     * ROLE_ADMIN -> admin
+     */
+    static String roleSegment(UserRole role) {
+        return role.name().substring("ROLE_".length()).toLowerCase();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.ecommerce.application.service.notification;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Who is connected over STOMP on this instance, keyed by the principal name (email).
+ * <p>
+ * A session is registered on an authenticated CONNECT and dropped on
+ * DISCONNECT, on transport close, or once the JWT it connected with expires
+ * (the connection is then closed and the client has to reconnect with a fresh token).
+ * </p>
+ */
+public interface WebSocketSessionRegistry {
+
+    /**
+     * Records an authenticated STOMP session.
+     *
+     * @param sessionId the STOMP session id (same as the WebSocket session id)
+     * @param user      the principal name
+     * @param expiresAt when the session's token expires, or null if it does not
+     */
+    void register(String sessionId, String user, Instant expiresAt);
+
+    /**
+     * Keeps the transport session so it can be closed when its token expires.
+     */
+    void attach(WebSocketSession session);
+
+    void remove(String sessionId);
+
+    boolean isConnected(String user);
+
+    /**
+     * @return ids of the user's open sessions on this instance
+     */
+    Set<String> sessionsOf(String user);
+
+    /**
+     * Closes and drops every session whose token has expired.
+     */
+    void evictExpired();
+
+    Stats stats();
+
+    /**
+     * @param users    distinct connected users
+     * @param sessions open STOMP sessions
+     * @param evicted  sessions closed because their token expired
+     */
+    record Stats(int users, int sessions, long evicted) {}
+}
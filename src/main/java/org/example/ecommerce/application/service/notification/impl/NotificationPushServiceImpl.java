@@ -0,0 +1,57 @@
+package org.example.ecommerce.application.service.notification.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.notification.NotificationPushService;
+import org.example.ecommerce.application.service.notification.WebSocketSessionRegistry;
+import org.example.ecommerce.domain.model.notification.Notification;
+import org.example.ecommerce.domain.model.user.UserRole;
+import org.example.ecommerce.infrastructure.dto.notification.NotificationMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class NotificationPushServiceImpl implements NotificationPushService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final boolean relayEnabled;
+
+    public NotificationPushServiceImpl(SimpMessagingTemplate messagingTemplate,
+                                       WebSocketSessionRegistry sessionRegistry,
+                                       @Value("${websocket.relay.enabled:false}") boolean relayEnabled) {
+        this.messagingTemplate = messagingTemplate;
+        this.sessionRegistry = sessionRegistry;
+        this.relayEnabled = relayEnabled;
+    }
+
+    @Override
+    public void pushToUser(String email, Notification notification) {
+        if (email == null || email.isBlank()) {
+            return;
+        }
+        // من غير relay كل الـ sessions هنا، فلو مش متوصل مفيش حد يستلم
+        if (!relayEnabled && !sessionRegistry.isConnected(email)) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(email, USER_QUEUE, NotificationMessage.from(notification));
+        } catch (MessagingException e) {
+            log.warn("WebSocket push of notification {} to user {} failed: {}",
+                    notification.getId(), email, e.getMessage());
+        }
+    }
+
+    @Override
+    public void pushToRole(UserRole role, Notification notification) {
+        String destination = NotificationPushService.roleTopic(role);
+        try {
+            messagingTemplate.convertAndSend(destination, NotificationMessage.from(notification));
+        } catch (MessagingException e) {
+            log.warn("WebSocket push of notification {} to {} failed: {}",
+                    notification.getId(), destination, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.ecommerce.application.service.notification.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.notification.WebSocketSessionRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link WebSocketSessionRegistry} backed by concurrent maps; expired sessions are
+ * swept every {@code websocket.session.expiry-check-ms}.
+ */
+@Service
+@Slf4j
+public class WebSocketSessionRegistryImpl implements WebSocketSessionRegistry {
+
+    private static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("Token expired");
+
+    private final Map<String, SessionInfo> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, WebSocketSession> transports = new ConcurrentHashMap<>();
+    private final LongAdder evicted = new LongAdder();
+
+    @Override
+    public void register(String sessionId, String user, Instant expiresAt) {
+        if (sessionId == null || user == null) {
+            return;
+        }
+        SessionInfo previous = sessions.put(sessionId, new SessionInfo(user, expiresAt));
+        if (previous != null && !previous.user.equals(user)) {
+            unlink(previous.user, sessionId);
+        }
+        sessionsByUser.compute(user, (key, ids) -> {
+            Set<String> userSessions = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            userSessions.add(sessionId);
+            return userSessions;
+        });
+    }
+
+    @Override
+    public void attach(WebSocketSession session) {
+        transports.put(session.getId(), session);
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        transports.remove(sessionId);
+        SessionInfo removed = sessions.remove(sessionId);
+        if (removed != null) {
+            unlink(removed.user, sessionId);
+        }
+    }
+
+    @Override
+    public boolean isConnected(String user) {
+        Set<String> ids = sessionsByUser.get(user);
+        return ids != null && !ids.isEmpty();
+    }
+
+    @Override
+    public Set<String> sessionsOf(String user) {
+        Set<String> ids = sessionsByUser.get(user);
+        return ids == null ? Set.of() : Set.copyOf(ids);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        remove(event.getSessionId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${websocket.session.expiry-check-ms:30000}")
+    public void evictExpired() {
+        Instant now = Instant.now();
+        sessions.forEach((sessionId, info) -> {
+            if (info.expiresAt != null && info.expiresAt.isBefore(now)) {
+                WebSocketSession transport = transports.get(sessionId);
+                remove(sessionId);
+                evicted.increment();
+                close(transport);
+                log.debug("WebSocket session {} of {} closed: token expired", sessionId, info.user);
+            }
+        });
+        // transports اللي ما عملتش CONNECT خالص مالهاش entry هنا، وبتتشال لما تتقفل
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats(sessionsByUser.size(), sessions.size(), evicted.sum());
+    }
+
+    private void unlink(String user, String sessionId) {
+        // شيل الـ set لو فضيت، من غير ما نمسح session اتضافت في نفس اللحظة
+        sessionsByUser.computeIfPresent(user, (key, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void close(WebSocketSession transport) {
+        if (transport == null || !transport.isOpen()) {
+            return;
+        }
+        try {
+            transport.close(TOKEN_EXPIRED);
+        } catch (IOException e) {
+            log.debug("Closing WebSocket session {} failed: {}", transport.getId(), e.getMessage());
+        }
+    }
+
+    private record SessionInfo(String user, Instant expiresAt) {}
+}
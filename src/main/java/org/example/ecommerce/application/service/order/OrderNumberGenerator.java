@@ -0,0 +1,10 @@
+package org.example.ecommerce.application.service.order;
+
+/**
+ * Generates the business order number ({@code Order.orderId}).
+ * Implementations must be thread-safe and never return the same value twice.
+ */
+public interface OrderNumberGenerator {
+
+    String next();
+}
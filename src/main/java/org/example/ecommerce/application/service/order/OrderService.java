@@ -5,7 +5,9 @@ import org.example.ecommerce.domain.model.cart.Cart;
 import org.example.ecommerce.domain.model.order.Order;
 import org.example.ecommerce.domain.model.order.OrderItem;
 import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.model.order.OrderSummary;
 import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.infrastructure.response.CursorPage;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,9 +17,14 @@ public interface OrderService {
 
     Set<Order> createOrder(User user , Address shippingAddress , Cart cart);
     Order findOrderById(Long id);
-    List<Order> userOrdersHistory(Long userId);
 
-    List<Order> sellerOrdersHistory(Long SellerId);
+    // تفاصيل طلب واحد (items + منتجات + عنوان) لصاحب الطلب بس
+    Order findOrderDetails(Long id, User user);
+
+    // history بالـ cursor: ملخصات من غير items
+    CursorPage<OrderSummary> userOrdersHistory(Long userId, String cursor, int size);
+
+    CursorPage<OrderSummary> sellerOrdersHistory(Long sellerId, String cursor, int size);
 
     Order updateOrderStatus(Long orderId, OrderStatus orderStatus);
     Order cancelOrder(Long orderId , User user);
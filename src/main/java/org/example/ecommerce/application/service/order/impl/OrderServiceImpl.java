@@ -3,6 +3,8 @@ package org.example.ecommerce.application.service.order.impl;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.inventory.InventoryService;
+import org.example.ecommerce.application.service.order.OrderNumberGenerator;
 import org.example.ecommerce.application.service.order.OrderService;
 import org.example.ecommerce.domain.common.Address;
 import org.example.ecommerce.domain.common.repository.AddressRepository;
@@ -11,16 +13,23 @@ import org.example.ecommerce.domain.model.cart.CartItem;
 import org.example.ecommerce.domain.model.order.Order;
 import org.example.ecommerce.domain.model.order.OrderItem;
 import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.model.order.OrderSummary;
+import org.example.ecommerce.domain.model.order.exception.OrderNotFoundException;
 import org.example.ecommerce.domain.model.order.repository.OrderItemRepository;
 import org.example.ecommerce.domain.model.order.repository.OrderRepository;
+import org.example.ecommerce.domain.common.exception.UnauthorizedException;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.payment.PaymentStatus;
 import org.example.ecommerce.infrastructure.event.OrderEvent;
-import org.example.ecommerce.infrastructure.event.ProductEvent;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
 import org.example.ecommerce.infrastructure.event.Type;
+import org.example.ecommerce.infrastructure.response.CursorPage;
+import org.example.ecommerce.infrastructure.utils.Cursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,11 +37,17 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    // قيم أول صفحة: أكبر من أي صف حقيقي
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final ApplicationEventPublisher eventPublisher;
 
     private final OrderRepository orderRepository;
     private final AddressRepository addressRepository;
     private final OrderItemRepository orderItemRepository;
+    private final InventoryService inventoryService;
+    private final OrderNumberGenerator orderNumberGenerator;
 //    @Override
 //    @Transactional
 //    public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) {
@@ -92,87 +107,123 @@ public class OrderServiceImpl implements OrderService {
 //        return orders;
 //    }
 
-@Override
-@Transactional
-public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) {
-    if (!user.getPickupAddress().contains(shippingAddress)) {
-        user.getPickupAddress().add(shippingAddress);
-    }
-    Address address = addressRepository.save(shippingAddress);
-
-    Map<Long, List<CartItem>> itemsBySeller =
-            cart.getCartItems().stream()
-                    .collect(Collectors.groupingBy(item -> item.getProduct()
-                            .getSeller().getId()));
-    Set<Order> orders = new HashSet<>();
-    Order createdOrder = null;
-    for (Map.Entry<Long, List<CartItem>> entry : itemsBySeller.entrySet()) {
-        Long sellerId = entry.getKey();
-        List<CartItem> items = entry.getValue();
-
-        Long totalOrderPrice = items.stream().mapToLong(
-                CartItem::getSellingPrice
-        ).sum();
-
-        int totalItem = items.stream().mapToInt(CartItem::getQuantity).sum();
-
-        createdOrder = new Order();
-
-        // Generate unique order ID - you can customize this format
-        String orderIdGenerated = "ORD-" + System.currentTimeMillis() + "-" + sellerId;
-        createdOrder.setOrderId(orderIdGenerated); // THIS IS THE FIX
-
-        createdOrder.setUser(user);
-        createdOrder.setSellerId(sellerId);
-        createdOrder.setTotalMrpPrice(totalOrderPrice);
-        createdOrder.setTotalSellingPrice(totalOrderPrice);
-        createdOrder.setTotalItems(totalItem);
-        createdOrder.setShippingAddress(address);
-        createdOrder.setOrderStatus(OrderStatus.PENDING);
-        createdOrder.getPaymentDetails().setPaymentStatus(PaymentStatus.PENDING);
-        Order savedOrder = orderRepository.save(createdOrder);
-        orders.add(savedOrder);
-
-        List<OrderItem> orderItems = new ArrayList<>();
-
-        for (CartItem item : items) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
-            orderItem.setMrpPrice(Double.valueOf(item.getMaximumRetailPrice()));
-            orderItem.setProduct(item.getProduct());
-            orderItem.setQuantity(item.getQuantity());
-            orderItem.setUserId(item.getUserId());
-            orderItem.setSellingPrice(Double.valueOf(item.getSellingPrice()));
-            savedOrder.getOrderItems().add(orderItem);
-            OrderItem savedOrderItem = orderItemRepository.save(orderItem);
-
-            orderItems.add(savedOrderItem);
+    /**
+     * Creates one order per seller from the cart.
+     * <p>
+     * Orders and their items get ids from pooled sequences and are cascaded from
+     * the order, so nothing is written until the single flush at commit, where
+     * Hibernate sends the inserts as JDBC batches (see hibernate.jdbc.* properties).
+     * </p>
+     */
+    @Override
+    @Transactional
+    public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) {
+        if (!user.getPickupAddress().contains(shippingAddress)) {
+            user.getPickupAddress().add(shippingAddress);
         }
+        Address address = addressRepository.save(shippingAddress);
+
+        Map<Long, List<CartItem>> itemsBySeller =
+                cart.getCartItems().stream()
+                        .collect(Collectors.groupingBy(item -> item.getProduct()
+                                .getSeller().getId()));
+
+        List<Order> orders = new ArrayList<>(itemsBySeller.size());
+        for (Map.Entry<Long, List<CartItem>> entry : itemsBySeller.entrySet()) {
+            Long sellerId = entry.getKey();
+            List<CartItem> items = entry.getValue();
+
+            Long totalOrderPrice = items.stream().mapToLong(
+                    CartItem::getSellingPrice
+            ).sum();
+
+            int totalItem = items.stream().mapToInt(CartItem::getQuantity).sum();
+
+            Order createdOrder = new Order();
+
+            createdOrder.setOrderId(orderNumberGenerator.next());
+
+            createdOrder.setUser(user);
+            createdOrder.setSellerId(sellerId);
+            createdOrder.setTotalMrpPrice(totalOrderPrice);
+            createdOrder.setTotalSellingPrice(totalOrderPrice);
+            createdOrder.setTotalItems(totalItem);
+            createdOrder.setShippingAddress(address);
+            createdOrder.setOrderStatus(OrderStatus.PENDING);
+            createdOrder.getPaymentDetails().setPaymentStatus(PaymentStatus.PENDING);
+
+            for (CartItem item : items) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(createdOrder);
+                orderItem.setMrpPrice(Double.valueOf(item.getMaximumRetailPrice()));
+                orderItem.setProduct(item.getProduct());
+                orderItem.setQuantity(item.getQuantity());
+                orderItem.setUserId(item.getUserId());
+                orderItem.setSellingPrice(Double.valueOf(item.getSellingPrice()));
+                createdOrder.getOrderItems().add(orderItem); // cascade من الـ Order
+            }
+            orders.add(createdOrder);
+        }
+
+        // persist بس (الـ ids من الـ sequence)، الـ INSERTs بتتبعت batch وقت الـ flush
+        Set<Order> savedOrders = new LinkedHashSet<>(orderRepository.saveAll(orders));
+        inventoryService.reserve(savedOrders);
+        eventPublisher.publishEvent(new OrderEvent(savedOrders, user, Type.CREATED,cart));
+        savedOrders.forEach(order -> eventPublisher.publishEvent(OrderLifecycleEvent.of(order, OrderLifecycleEvent.Change.PLACED)));
+        log.info("Orders created for user {}: {}", user.getId(),
+                savedOrders.stream().map(Order::getOrderId).toList());
+        return savedOrders;
     }
-    eventPublisher.publishEvent(new OrderEvent(orders, user, Type.CREATED,cart));
-    log.info("Product saved in database: {}", orders);
-    return orders;
-}
+
     @Override
     public Order findOrderById(Long id) {
-        return orderRepository.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
+        return orderRepository.findById(id).orElseThrow(() -> new OrderNotFoundException("Order not found"));
+    }
+
+    @Override
+    public Order findOrderDetails(Long id, User user) {
+        Order order = orderRepository.findDetailedById(id)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+        if (!order.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("User not authorized to view this order");
+        }
+        return order;
     }
 
     @Override
-    public List<Order> userOrdersHistory(Long userId) {
-        return orderRepository.findByUserId(userId);
+    public CursorPage<OrderSummary> userOrdersHistory(Long userId, String cursor, int size) {
+        Cursor after = decode(cursor);
+        int pageSize = historyPageSize(size);
+        List<OrderSummary> rows = orderRepository.findUserHistoryAfter(userId,
+                after == null ? FIRST_PAGE_CREATED_AT : after.keyAsDateTime(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(pageSize + 1));
+        return toCursorPage(rows, pageSize);
     }
 
     @Override
-    public List<Order> sellerOrdersHistory(Long SellerId) {
-        return orderRepository.findBySellerId(SellerId);
+    public CursorPage<OrderSummary> sellerOrdersHistory(Long sellerId, String cursor, int size) {
+        Cursor after = decode(cursor);
+        int pageSize = historyPageSize(size);
+        List<OrderSummary> rows = orderRepository.findSellerHistoryAfter(sellerId,
+                after == null ? FIRST_PAGE_CREATED_AT : after.keyAsDateTime(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(pageSize + 1));
+        return toCursorPage(rows, pageSize);
     }
 
     @Override
     @Transactional
     public Order updateOrderStatus(Long orderId, OrderStatus orderStatus) {
-        Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException("Order not found"));
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(orderStatus);
+        if (orderStatus == OrderStatus.CANCELLED) {
+            inventoryService.release(order.getId());
+            if (previousStatus != OrderStatus.CANCELLED) {
+                eventPublisher.publishEvent(OrderLifecycleEvent.of(order, OrderLifecycleEvent.Change.CANCELLED));
+            }
+        }
         orderRepository.save(order);
         return order;
     }
@@ -180,11 +231,16 @@ public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) {
     @Override
     @Transactional
     public Order cancelOrder(Long orderId, User user) {
-        Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException("Order not found"));
         if (!user.getId().equals(order.getUser().getId())) {
             throw new RuntimeException("User not authorized to order");
         }
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(OrderStatus.CANCELLED);
+        inventoryService.release(order.getId());
+        if (previousStatus != OrderStatus.CANCELLED) {
+            eventPublisher.publishEvent(OrderLifecycleEvent.of(order, OrderLifecycleEvent.Change.CANCELLED));
+        }
         return orderRepository.save(order);
 //        return null;
     }
@@ -193,4 +249,24 @@ public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) {
     public OrderItem findOrderItemById(Long orderItemId) {
         return orderItemRepository.findById(orderItemId).orElseThrow(() -> new RuntimeException("OrderItem not found"));
     }
+
+    private Cursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+    }
+
+    private int historyPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+    }
+
+    // بنجيب size + 1 صف: الصف الزيادة معناه إن فيه صفحة بعدها
+    private CursorPage<OrderSummary> toCursorPage(List<OrderSummary> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<OrderSummary> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummary last = content.get(content.size() - 1);
+            nextCursor = Cursor.encode(last.createdAt(), last.id());
+        }
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
 }
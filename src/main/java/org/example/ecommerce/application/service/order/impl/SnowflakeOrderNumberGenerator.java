@@ -0,0 +1,110 @@
+package org.example.ecommerce.application.service.order.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.order.OrderNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2025-01-01,
+ * 10 bits of node id and a 12-bit sequence, rendered as {@code ORD-} plus 13
+ * Crockford base32 characters. The text is fixed width, so it sorts by creation time.
+ * <p>
+ * Timestamp and sequence live in one {@link AtomicLong} and are advanced with a
+ * CAS, so callers never block. When the sequence of a millisecond is exhausted,
+ * or the clock moves backwards, the generator keeps counting on from the last
+ * issued value (borrowing the next millisecond) instead of waiting or repeating.
+ * </p>
+ * <p>
+ * Two instances with the same node id can issue the same number. A node id derived
+ * from the host name is only a best guess, so startup fails when
+ * {@code order.number.instances} is above one and {@code order.number.node-id} is unset.
+ * </p>
+ */
+@Component
+@Slf4j
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long SKEW_WARN_MILLIS = 1000;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13; // 13 * 5 bits >= 64
+
+    private final long nodeId;
+
+    // (timestamp << SEQUENCE_BITS) | sequence
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(@Value("${order.number.node-id:-1}") long nodeId,
+                                         @Value("${order.number.instances:1}") int instances) {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.number.node-id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        if (nodeId < 0) {
+            if (instances > 1) {
+                throw new IllegalStateException("order.number.node-id must be set explicitly (0-" + MAX_NODE_ID
+                        + ") on each of the " + instances + " instances; host name hashes can collide");
+            }
+            this.nodeId = hostNodeId();
+            log.warn("order.number.node-id is not set, using {} derived from the host name. "
+                    + "Running more than one instance this way can issue duplicate order numbers", this.nodeId);
+        } else {
+            this.nodeId = nodeId;
+            log.info("Order number generator node id: {}", this.nodeId);
+        }
+    }
+
+    @Override
+    public String next() {
+        return "ORD-" + encode(nextId());
+    }
+
+    long nextId() {
+        long now = currentTimeMillis() - EPOCH;
+        while (true) {
+            long previous = state.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+            // وقت جديد: sequence من الصفر، غير كده (نفس الـ ms أو الساعة رجعت) نكمل من آخر قيمة
+            long next = now > previousTimestamp ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                if (previousTimestamp - now > SKEW_WARN_MILLIS) {
+                    log.warn("Clock is {} ms behind the last issued order number", previousTimestamp - now);
+                }
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // الـ tests بتبدلها عشان تجرب رجوع الساعة
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // لو الـ node id مش متحدد: من اسم الجهاز (كل instance لازم يبقى ليها قيمة مختلفة في الـ production)
+    private static long hostNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode() & MAX_NODE_ID;
+        } catch (UnknownHostException e) {
+            return 0;
+        }
+    }
+}
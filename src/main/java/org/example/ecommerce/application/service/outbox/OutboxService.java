@@ -0,0 +1,26 @@
+package org.example.ecommerce.application.service.outbox;
+
+/**
+ * Transactional outbox for domain events.
+ * <p>
+ * {@link #record(Object)} serializes an event snapshot into the {@code outbox_event}
+ * table inside the caller's transaction, so an event exists only if the change
+ * that raised it commits. {@link #relay()} runs in the background, publishes due
+ * events to the application listeners in insertion order and retries failures
+ * (at-least-once: a listener may see the same event twice).
+ * </p>
+ */
+public interface OutboxService {
+
+    void record(Object message);
+
+    /**
+     * Claims one batch of due events and publishes it.
+     */
+    void relay();
+
+    /**
+     * Asks for a relay run soon (called after commit), without waiting for the next poll.
+     */
+    void wakeUp();
+}
@@ -0,0 +1,186 @@
+package org.example.ecommerce.application.service.outbox.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.outbox.OutboxService;
+import org.example.ecommerce.domain.model.outbox.OutboxEvent;
+import org.example.ecommerce.domain.model.outbox.OutboxStatus;
+import org.example.ecommerce.domain.model.outbox.repository.OutboxEventRepository;
+import org.example.ecommerce.infrastructure.event.CategoryChangedMessage;
+import org.example.ecommerce.infrastructure.event.OrderPlacedMessage;
+import org.example.ecommerce.infrastructure.event.ProductChangedMessage;
+import org.example.ecommerce.infrastructure.event.SellerRegisteredMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    // الأنواع المسموح بيها بس هي اللي بتتقري من الجدول
+    private static final Map<String, Class<?>> MESSAGE_TYPES = Stream.of(
+                    OrderPlacedMessage.class,
+                    ProductChangedMessage.class,
+                    CategoryChangedMessage.class,
+                    SellerRegisteredMessage.class)
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService relayExecutor;
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleAfter;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${outbox.relay.batch-size:100}") int batchSize,
+                             @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                             @Value("${outbox.relay.initial-backoff-seconds:5}") long initialBackoffSeconds,
+                             @Value("${outbox.relay.max-backoff-seconds:600}") long maxBackoffSeconds,
+                             @Value("${outbox.relay.stale-after-seconds:300}") long staleAfterSeconds) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.relayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void record(Object message) {
+        String type = message.getClass().getSimpleName();
+        if (!MESSAGE_TYPES.containsKey(type)) {
+            throw new IllegalArgumentException("Unsupported outbox message type: " + type);
+        }
+        try {
+            outboxEventRepository.save(new OutboxEvent(type, objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException e) {
+            // لو الحدث ما اتسجلش التغيير نفسه لازم يرجع
+            throw new IllegalStateException("Failed to serialize outbox message " + type, e);
+        }
+    }
+
+    @Override
+    public void wakeUp() {
+        // طلب واحد في الطابور يكفي، الدفعة بتاخد كل المستحق
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            relayExecutor.execute(() -> {
+                wakeUpQueued.set(false);
+                try {
+                    relay();
+                } catch (RuntimeException e) {
+                    log.error("Outbox relay failed", e);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:5000}")
+    public void relay() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = outboxEventRepository.releaseStale(now.minus(staleAfter));
+        if (released > 0) {
+            log.warn("Released {} outbox events stuck in PUBLISHING", released);
+        }
+
+        List<Long> due = outboxEventRepository.findDueIds(now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        if (outboxEventRepository.claim(due, claimToken, now) == 0) {
+            return;
+        }
+        List<OutboxEvent> claimed = outboxEventRepository.findByClaimTokenOrderById(claimToken);
+
+        int failed = 0;
+        for (OutboxEvent event : claimed) {
+            if (!publish(event)) {
+                failed++;
+            }
+        }
+
+        outboxEventRepository.saveAll(claimed);
+        log.info("Outbox relay finished: claimed={}, failed={}", claimed.size(), failed);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        relayExecutor.shutdown();
+        relayExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private boolean publish(OutboxEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        event.setClaimToken(null);
+        event.setAttempts(event.getAttempts() + 1);
+        try {
+            Class<?> type = MESSAGE_TYPES.get(event.getEventType());
+            if (type == null) {
+                throw new IllegalStateException("Unknown outbox event type: " + event.getEventType());
+            }
+            eventPublisher.publishEvent(objectMapper.readValue(event.getPayload(), type));
+            event.setStatus(OutboxStatus.PUBLISHED);
+            event.setPublishedAt(now);
+            event.setLastError(null);
+            return true;
+        } catch (Exception e) {
+            event.setLastError(truncate(e.getMessage()));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxStatus.DEAD);
+                log.error("Outbox event {} ({}) dead-lettered after {} attempts", event.getId(), event.getEventType(), event.getAttempts(), e);
+            } else {
+                event.setStatus(OutboxStatus.PENDING);
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                log.warn("Outbox event {} ({}) failed (attempt {}), retry at {}", event.getId(), event.getEventType(), event.getAttempts(), event.getNextAttemptAt(), e);
+            }
+            return false;
+        }
+    }
+
+    // 5s, 10s, 20s ... لحد maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
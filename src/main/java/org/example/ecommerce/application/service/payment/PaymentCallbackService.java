@@ -0,0 +1,31 @@
+package org.example.ecommerce.application.service.payment;
+
+/**
+ * Ingestion and processing of payment gateway callbacks.
+ * <p>
+ * {@link #receive(String, String)} only verifies and stores the callback, keyed by
+ * its event id, and answers the gateway right away; duplicates are acknowledged
+ * without being stored again. {@link #process()} applies stored callbacks in the
+ * background through {@link PaymentService#applyPaymentResult}, retrying failures
+ * (e.g. a callback that arrives before its payment order exists).
+ * </p>
+ */
+public interface PaymentCallbackService {
+
+    /**
+     * @param payload   raw request body
+     * @param signature hex HMAC-SHA256 of the body sent by the gateway
+     * @return {@code false} if a callback with the same event id was already received
+     */
+    boolean receive(String payload, String signature);
+
+    /**
+     * Claims one batch of due callbacks and applies it.
+     */
+    void process();
+
+    /**
+     * Asks for a processor run soon, without waiting for the next poll.
+     */
+    void wakeUp();
+}
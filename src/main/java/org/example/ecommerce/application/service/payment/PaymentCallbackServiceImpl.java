@@ -0,0 +1,247 @@
+package org.example.ecommerce.application.service.payment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.domain.common.exception.UnauthorizedException;
+import org.example.ecommerce.domain.payment.InvalidPaymentCallbackException;
+import org.example.ecommerce.domain.payment.PaymentCallback;
+import org.example.ecommerce.domain.payment.PaymentCallbackStatus;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+import org.example.ecommerce.domain.payment.repository.PaymentCallbackRepository;
+import org.example.ecommerce.infrastructure.dto.payment.PaymentCallbackDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class PaymentCallbackServiceImpl implements PaymentCallbackService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PaymentCallbackRepository paymentCallbackRepository;
+    private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec signingKey;
+    private final ExecutorService processorExecutor;
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleAfter;
+
+    public PaymentCallbackServiceImpl(PaymentCallbackRepository paymentCallbackRepository,
+                                      PaymentService paymentService,
+                                      ObjectMapper objectMapper,
+                                      @Value("${payment.webhook.secret:}") String webhookSecret,
+                                      @Value("${payment.callback.batch-size:100}") int batchSize,
+                                      @Value("${payment.callback.max-attempts:8}") int maxAttempts,
+                                      @Value("${payment.callback.initial-backoff-seconds:2}") long initialBackoffSeconds,
+                                      @Value("${payment.callback.max-backoff-seconds:300}") long maxBackoffSeconds,
+                                      @Value("${payment.callback.stale-after-seconds:120}") long staleAfterSeconds) {
+        this.paymentCallbackRepository = paymentCallbackRepository;
+        this.paymentService = paymentService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        if (webhookSecret.isBlank()) {
+            // من غير secret ما ينفعش نثق في أي callback
+            log.warn("payment.webhook.secret is not set, payment callbacks will be rejected");
+            this.signingKey = null;
+        } else {
+            this.signingKey = new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        }
+        this.processorExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-callback-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean receive(String payload, String signature) {
+        verifySignature(payload, signature);
+        PaymentCallbackDto dto = parse(payload);
+
+        if (paymentCallbackRepository.existsByEventId(dto.eventId())) {
+            log.info("Duplicate payment callback {} acknowledged", dto.eventId());
+            return false;
+        }
+        try {
+            paymentCallbackRepository.saveAndFlush(new PaymentCallback(
+                    dto.eventId(), dto.paymentLinkId(), dto.paymentId(), parseResult(dto.status())));
+        } catch (DataIntegrityViolationException e) {
+            // نفس الـ callback وصل مرتين في نفس اللحظة، الـ unique index مسك التاني
+            log.info("Duplicate payment callback {} acknowledged (concurrent delivery)", dto.eventId());
+            return false;
+        }
+        wakeUp();
+        return true;
+    }
+
+    @Override
+    public void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            processorExecutor.execute(() -> {
+                wakeUpQueued.set(false);
+                try {
+                    process();
+                } catch (RuntimeException e) {
+                    log.error("Payment callback processing failed", e);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.callback.poll-interval-ms:2000}")
+    public void process() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = paymentCallbackRepository.releaseStale(now.minus(staleAfter));
+        if (released > 0) {
+            log.warn("Released {} payment callbacks stuck in PROCESSING", released);
+        }
+
+        List<Long> due = paymentCallbackRepository.findDueIds(now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        if (paymentCallbackRepository.claim(due, claimToken, now) == 0) {
+            return;
+        }
+        List<PaymentCallback> claimed = paymentCallbackRepository.findByClaimTokenOrderById(claimToken);
+
+        int failed = 0;
+        for (PaymentCallback callback : claimed) {
+            if (!apply(callback)) {
+                failed++;
+            }
+        }
+
+        paymentCallbackRepository.saveAll(claimed);
+        log.info("Payment callbacks processed: claimed={}, failed={}", claimed.size(), failed);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        processorExecutor.shutdown();
+        processorExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // كل callback في transaction لوحده عشان فشل واحد ما يرجعش الباقي
+    private boolean apply(PaymentCallback callback) {
+        LocalDateTime now = LocalDateTime.now();
+        callback.setClaimToken(null);
+        callback.setAttempts(callback.getAttempts() + 1);
+        try {
+            boolean applied = paymentService.applyPaymentResult(
+                    callback.getPaymentLinkId(), callback.getPaymentId(), callback.getResult());
+            callback.setStatus(applied ? PaymentCallbackStatus.APPLIED : PaymentCallbackStatus.IGNORED);
+            callback.setProcessedAt(now);
+            callback.setLastError(null);
+            return true;
+        } catch (Exception e) {
+            callback.setLastError(truncate(e.getMessage()));
+            if (callback.getAttempts() >= maxAttempts) {
+                callback.setStatus(PaymentCallbackStatus.DEAD);
+                log.error("Payment callback {} dead-lettered after {} attempts", callback.getEventId(), callback.getAttempts(), e);
+            } else {
+                callback.setStatus(PaymentCallbackStatus.RECEIVED);
+                callback.setNextAttemptAt(now.plus(backoff(callback.getAttempts())));
+                log.warn("Payment callback {} failed (attempt {}), retry at {}: {}",
+                        callback.getEventId(), callback.getAttempts(), callback.getNextAttemptAt(), e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private void verifySignature(String payload, String signature) {
+        if (signingKey == null || signature == null || signature.isBlank()) {
+            throw new UnauthorizedException("Missing payment callback signature");
+        }
+        byte[] expected;
+        byte[] actual;
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            actual = HexFormat.of().parseHex(signature.trim());
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            throw new UnauthorizedException("Invalid payment callback signature");
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new UnauthorizedException("Invalid payment callback signature");
+        }
+    }
+
+    private PaymentCallbackDto parse(String payload) {
+        PaymentCallbackDto dto;
+        try {
+            dto = objectMapper.readValue(payload, PaymentCallbackDto.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPaymentCallbackException("Malformed payment callback body");
+        }
+        if (isBlank(dto.eventId()) || isBlank(dto.paymentLinkId()) || isBlank(dto.status())) {
+            throw new InvalidPaymentCallbackException("Payment callback requires eventId, paymentLinkId and status");
+        }
+        if (dto.eventId().length() > 100 || dto.paymentLinkId().length() > 100
+                || (dto.paymentId() != null && dto.paymentId().length() > 100)) {
+            throw new InvalidPaymentCallbackException("Payment callback ids must be at most 100 characters");
+        }
+        return dto;
+    }
+
+    private PaymentStatus parseResult(String status) {
+        try {
+            PaymentStatus result = PaymentStatus.valueOf(status.trim().toUpperCase());
+            if (result == PaymentStatus.COMPLETED || result == PaymentStatus.FAILED) {
+                return result;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // بيترمي تحت
+        }
+        throw new InvalidPaymentCallbackException("Unsupported payment callback status: " + status);
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // 2s, 4s, 8s ... لحد maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -1,9 +1,14 @@
 package org.example.ecommerce.application.service.payment;
 
 import org.example.ecommerce.domain.model.order.PaymentOrder;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -11,4 +16,16 @@ import java.util.Optional;
 public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, Long> {
     Optional<PaymentOrder> findByPaymentLinkId(String paymentLinkId);
 
+    // SELECT ... FOR UPDATE: callbacks لنفس الدفع بتستنى بعض بدل ما تسبق بعض
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaymentOrder p WHERE p.paymentLinkId = :paymentLinkId")
+    Optional<PaymentOrder> findByPaymentLinkIdForUpdate(@Param("paymentLinkId") String paymentLinkId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaymentOrder p WHERE p.id = :id")
+    Optional<PaymentOrder> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT o.id FROM PaymentOrder p JOIN p.orders o WHERE p.id = :id")
+    List<Long> findOrderIds(@Param("id") Long id);
+
 }
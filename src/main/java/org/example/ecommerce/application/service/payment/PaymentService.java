@@ -3,6 +3,7 @@ package org.example.ecommerce.application.service.payment;
 import org.example.ecommerce.domain.model.order.Order;
 import org.example.ecommerce.domain.model.order.PaymentOrder;
 import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.domain.payment.PaymentStatus;
 
 import java.util.Set;
 
@@ -17,6 +18,15 @@ public interface PaymentService {
                                 String paymentId,
                                 String paymentLinkId);
 
+    /**
+     * Moves the payment order behind {@code paymentLinkId} to {@code result}
+     * ({@code COMPLETED} or {@code FAILED}) and updates the payment details of all
+     * its orders.
+     *
+     * @return {@code false} if the order already moved past that status (duplicate or late callback)
+     */
+    boolean applyPaymentResult(String paymentLinkId, String paymentId, PaymentStatus result);
+
     String createStripePaymentLink(User user,
                                    Long amount ,
                                    Long orderId);
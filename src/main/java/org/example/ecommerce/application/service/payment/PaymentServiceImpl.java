@@ -3,14 +3,20 @@ package org.example.ecommerce.application.service.payment;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.inventory.InventoryService;
 import org.example.ecommerce.domain.model.order.Order;
+import org.example.ecommerce.domain.model.order.OrderSummary;
 import org.example.ecommerce.domain.model.order.PaymentOrder;
 import org.example.ecommerce.domain.model.order.repository.OrderRepository;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.payment.PaymentOrderNotFoundException;
 import org.example.ecommerce.domain.payment.PaymentStatus;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -23,6 +29,8 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentOrderRepository paymentOrderRepository;
     private final OrderRepository orderRepository;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new payment order for the given user and set of orders.
@@ -73,19 +81,61 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional
     public Boolean ProceedPaymentOrder(PaymentOrder paymentOrder,
                                        String paymentId, String paymentLinkId) {
-        if (!paymentOrder.getStatus().equals(PaymentStatus.PENDING)) {
-            log.warn("Payment order {} already processed with status {}",
-                    paymentOrder.getId(), paymentOrder.getStatus());
+        PaymentOrder locked = paymentOrderRepository.findByIdForUpdate(paymentOrder.getId())
+                .orElseThrow(() -> new PaymentOrderNotFoundException("PaymentOrder not found with id: " + paymentOrder.getId()));
+        locked.setPaymentLinkId(paymentLinkId);  // Payment link ID
+        return transition(locked, PaymentStatus.COMPLETED, paymentId);
+    }
+
+    /**
+     * Applies a gateway result to the payment order behind the link.
+     * The row is locked for the transaction, so duplicate or concurrent callbacks
+     * for the same payment run one after another.
+     */
+    @Override
+    @Transactional
+    public boolean applyPaymentResult(String paymentLinkId, String paymentId, PaymentStatus result) {
+        PaymentOrder paymentOrder = paymentOrderRepository.findByPaymentLinkIdForUpdate(paymentLinkId)
+                .orElseThrow(() -> new PaymentOrderNotFoundException("PaymentOrder not found with paymentLinkId: " + paymentLinkId));
+        return transition(paymentOrder, result, paymentId);
+    }
+
+    // الحالة بتتحرك لقدام بس: COMPLETED نهائية، و FAILED ممكن تبقى COMPLETED لو الدفع اتعاد
+    private boolean transition(PaymentOrder paymentOrder, PaymentStatus target, String paymentId) {
+        PaymentStatus current = paymentOrder.getStatus();
+        boolean allowed = switch (target) {
+            case COMPLETED -> current != PaymentStatus.COMPLETED;
+            case FAILED -> current == PaymentStatus.PENDING || current == PaymentStatus.PROCESSING;
+            default -> false;
+        };
+        if (!allowed) {
+            log.warn("Payment order {} already processed with status {}, ignoring {}",
+                    paymentOrder.getId(), current, target);
             return false;
         }
 
-        paymentOrder.setStatus(PaymentStatus.COMPLETED);
-        paymentOrder.setPaymentLinkId(paymentId);          // Payment transaction ID
-        paymentOrder.setPaymentLinkId(paymentLinkId);  // Payment link ID
-
-        paymentOrderRepository.save(paymentOrder);
-        log.info("Payment order {} marked as COMPLETED with paymentId {} and paymentLinkId {}",
-                paymentOrder.getId(), paymentId, paymentLinkId);
+        paymentOrder.setStatus(target);
+        List<Long> orderIds = paymentOrderRepository.findOrderIds(paymentOrder.getId());
+        if (orderIds.isEmpty()) {
+            log.warn("Payment order {} moved {} -> {} but has no orders", paymentOrder.getId(), current, target);
+            return true;
+        }
+        List<Long> refunds = List.of();
+        if (target == PaymentStatus.COMPLETED) {
+            // المخزون اتباع خلاص، إلا الطلبات اللي اتلغت ومخزونها رجع قبل ما الدفع يوصل
+            refunds = inventoryService.confirm(orderIds.stream().map(orderRepository::getReferenceById).toList());
+            for (OrderSummary order : orderRepository.findSummariesByIdIn(orderIds)) {
+                eventPublisher.publishEvent(OrderLifecycleEvent.paid(order));
+            }
+        }
+        int updated = orderRepository.updatePaymentDetails(orderIds, target, paymentId, Instant.now());
+        if (!refunds.isEmpty()) {
+            orderRepository.flagRefundRequired(refunds);
+            log.error("Payment order {} was paid after orders {} were cancelled and their stock released, flagged for refund",
+                    paymentOrder.getId(), refunds);
+        }
+        log.info("Payment order {} moved {} -> {} with paymentId {}, {} orders updated",
+                paymentOrder.getId(), current, target, paymentId, updated);
         return true;
     }
 
@@ -0,0 +1,30 @@
+package org.example.ecommerce.application.service.product;
+
+/**
+ * Write-behind buffer for product popularity counters.
+ * <p>
+ * Views and searches are accumulated in memory and written to the database
+ * periodically in batches, so catalog reads never have to update the product row.
+ * </p>
+ */
+public interface ProductCounterService {
+
+    /**
+     * Records a single view of the given product.
+     *
+     * @param productId the product id
+     */
+    void recordView(Long productId);
+
+    /**
+     * Records a single search hit of the given product.
+     *
+     * @param productId the product id
+     */
+    void recordSearch(Long productId);
+
+    /**
+     * Writes all pending increments to the database.
+     */
+    void flush();
+}
@@ -1,9 +1,11 @@
 package org.example.ecommerce.application.service.product;
 
 import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.ProductCard;
 import org.example.ecommerce.domain.model.seller.Seller;
 import org.example.ecommerce.infrastructure.dto.product.CreateProductDto;
 import org.example.ecommerce.infrastructure.dto.product.ProductDTO;
+import org.example.ecommerce.infrastructure.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,18 +23,27 @@ public interface ProductService {
     Optional<Product> findById(Long id);
 
 
-    Page<Product> getProducts(Pageable pageable);
+    Page<ProductCard> getProducts(Pageable pageable);
 
 
-    Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
-    Page<Product> findBySellerId(Long sellerId, Pageable pageable);
+    Page<ProductCard> findByCategoryId(Long categoryId, Pageable pageable);
+    // التصنيف وكل التصنيفات اللي تحته
+    Page<ProductCard> findByCategoryTree(Long categoryId, Pageable pageable);
+    Page<ProductCard> findBySellerId(Long sellerId, Pageable pageable);
 
-    Page<Product> findByViewsCounter(Pageable pageable);
+    Page<ProductCard> findByViewsCounter(Pageable pageable);
 
-    Page<Product> findBySearchCounter(Pageable pageable);
+    Page<ProductCard> findBySearchCounter(Pageable pageable);
 
     Page<Product> findByIsVerified(Boolean isVerified, Pageable pageable);
 
+    // keyset pagination: cursor فاضي = أول صفحة
+    CursorPage<ProductCard> scrollProducts(String cursor, int size);
+    CursorPage<ProductCard> scrollByCategoryId(Long categoryId, String cursor, int size);
+    CursorPage<ProductCard> scrollBySellerId(Long sellerId, String cursor, int size);
+    CursorPage<ProductCard> scrollByViewsCounter(String cursor, int size);
+    CursorPage<ProductCard> scrollBySearchCounter(String cursor, int size);
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     boolean updateProductStatus(Long id , boolean status);
 
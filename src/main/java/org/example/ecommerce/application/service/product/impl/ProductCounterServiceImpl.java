@@ -0,0 +1,140 @@
+package org.example.ecommerce.application.service.product.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.product.ProductCounterService;
+import org.example.ecommerce.domain.model.product.ProductCounterDelta;
+import org.example.ecommerce.domain.model.product.repository.ProductCounterRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of {@link ProductCounterService}.
+ * <p>
+ * Each product gets a pair of {@link LongAdder}s, so concurrent readers only touch
+ * a striped in-memory cell. A scheduled job removes the drained entries and applies
+ * the totals with batched relative updates in one transaction, so a failed flush
+ * writes nothing and its increments are put back for the next run.
+ * </p>
+ * <p>
+ * A caller may still hold a removed entry and increment it after the drain; removed
+ * entries are summed once more on the next run so those late increments are kept.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ProductCounterServiceImpl implements ProductCounterService {
+
+    private final ProductCounterRepository productCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean drainOnShutdown;
+
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+    // اتشالت من pending في الـ flush اللي فات، بتتجمع تاني مرة واحدة
+    private List<Map.Entry<Long, Counters>> retired = List.of();
+
+    public ProductCounterServiceImpl(ProductCounterRepository productCounterRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${product.counters.batch-size:500}") int batchSize,
+                                     @Value("${product.counters.drain-on-shutdown:true}") boolean drainOnShutdown) {
+        this.productCounterRepository = productCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.drainOnShutdown = drainOnShutdown;
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        if (productId != null) {
+            counters(productId).views.increment();
+        }
+    }
+
+    @Override
+    public void recordSearch(Long productId) {
+        if (productId != null) {
+            counters(productId).searches.increment();
+        }
+    }
+
+    /**
+     * Drains the in-memory counters and writes them to the database.
+     * Runs every {@code product.counters.flush-interval-ms} milliseconds.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${product.counters.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, long[]> totals = new HashMap<>();
+        // increments وصلت لـ entries بعد ما اتشالت في الـ flush اللي فات
+        for (Map.Entry<Long, Counters> entry : retired) {
+            add(totals, entry.getKey(), entry.getValue());
+        }
+        List<Map.Entry<Long, Counters>> removed = new ArrayList<>();
+        for (Long productId : pending.keySet()) {
+            Counters counters = pending.remove(productId);
+            if (counters != null) {
+                removed.add(Map.entry(productId, counters));
+                add(totals, productId, counters);
+            }
+        }
+        retired = removed;
+
+        List<ProductCounterDelta> deltas = new ArrayList<>();
+        totals.forEach((productId, total) -> {
+            if (total[0] != 0 || total[1] != 0) {
+                deltas.add(new ProductCounterDelta(productId, total[0], total[1]));
+            }
+        });
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            // الـ batchUpdate بيتقسم لأكتر من batch، فلازم transaction واحدة عشان الفشل ما يكتبش نص
+            transactionTemplate.executeWithoutResult(status -> productCounterRepository.incrementCounters(deltas, batchSize));
+            log.debug("Flushed counters for {} products", deltas.size());
+        } catch (Exception e) {
+            log.error("Failed to flush product counters, re-queueing {} entries: {}", deltas.size(), e.getMessage(), e);
+            for (ProductCounterDelta delta : deltas) {
+                Counters counters = counters(delta.productId());
+                counters.views.add(delta.views());
+                counters.searches.add(delta.searches());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        if (drainOnShutdown) {
+            log.info("Draining pending product counters before shutdown");
+            flush();
+        }
+    }
+
+    private static void add(Map<Long, long[]> totals, Long productId, Counters counters) {
+        long[] total = totals.computeIfAbsent(productId, id -> new long[2]);
+        total[0] += counters.views.sumThenReset();
+        total[1] += counters.searches.sumThenReset();
+    }
+
+    private Counters counters(Long productId) {
+        return pending.computeIfAbsent(productId, id -> new Counters());
+    }
+
+    private static final class Counters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder searches = new LongAdder();
+    }
+}
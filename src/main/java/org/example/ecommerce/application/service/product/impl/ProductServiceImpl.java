@@ -1,14 +1,15 @@
 package org.example.ecommerce.application.service.product.impl;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.category.CategoryService;
+import org.example.ecommerce.application.service.product.ProductCounterService;
 import org.example.ecommerce.application.service.product.ProductService;
 import org.example.ecommerce.domain.common.exception.ImageIsRequired;
 import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.category.exception.CategoryNotFoundException;
 import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.ProductCard;
 import org.example.ecommerce.domain.model.product.exception.ProductNotFoundException;
 import org.example.ecommerce.domain.model.product.repository.ProductRepository;
 import org.example.ecommerce.domain.model.seller.Seller;
@@ -16,27 +17,36 @@ import org.example.ecommerce.domain.model.user.repository.UserRepository;
 import org.example.ecommerce.infrastructure.dto.product.CreateProductDto;
 import org.example.ecommerce.infrastructure.event.ProductEvent;
 import org.example.ecommerce.infrastructure.event.Type;
+import org.example.ecommerce.infrastructure.response.CursorPage;
+import org.example.ecommerce.infrastructure.utils.Cursor;
 import org.example.ecommerce.infrastructure.utils.ImageUploadUtil;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements ProductService {
+    private static final int MAX_SCROLL_SIZE = 100;
+    // قيم أول صفحة: أكبر من أي صف حقيقي
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
     private final ProductRepository productRepository;
     private final CategoryService categoryService;
     private final ImageUploadUtil  imageUploadUtil;
     private final ApplicationEventPublisher eventPublisher;
     private final UserRepository userRepository;
+    private final ProductCounterService productCounterService;
     @Override
     @Transactional
     public Optional<CreateProductDto> insert(Seller seller,
@@ -48,7 +58,7 @@ public class ProductServiceImpl implements ProductService {
         savedProduct.setDescription(dto.description());
         savedProduct.setMaximumRetailPrice(dto.priceBeforeDiscount());
         savedProduct.setSellingPrice(dto.priceAfterDiscount());
-        savedProduct.setQuantity(dto.quantity());
+        savedProduct.setQuantity(dto.quantity() == null ? 0 : dto.quantity());
         savedProduct.setColor(dto.color());
         log.info("Mapped DTO to Product entity: {}", savedProduct);
 
@@ -103,90 +113,132 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public Optional<Product> findById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found"));
-        product.setViewsCounter(product.getViewsCounter() + 1);
-        product.setSearchCounter(product.getSearchCounter() + 1);
-//        productRepository.save(product);
+        productCounterService.recordView(product.getId());
+        productCounterService.recordSearch(product.getId());
 
         return Optional.of(product);
     }
 
 
     @Override
-    @Transactional
-    public Page<Product> getProducts(Pageable pageable) {
-        Page<Product> products = productRepository.findAll(pageable);
-        List<Product> filtered = products.stream()
-                .filter(product -> Boolean.TRUE.equals(product.getIsVerified()))
-                .peek(product -> product.setViewsCounter(product.getViewsCounter() + 1)) // زيادة views
-                .toList();
-        return  new PageImpl<>(filtered, pageable, filtered.size());
+    @Transactional(readOnly = true)
+    public Page<ProductCard> getProducts(Pageable pageable) {
+        Page<ProductCard> products = productRepository.findVerifiedCards(newestFirst(pageable));
+        products.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+        return products;
     }
 
     @Override
-    @Transactional
-    public Page<Product> findByCategoryId(Long categoryId, Pageable pageable) {
-        Page<Product> products = productRepository.findByCategoryId(categoryId, pageable);
-        List<Product> filtered = products.stream()
-                .filter(product -> Boolean.TRUE.equals(product.getIsVerified()))
-                .peek(product -> product.setViewsCounter(product.getViewsCounter() + 1)) // زيادة views
-                .toList();
-        return  new PageImpl<>(filtered, pageable, filtered.size());
+    @Transactional(readOnly = true)
+    public Page<ProductCard> findByCategoryId(Long categoryId, Pageable pageable) {
+        Page<ProductCard> products = productRepository.findVerifiedCardsByCategory(categoryId, newestFirst(pageable));
+        products.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+        return products;
     }
 
     @Override
-    @Transactional
-    public Page<Product> findBySellerId(Long sellerId, Pageable pageable) {
-        Page<Product> products = productRepository.findBySellerId(sellerId, pageable);
-        List<Product> filtered = products.stream()
-                .filter(product -> Boolean.TRUE.equals(product.getIsVerified()))
-                .peek(product -> product.setViewsCounter(product.getViewsCounter() + 1)) // زيادة views
-                .toList();
-        return  new PageImpl<>(filtered, pageable, filtered.size());
+    @Transactional(readOnly = true)
+    public Page<ProductCard> findByCategoryTree(Long categoryId, Pageable pageable) {
+        Category category = categoryService.getCategory(categoryId)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found"));
+        String path = category.getPath() != null ? category.getPath() : category.buildPath();
+        Page<ProductCard> products = productRepository.findVerifiedCardsByCategoryPath(path, newestFirst(pageable));
+        products.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+        return products;
     }
 
     @Override
-    @Transactional
-    public Page<Product> findByViewsCounter(Pageable pageable) {
-
-        Page<Product> products = productRepository.findAllByOrderByViewsCounterDesc(pageable);
-        List<Product> filtered = products.stream()
-                .filter(product -> Boolean.TRUE.equals(product.getIsVerified()))
-                .peek(product -> product.setViewsCounter(product.getViewsCounter() + 1)) // زيادة views
-                .toList();
-        return  new PageImpl<>(filtered, pageable, filtered.size());
+    @Transactional(readOnly = true)
+    public Page<ProductCard> findBySellerId(Long sellerId, Pageable pageable) {
+        Page<ProductCard> products = productRepository.findVerifiedCardsBySeller(sellerId, newestFirst(pageable));
+        products.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+        return products;
     }
 
     @Override
-    @Transactional
-    public Page<Product> findBySearchCounter(Pageable pageable) {
-
-        Page<Product> products = productRepository.findAllByOrderBySearchCounterDesc(pageable);
+    @Transactional(readOnly = true)
+    public Page<ProductCard> findByViewsCounter(Pageable pageable) {
+        Page<ProductCard> products = productRepository.findVerifiedCardsOrderByViewsCounter(pageable);
+        products.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+        return products;
+    }
 
-        List<Product> filtered = products.stream()
-                .filter(product -> Boolean.TRUE.equals(product.getIsVerified()))
-                .peek(product -> product.setViewsCounter(product.getViewsCounter() + 1)) // زيادة views
-                .toList();
-        return  new PageImpl<>(filtered, pageable, filtered.size());
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductCard> findBySearchCounter(Pageable pageable) {
+        Page<ProductCard> products = productRepository.findVerifiedCardsOrderBySearchCounter(pageable);
+        products.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+        return products;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Product> findByIsVerified(Boolean isVerified, Pageable pageable) {
         Pageable sorted = PageRequest.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
                 Sort.by("createdAt").ascending()
         );
-        Page<Product> products = productRepository.findByIsVerified(isVerified, sorted);
+        return productRepository.findByIsVerified(isVerified, sorted);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCard> scrollProducts(String cursor, int size) {
+        Cursor after = decode(cursor);
+        List<ProductCard> rows = productRepository.findVerifiedNewestAfter(
+                after == null ? FIRST_PAGE_CREATED_AT : after.keyAsDateTime(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(scrollSize(size) + 1));
+        return toCursorPage(rows, scrollSize(size), ProductCard::createdAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCard> scrollByCategoryId(Long categoryId, String cursor, int size) {
+        Cursor after = decode(cursor);
+        List<ProductCard> rows = productRepository.findVerifiedByCategoryNewestAfter(categoryId,
+                after == null ? FIRST_PAGE_CREATED_AT : after.keyAsDateTime(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(scrollSize(size) + 1));
+        return toCursorPage(rows, scrollSize(size), ProductCard::createdAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCard> scrollBySellerId(Long sellerId, String cursor, int size) {
+        Cursor after = decode(cursor);
+        List<ProductCard> rows = productRepository.findVerifiedBySellerNewestAfter(sellerId,
+                after == null ? FIRST_PAGE_CREATED_AT : after.keyAsDateTime(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(scrollSize(size) + 1));
+        return toCursorPage(rows, scrollSize(size), ProductCard::createdAt);
+    }
 
-        List<Product> filtered = products.stream()
-                .filter(product -> Boolean.TRUE.equals(product.getIsVerified()))
-                .peek(product -> product.setViewsCounter(product.getViewsCounter() + 1)) // زيادة views
-                .toList();
-        return  new PageImpl<>(filtered, pageable, filtered.size());
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCard> scrollByViewsCounter(String cursor, int size) {
+        Cursor after = decode(cursor);
+        List<ProductCard> rows = productRepository.findVerifiedMostViewedAfter(
+                after == null ? Long.MAX_VALUE : after.keyAsLong(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(scrollSize(size) + 1));
+        return toCursorPage(rows, scrollSize(size), ProductCard::viewsCounter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCard> scrollBySearchCounter(String cursor, int size) {
+        Cursor after = decode(cursor);
+        List<ProductCard> rows = productRepository.findVerifiedMostSearchedAfter(
+                after == null ? Long.MAX_VALUE : after.keyAsLong(),
+                after == null ? Long.MAX_VALUE : after.id(),
+                Limit.of(scrollSize(size) + 1));
+        return toCursorPage(rows, scrollSize(size), ProductCard::searchCounter);
     }
 
     @Override
@@ -274,6 +326,37 @@ public class ProductServiceImpl implements ProductService {
         log.info("Product saved in database: {}", product);
     }
 
+    // الترتيب الافتراضي (الأحدث أولاً) بيطابق الـ index على created_at
+    private Pageable newestFirst(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+    }
+
+    private Cursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+    }
+
+    private int scrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    }
+
+    // بنجيب size + 1 صف: الصف الزيادة معناه إن فيه صفحة بعدها
+    private CursorPage<ProductCard> toCursorPage(List<ProductCard> rows, int size, Function<ProductCard, Object> sortKey) {
+        boolean hasNext = rows.size() > size;
+        List<ProductCard> content = hasNext ? rows.subList(0, size) : rows;
+        content.forEach(card -> productCounterService.recordView(card.id())); // زيادة views
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductCard last = content.get(content.size() - 1);
+            nextCursor = Cursor.encode(sortKey.apply(last), last.id());
+        }
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
     // تحويل المنتج لـ DTO
     private CreateProductDto mapToDto(Product product) {
         return new CreateProductDto(
@@ -1,12 +1,12 @@
 package org.example.ecommerce.application.service.seller.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.user.impl.GetUserByType;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.example.ecommerce.infrastructure.dto.seller.SellerProfile;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,11 +16,31 @@ import java.util.Optional;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class GetSellerContext {
 
-    /** Spring ApplicationContext used to retrieve beans dynamically */
-    private final ApplicationContext applicationContext;
+    /** Strategies resolved once at startup, one per input type */
+    private final Map<GetUserByType, GetSellerStrategy> strategies = new EnumMap<>(GetUserByType.class);
+
+    /**
+     * @param strategiesByBeanName every {@link GetSellerStrategy} bean keyed by its bean name
+     * @throws IllegalStateException if a type has no registered strategy
+     */
+    public GetSellerContext(Map<String, GetSellerStrategy> strategiesByBeanName) {
+        for (GetUserByType type : GetUserByType.values()) {
+            // Convert enum type to the corresponding registered bean name
+            String beanName = switch (type) {
+                case ID -> GetSellerByType.ID_VALUE;
+                case EMAIL -> GetSellerByType.EMAIL_VALUE;
+                case PHONE -> GetSellerByType.PHONE_VALUE;
+                case JWT -> GetSellerByType.JWT_VALUE;
+            };
+            GetSellerStrategy strategy = strategiesByBeanName.get(beanName);
+            if (strategy == null) {
+                throw new IllegalStateException("No GetSellerStrategy bean named " + beanName);
+            }
+            strategies.put(type, strategy);
+        }
+    }
 
     /**
      * Fetches a seller profile using the given input and retrieval type.
@@ -30,19 +50,7 @@ public class GetSellerContext {
      * @return Optional containing SellerProfile if found
      */
     public Optional<SellerProfile> getSeller(String input, GetUserByType type) {
-
-        // Convert enum type to the corresponding registered bean name
-        String beanName = switch (type) {
-            case ID -> GetSellerByType.ID_VALUE;
-            case EMAIL -> GetSellerByType.EMAIL_VALUE;
-            case PHONE -> GetSellerByType.PHONE_VALUE;
-            case JWT -> GetSellerByType.JWT_VALUE;
-        };
-
-        // Retrieve the appropriate strategy bean
-        GetSellerStrategy strategy = applicationContext.getBean(beanName, GetSellerStrategy.class);
-
         // Delegate the call to the selected strategy
-        return strategy.getSeller(input);
+        return strategies.get(type).getSeller(input);
     }
 }
@@ -16,6 +16,7 @@ import org.example.ecommerce.domain.model.user.repository.UserRepository;
 import org.example.ecommerce.infrastructure.dto.seller.BecomeASellerDto;
 import org.example.ecommerce.infrastructure.dto.seller.SellerProfile;
 import org.example.ecommerce.infrastructure.event.NewSellerRegisteredEvent;
+import org.example.ecommerce.infrastructure.event.UserChangedEvent;
 import org.example.ecommerce.infrastructure.mapper.SellerMapper;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
@@ -83,6 +84,8 @@ public class BecomeASellerImpl implements BecomeASeller {
             }
 
             Seller saved = sellerRepository.save(seller);
+            // اتضاف ROLE_SELLER
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
             eventPublisher.publishEvent(new NewSellerRegisteredEvent(this, saved));
 
 
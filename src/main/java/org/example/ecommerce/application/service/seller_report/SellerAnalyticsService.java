@@ -0,0 +1,31 @@
+package org.example.ecommerce.application.service.seller_report;
+
+import org.example.ecommerce.domain.model.seller_report.ReportGranularity;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesPoint;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Seller sales over time, read from hourly and daily rollups.
+ * <p>
+ * {@link #record(OrderLifecycleEvent)} adds committed order changes to the
+ * buckets they happened in (kept in memory, written by {@link #flush()}).
+ * {@link #backfill()} rebuilds the buckets before the current day from the
+ * existing orders.
+ * </p>
+ */
+public interface SellerAnalyticsService {
+
+    void record(OrderLifecycleEvent event);
+
+    void flush();
+
+    /**
+     * Buckets from the start of {@code from} to the end of {@code to}, empty buckets included.
+     */
+    List<SellerSalesPoint> salesReport(Long sellerId, LocalDate from, LocalDate to, ReportGranularity granularity);
+
+    void backfill();
+}
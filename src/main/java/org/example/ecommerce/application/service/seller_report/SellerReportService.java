@@ -1,9 +1,29 @@
 package org.example.ecommerce.application.service.seller_report;
 
 import org.example.ecommerce.domain.model.seller_report.SellerReport;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
 
+/**
+ * Seller lifetime figures.
+ * <p>
+ * The counters are maintained incrementally: {@link #record(OrderLifecycleEvent)}
+ * turns a committed order change into a delta kept in memory, and {@link #flush()}
+ * writes the summed deltas in one batch. Deltas not flushed yet are lost if the
+ * instance dies; {@link #reconcile()} recomputes the counters from the orders
+ * (nightly), logs the drift and corrects it.
+ * </p>
+ */
 public interface SellerReportService {
 
     SellerReport getSellerReport(String sellerId) ;
     SellerReport updateSellerReport(SellerReport sellerReport) ;
+
+    void record(OrderLifecycleEvent event);
+
+    /**
+     * Writes the accumulated deltas to {@code seller_report}.
+     */
+    void flush();
+
+    void reconcile();
 }
@@ -0,0 +1,233 @@
+package org.example.ecommerce.application.service.seller_report.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.seller_report.SellerAnalyticsService;
+import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.model.order.repository.OrderRepository;
+import org.example.ecommerce.domain.model.seller_report.OrderSalesRow;
+import org.example.ecommerce.domain.model.seller_report.ReportGranularity;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesDelta;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesPoint;
+import org.example.ecommerce.domain.model.seller_report.exception.InvalidReportRangeException;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerSalesDeltaRepository;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerSalesRollupRepository;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class SellerAnalyticsServiceImpl implements SellerAnalyticsService {
+
+    private static final ReportGranularity[] STORED = {ReportGranularity.HOUR, ReportGranularity.DAY};
+    private static final long MAX_HOURLY_DAYS = 31;
+    private static final long MAX_DAYS = 3 * 366;
+
+    private final SellerSalesRollupRepository sellerSalesRollupRepository;
+    private final SellerSalesDeltaRepository sellerSalesDeltaRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate writeTransaction;
+    // ConcurrentHashMap.merge بيقفل الـ bin بتاع الـ bucket بس
+    private final Map<SellerSalesDelta.Key, SellerSalesDelta> pending = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final int backfillChunkSize;
+    private final boolean backfillOnStartup;
+
+    public SellerAnalyticsServiceImpl(SellerSalesRollupRepository sellerSalesRollupRepository,
+                                      SellerSalesDeltaRepository sellerSalesDeltaRepository,
+                                      OrderRepository orderRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${seller.analytics.batch-size:500}") int batchSize,
+                                      @Value("${seller.analytics.backfill.chunk-size:1000}") int backfillChunkSize,
+                                      @Value("${seller.analytics.backfill.on-startup:false}") boolean backfillOnStartup) {
+        this.sellerSalesRollupRepository = sellerSalesRollupRepository;
+        this.sellerSalesDeltaRepository = sellerSalesDeltaRepository;
+        this.orderRepository = orderRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.backfillChunkSize = backfillChunkSize;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @Override
+    public void record(OrderLifecycleEvent event) {
+        if (event.sellerId() == null) {
+            return;
+        }
+        long refund = event.refunded() ? event.amount() : 0L;
+        SellerSalesDelta delta = switch (event.change()) {
+            case PLACED -> counters(event.sellerId(), 1, 0, 0, 0, 0);
+            case PAID -> counters(event.sellerId(), 0, 0, 1, event.amount(), refund);
+            case CANCELLED -> counters(event.sellerId(), 0, 1, 0, 0, refund);
+        };
+        addToBuckets(pending, delta, event.occurredAt());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${seller.analytics.flush-interval-ms:5000}")
+    public void flush() {
+        List<SellerSalesDelta> deltas = new ArrayList<>();
+        for (SellerSalesDelta.Key key : pending.keySet()) {
+            SellerSalesDelta delta = pending.remove(key);
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            writeTransaction.executeWithoutResult(status -> write(deltas));
+        } catch (RuntimeException e) {
+            // ولا batch اتكتبت، فكلها ترجع للذاكرة وتتكتب في الـ flush الجاية
+            deltas.forEach(delta -> pending.merge(delta.key(), delta, SellerSalesDelta::plus));
+            log.warn("Seller analytics flush failed, {} bucket deltas kept for the next run: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public List<SellerSalesPoint> salesReport(Long sellerId, LocalDate from, LocalDate to, ReportGranularity granularity) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new InvalidReportRangeException("'from' must be on or before 'to'");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        long maxDays = granularity == ReportGranularity.HOUR ? MAX_HOURLY_DAYS : MAX_DAYS;
+        if (days > maxDays) {
+            throw new InvalidReportRangeException("Range too long for " + granularity + " buckets (max " + maxDays + " days)");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        TreeMap<LocalDateTime, SellerSalesPoint> buckets = new TreeMap<>();
+        for (LocalDateTime bucket = granularity.bucketOf(start); bucket.isBefore(end); bucket = granularity.next(bucket)) {
+            buckets.put(bucket, SellerSalesPoint.empty(bucket));
+        }
+        // الأسبوع والشهر مجموع الصفوف اليومية
+        for (SellerSalesPoint row : sellerSalesRollupRepository.findPoints(sellerId, granularity.stored(), start, end)) {
+            LocalDateTime bucket = granularity.bucketOf(row.bucketStart());
+            buckets.merge(bucket, row, SellerSalesPoint::plus);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    /**
+     * Rebuilds the rollups before the start of today from {@code orders}, one seller
+     * at a time. Each seller's old buckets are deleted and rebuilt in one transaction,
+     * so a failure leaves that seller's previous history in place and readers never
+     * see it half rebuilt. Today's buckets are left to the live events, so the rebuild
+     * never overlaps with what {@link #record(OrderLifecycleEvent)} is adding.
+     */
+    @Override
+    public void backfill() {
+        long started = System.currentTimeMillis();
+        flush();
+        LocalDateTime cutoff = LocalDate.now().atStartOfDay();
+        // بائعين ليهم rollups ومالهمش طلبات دلوقتي بيتمسحوا برضه
+        TreeSet<Long> sellerIds = new TreeSet<>(orderRepository.findSellerIds());
+        sellerIds.addAll(sellerSalesRollupRepository.findSellerIds());
+        log.info("Seller analytics backfill started, cutoff={}, {} sellers", cutoff, sellerIds.size());
+
+        long orders = 0;
+        int failed = 0;
+        for (Long sellerId : sellerIds) {
+            try {
+                orders += writeTransaction.execute(status -> rebuild(sellerId, cutoff));
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("Seller analytics backfill failed for seller {}, old buckets kept: {}", sellerId, e.getMessage(), e);
+            }
+        }
+        log.info("Seller analytics backfill finished: {} orders, {} sellers failed, in {} ms",
+                orders, failed, System.currentTimeMillis() - started);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private long rebuild(Long sellerId, LocalDateTime cutoff) {
+        sellerSalesRollupRepository.deleteBucketsBefore(sellerId, cutoff);
+        Map<SellerSalesDelta.Key, SellerSalesDelta> deltas = new HashMap<>();
+        long afterId = 0L;
+        long orders = 0;
+        while (true) {
+            List<OrderSalesRow> chunk = orderRepository.findSalesRowsBySellerAfter(sellerId, afterId, Limit.of(backfillChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (OrderSalesRow row : chunk) {
+                addHistory(deltas, row, cutoff);
+            }
+            orders += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+        write(new ArrayList<>(deltas.values()));
+        return orders;
+    }
+
+    // نفس قواعد الـ events: الطلب في ساعة إنشائه، الدفع في وقت الدفع، والإلغاء في آخر تعديل
+    private void addHistory(Map<SellerSalesDelta.Key, SellerSalesDelta> deltas, OrderSalesRow row, LocalDateTime cutoff) {
+        long amount = row.totalSellingPrice() == null ? 0L : row.totalSellingPrice();
+        boolean paid = row.paymentStatus() == PaymentStatus.COMPLETED;
+        boolean cancelled = row.orderStatus() == OrderStatus.CANCELLED;
+        LocalDateTime changedAt = row.updatedAt() == null ? row.createdAt() : row.updatedAt();
+
+        if (row.createdAt() != null && row.createdAt().isBefore(cutoff)) {
+            addToBuckets(deltas, counters(row.sellerId(), 1, 0, 0, 0, 0), row.createdAt());
+        }
+        if (paid) {
+            LocalDateTime paidAt = row.paidAt() == null ? changedAt : LocalDateTime.ofInstant(row.paidAt(), ZoneId.systemDefault());
+            if (paidAt != null && paidAt.isBefore(cutoff)) {
+                addToBuckets(deltas, counters(row.sellerId(), 0, 0, 1, amount, 0), paidAt);
+            }
+        }
+        if (cancelled && changedAt != null && changedAt.isBefore(cutoff)) {
+            addToBuckets(deltas, counters(row.sellerId(), 0, 1, 0, 0, paid ? amount : 0), changedAt);
+        }
+    }
+
+    private void write(List<SellerSalesDelta> deltas) {
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            sellerSalesDeltaRepository.applyDeltas(deltas.subList(from, Math.min(from + batchSize, deltas.size())));
+        }
+    }
+
+    private static void addToBuckets(Map<SellerSalesDelta.Key, SellerSalesDelta> target, SellerSalesDelta delta, LocalDateTime time) {
+        for (ReportGranularity granularity : STORED) {
+            SellerSalesDelta bucketDelta = delta.in(granularity, granularity.bucketOf(time));
+            target.merge(bucketDelta.key(), bucketDelta, SellerSalesDelta::plus);
+        }
+    }
+
+    private static SellerSalesDelta counters(Long sellerId, long placed, long cancelled, long paid, long revenue, long refunds) {
+        return new SellerSalesDelta(sellerId, null, null, placed, cancelled, paid, revenue, refunds);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.ecommerce.application.service.seller_report.impl;
+
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counter deltas per seller, split over lock stripes so that events of
+ * different sellers rarely contend. {@link #drain()} swaps each stripe's map out
+ * under its lock and returns the summed deltas.
+ * <p>
+ * Every add also stamps the seller with a tick, so reconciliation can tell which
+ * sellers got events after it took its {@link #mark()}.
+ * </p>
+ */
+final class SellerReportAccumulator {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicLong ticks = new AtomicLong();
+    private final Map<Long, Long> touchedAt = new ConcurrentHashMap<>();
+
+    SellerReportAccumulator(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1; // أقرب power of two
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    void add(SellerReportCounters delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        Stripe stripe = stripes[spread(delta.sellerId().hashCode()) & mask];
+        synchronized (stripe) {
+            stripe.pending.computeIfAbsent(delta.sellerId(), id -> new Counters()).add(delta);
+        }
+        // بعد الإضافة: لو الـ tick أقدم من الـ mark يبقى الـ delta كانت في الـ stripe قبل الـ drain
+        touchedAt.put(delta.sellerId(), ticks.incrementAndGet());
+    }
+
+    long mark() {
+        return ticks.incrementAndGet();
+    }
+
+    boolean touchedSince(Long sellerId, long mark) {
+        Long tick = touchedAt.get(sellerId);
+        return tick != null && tick > mark;
+    }
+
+    void forgetTouchedUpTo(long mark) {
+        touchedAt.values().removeIf(tick -> tick <= mark);
+    }
+
+    List<SellerReportCounters> drain() {
+        List<SellerReportCounters> drained = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, Counters> pending;
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                pending = stripe.pending;
+                stripe.pending = new HashMap<>();
+            }
+            pending.forEach((sellerId, counters) -> {
+                SellerReportCounters delta = counters.toDelta(sellerId);
+                if (!delta.isZero()) {
+                    drained.add(delta);
+                }
+            });
+        }
+        return drained;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private Map<Long, Counters> pending = new HashMap<>();
+    }
+
+    private static final class Counters {
+        private long totalOrders;
+        private long canceledOrders;
+        private long totalTransactions;
+        private long totalSales;
+        private long totalEarnings;
+        private long totalRefunds;
+        private long netEarnings;
+
+        void add(SellerReportCounters delta) {
+            totalOrders += delta.totalOrders();
+            canceledOrders += delta.canceledOrders();
+            totalTransactions += delta.totalTransactions();
+            totalSales += delta.totalSales();
+            totalEarnings += delta.totalEarnings();
+            totalRefunds += delta.totalRefunds();
+            netEarnings += delta.netEarnings();
+        }
+
+        SellerReportCounters toDelta(Long sellerId) {
+            return new SellerReportCounters(sellerId, totalOrders, canceledOrders, totalTransactions,
+                    totalSales, totalEarnings, totalRefunds, netEarnings);
+        }
+    }
+}
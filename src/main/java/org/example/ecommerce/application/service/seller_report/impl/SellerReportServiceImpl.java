@@ -0,0 +1,201 @@
+package org.example.ecommerce.application.service.seller_report.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.seller_report.SellerReportService;
+import org.example.ecommerce.domain.model.order.repository.OrderRepository;
+import org.example.ecommerce.domain.model.seller.exception.SellerException;
+import org.example.ecommerce.domain.model.seller_report.SellerReport;
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerReportCounterRepository;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerReportRepository;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class SellerReportServiceImpl implements SellerReportService {
+
+    private final SellerReportRepository sellerReportRepository;
+    private final SellerReportCounterRepository sellerReportCounterRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final SellerReportAccumulator accumulator;
+    private final int batchSize;
+    private final boolean fixDrift;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public SellerReportServiceImpl(SellerReportRepository sellerReportRepository,
+                                   SellerReportCounterRepository sellerReportCounterRepository,
+                                   OrderRepository orderRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${seller.report.stripes:32}") int stripes,
+                                   @Value("${seller.report.batch-size:500}") int batchSize,
+                                   @Value("${seller.report.reconcile.fix-drift:true}") boolean fixDrift) {
+        this.sellerReportRepository = sellerReportRepository;
+        this.sellerReportCounterRepository = sellerReportCounterRepository;
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.accumulator = new SellerReportAccumulator(stripes);
+        this.batchSize = batchSize;
+        this.fixDrift = fixDrift;
+    }
+
+    @Override
+    public SellerReport getSellerReport(String sellerId) {
+        Long id;
+        try {
+            id = Long.valueOf(sellerId);
+        } catch (NumberFormatException e) {
+            throw new SellerException("Invalid seller id: " + sellerId);
+        }
+        // بائع من غير طلبات لسه: تقرير فاضي من غير ما نكتب صف
+        return sellerReportRepository.findBySellerId(id).orElseGet(SellerReport::new);
+    }
+
+    @Override
+    public SellerReport updateSellerReport(SellerReport sellerReport) {
+        return sellerReportRepository.save(sellerReport);
+    }
+
+    @Override
+    public void record(OrderLifecycleEvent event) {
+        if (event.sellerId() == null) {
+            return;
+        }
+        long amount = event.amount();
+        long refund = event.refunded() ? amount : 0L;
+        accumulator.add(switch (event.change()) {
+            case PLACED -> new SellerReportCounters(event.sellerId(), 1, 0, 0, 0, 0, 0, 0);
+            // دفع طلب اتلغى قبلها بيتحسب مبيعات ومرتجع مع بعض
+            case PAID -> new SellerReportCounters(event.sellerId(), 0, 0, 1, amount, amount, refund, amount - refund);
+            case CANCELLED -> new SellerReportCounters(event.sellerId(), 0, 1, 0, 0, 0, refund, -refund);
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${seller.report.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<SellerReportCounters> deltas = accumulator.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<SellerReportCounters> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                applyBatch(batch);
+            } catch (RuntimeException e) {
+                // الـ batch اترجعت كلها، فاللي بيرجع للذاكرة هو بالظبط اللي ما اتكتبش
+                deltas.subList(from, deltas.size()).forEach(accumulator::add);
+                log.warn("Seller report flush failed, {} deltas kept for the next run: {}", deltas.size() - from, e.getMessage());
+                return;
+            }
+        }
+        log.debug("Seller report flush applied {} seller deltas", deltas.size());
+    }
+
+    /**
+     * Recomputes every seller's counters from {@code orders} (one grouped row per
+     * seller, streamed) and compares them with the stored report.
+     * <p>
+     * Pending deltas are flushed and the stored counters read under the flush lock,
+     * after taking an accumulator mark. A seller with events after the mark may have
+     * an order that is already in {@code orders} while its delta is still pending,
+     * so its drift is not corrected this run; the next run checks it again. The
+     * marks only see this instance's events.
+     * </p>
+     */
+    @Override
+    @Scheduled(cron = "${seller.report.reconcile.cron:0 30 3 * * *}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        long mark = accumulator.mark();
+
+        Map<Long, SellerReportCounters> stored = new HashMap<>();
+        // مفيش flush تاني بيكتب deltas قديمة بعد ما قرينا الـ stored
+        flushLock.lock();
+        try {
+            flushPending();
+            for (SellerReportCounters counters : sellerReportRepository.findAllCounters()) {
+                stored.merge(counters.sellerId(), counters, (a, b) -> a); // لو فيه صفين لنفس البائع
+            }
+        } finally {
+            flushLock.unlock();
+        }
+
+        List<SellerReportCounters> corrections = new ArrayList<>();
+        int sellers = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<SellerReportCounters> computed = orderRepository.streamSellerReportCounters()) {
+                for (SellerReportCounters actual : (Iterable<SellerReportCounters>) computed::iterator) {
+                    count++;
+                    SellerReportCounters current = stored.remove(actual.sellerId());
+                    SellerReportCounters drift = actual.minus(current == null ? SellerReportCounters.zero(actual.sellerId()) : current);
+                    if (!drift.isZero()) {
+                        corrections.add(drift);
+                    }
+                }
+            }
+            return count;
+        });
+
+        // بائعين ليهم تقرير ومالهمش طلبات خالص
+        stored.values().forEach(current -> {
+            SellerReportCounters drift = SellerReportCounters.zero(current.sellerId()).minus(current);
+            if (!drift.isZero()) {
+                corrections.add(drift);
+            }
+        });
+
+        // البائعين اللي جالهم events بعد الـ mark: الـ delta بتاعتهم ممكن تكون لسه ما اتكتبتش
+        int drifted = corrections.size();
+        corrections.removeIf(drift -> accumulator.touchedSince(drift.sellerId(), mark));
+        int skipped = drifted - corrections.size();
+        accumulator.forgetTouchedUpTo(mark);
+
+        for (SellerReportCounters drift : corrections) {
+            log.warn("Seller report drift for seller {}: {}", drift.sellerId(), drift);
+        }
+        if (fixDrift) {
+            for (int from = 0; from < corrections.size(); from += batchSize) {
+                applyBatch(corrections.subList(from, Math.min(from + batchSize, corrections.size())));
+            }
+        }
+        log.info("Seller report reconciliation checked {} sellers in {} ms, {} drifted{}, {} skipped as active",
+                sellers, System.currentTimeMillis() - started, corrections.size(),
+                fixDrift && !corrections.isEmpty() ? " (corrected)" : "", skipped);
+    }
+
+    // الـ UPDATEs والـ INSERTs بتاعة الـ batch يا تتكتب كلها يا ولا واحدة
+    private void applyBatch(List<SellerReportCounters> batch) {
+        writeTransaction.executeWithoutResult(status -> sellerReportCounterRepository.applyDeltas(batch));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.ecommerce.application.service.user;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-based cache of users that passed JWT validation, so the
+ * validator filter does not hit the users table on every request.
+ * <p>
+ * Entries must be invalidated whenever a user is deleted, gets new roles or
+ * has their account status changed.
+ * </p>
+ */
+public interface PrincipalCache {
+
+    /**
+     * Returns the principal for the given email, loading it from the database on a miss.
+     *
+     * @param email the user's email (JWT subject)
+     * @return the principal, or empty if no such user exists
+     */
+    Optional<Principal> findByEmail(String email);
+
+    /**
+     * Drops the cached entry for the given email.
+     *
+     * @param email the user's email
+     */
+    void invalidate(String email);
+
+    /**
+     * Drops the cached entry for the given user id.
+     *
+     * @param userId the user's id
+     */
+    void invalidateUserId(Long userId);
+
+    /**
+     * @return hit/miss counters and current size
+     */
+    Stats stats();
+
+    /**
+     * The part of a user the security filter needs.
+     *
+     * @param userId the user's id
+     * @param email  the user's email
+     * @param roles  role names as stored in authorities (e.g. ROLE_CUSTOMER)
+     */
+    record Principal(Long userId, String email, List<String> roles) {}
+
+    /**
+     * @param hits      lookups answered from memory
+     * @param misses    lookups that went to the database
+     * @param evictions entries dropped by invalidation, expiry or the size bound
+     * @param size      current number of entries
+     */
+    record Stats(long hits, long misses, long evictions, int size) {}
+}
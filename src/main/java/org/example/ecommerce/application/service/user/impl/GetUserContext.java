@@ -1,37 +1,105 @@
 package org.example.ecommerce.application.service.user.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.infrastructure.dto.user.UserProfile;
-import org.springframework.context.ApplicationContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves a {@link UserProfile} with the strategy registered for each {@link GetUserByType}.
+ * <p>
+ * Strategies are looked up once at startup. Found profiles are kept for
+ * {@code user.profile-cache.ttl-seconds} keyed by (type, input); every path that
+ * changes or deletes a user publishes a {@code UserChangedEvent}, which calls
+ * {@link #invalidate(Long)} after the commit.
+ * </p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class GetUserContext {
-    private final ApplicationContext applicationContext;
+
+    private final Map<GetUserByType, GetUserStrategy> strategies = new EnumMap<>(GetUserByType.class);
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final Map<Key, Entry> profiles = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Key>> keysByUserId = new ConcurrentHashMap<>();
+
+    public GetUserContext(Map<String, GetUserStrategy> strategiesByBeanName,
+                          @Value("${user.profile-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${user.profile-cache.max-size:10000}") int maxSize) {
+        // اسم الـ Bean هو نفس اسم الـ enum (GetUserByType.*_VALUE)
+        for (GetUserByType type : GetUserByType.values()) {
+            GetUserStrategy strategy = strategiesByBeanName.get(type.name());
+            if (strategy == null) {
+                throw new IllegalStateException("No GetUserStrategy bean named " + type.name());
+            }
+            strategies.put(type, strategy);
+        }
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.maxSize = maxSize;
+    }
 
     public Optional<UserProfile> getUser(String input, GetUserByType type) {
-        // تحويل نوع الـ enum إلى اسم الـ Bean المسجل
-        String beanName = switch (type) {
-            case ID -> GetUserByType.ID_VALUE;
-            case EMAIL -> GetUserByType.EMAIL_VALUE;
-            case PHONE -> GetUserByType.PHONE_VALUE;
-            case JWT -> GetUserByType.JWT_VALUE;
-        };
-
-        // جلب الاستراتيجية المناسبة
-        GetUserStrategy strategy = applicationContext.getBean(beanName, GetUserStrategy.class);
-
-                    return strategy.getUser(input);
-
-//        try {
-//            return strategy.getUser(input);
-//        } catch (Exception e) {
-//            log.error("Error fetching user with type {}: {}", type, e.getMessage());
-//            return Optional.empty();
-//        }
+        Key key = new Key(type, input);
+        long now = System.nanoTime();
+        Entry entry = profiles.get(key);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return Optional.of(entry.profile);
+        }
+
+        // المستخدم غير الموجود ما بيتخزنش
+        Optional<UserProfile> profile = strategies.get(type).getUser(input);
+        profile.ifPresentOrElse(found -> put(key, found, now), () -> profiles.remove(key));
+        return profile;
+    }
+
+    /**
+     * Drops every cached profile of the given user, whatever key it was looked up by.
+     *
+     * @param userId the user's id
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        Set<Key> keys = keysByUserId.remove(userId);
+        if (keys != null) {
+            keys.forEach(profiles::remove);
+        }
+    }
+
+    private void put(Key key, UserProfile profile, long now) {
+        if (profile.id() == null) {
+            return;
+        }
+        if (profiles.size() >= maxSize) {
+            shrink(now);
+        }
+        profiles.put(key, new Entry(profile, now + ttlNanos));
+        keysByUserId.computeIfAbsent(profile.id(), id -> ConcurrentHashMap.newKeySet()).add(key);
     }
+
+    private void shrink(long now) {
+        profiles.entrySet().removeIf(e -> e.getValue().expiresAt - now <= 0);
+        if (profiles.size() >= maxSize) {
+            profiles.clear();
+            keysByUserId.clear();
+        } else {
+            keysByUserId.values().forEach(keys -> keys.removeIf(k -> !profiles.containsKey(k)));
+            keysByUserId.values().removeIf(Set::isEmpty);
+        }
+        log.debug("User profile cache shrunk to {} entries", profiles.size());
+    }
+
+    private record Key(GetUserByType type, String input) {}
+
+    private record Entry(UserProfile profile, long expiresAt) {}
 }
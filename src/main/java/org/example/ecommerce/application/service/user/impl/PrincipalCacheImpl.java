@@ -0,0 +1,126 @@
+package org.example.ecommerce.application.service.user.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.user.PrincipalCache;
+import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PrincipalCache} backed by a {@link ConcurrentHashMap}.
+ * <p>
+ * Entries expire after {@code security.principal-cache.ttl-seconds}. When the map
+ * grows past {@code security.principal-cache.max-size}, expired entries are purged
+ * first and, if that is not enough, arbitrary entries are dropped; a dropped
+ * entry only costs one extra database lookup.
+ * </p>
+ */
+@Service
+@Slf4j
+public class PrincipalCacheImpl implements PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<Long, String> emailByUserId = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCacheImpl(UserRepository userRepository,
+                              @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public Optional<Principal> findByEmail(String email) {
+        long now = System.nanoTime();
+        Entry entry = byEmail.get(email);
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.increment();
+            return Optional.of(entry.principal);
+        }
+
+        misses.increment();
+        // المستخدم غير الموجود ما بيتخزنش، عشان أول تسجيل بعده يشتغل على طول
+        Optional<Principal> loaded = userRepository.findByEmail(email).map(this::toPrincipal);
+        loaded.ifPresentOrElse(principal -> put(principal, now), () -> invalidate(email));
+        return loaded;
+    }
+
+    @Override
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        Entry removed = byEmail.remove(email);
+        if (removed != null) {
+            emailByUserId.remove(removed.principal.userId(), email);
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void invalidateUserId(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        String email = emailByUserId.remove(userId);
+        if (email != null) {
+            invalidate(email);
+        }
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), byEmail.size());
+    }
+
+    private void put(Principal principal, long now) {
+        if (byEmail.size() >= maxSize) {
+            shrink(now);
+        }
+        byEmail.put(principal.email(), new Entry(principal, now + ttlNanos));
+        emailByUserId.put(principal.userId(), principal.email());
+    }
+
+    private void shrink(long now) {
+        byEmail.forEach((email, entry) -> {
+            if (entry.expiresAt - now <= 0) {
+                invalidate(email);
+            }
+        });
+        int excess = byEmail.size() - maxSize + maxSize / 10;
+        for (String email : byEmail.keySet()) {
+            if (excess-- <= 0) {
+                break;
+            }
+            invalidate(email);
+        }
+        log.debug("Principal cache shrunk to {} entries", byEmail.size());
+    }
+
+    private Principal toPrincipal(User user) {
+        List<String> roles = user.getAuthorities() == null ? List.of()
+                : user.getAuthorities().stream()
+                .map(authority -> authority.getRole().name())
+                .toList();
+        return new Principal(user.getId(), user.getEmail(), roles);
+    }
+
+    private record Entry(Principal principal, long expiresAt) {}
+}
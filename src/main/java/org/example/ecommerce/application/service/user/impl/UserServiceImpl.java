@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.FailedLogin.LoginAttemptService;
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
 import org.example.ecommerce.application.service.user.UserService;
 import org.example.ecommerce.domain.common.exception.FailedLoginAttempt;
 import org.example.ecommerce.domain.model.user.User;
@@ -13,11 +14,12 @@ import org.example.ecommerce.infrastructure.dto.user.UserChangeUserPWDDto;
 import org.example.ecommerce.infrastructure.dto.user.UserUpdateImageProfile;
 import org.example.ecommerce.infrastructure.dto.user.UserProfile;
 import org.example.ecommerce.infrastructure.dto.user.UserUpdateDto;
+import org.example.ecommerce.infrastructure.event.UserChangedEvent;
 import org.example.ecommerce.infrastructure.mapper.UserMapper;
 import org.example.ecommerce.infrastructure.utils.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -38,11 +40,12 @@ public class UserServiceImpl implements UserService {
 
     private final GetUserContext getUserContext;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final UserMapper userMapper;
     private final MessageSource messageSource;
     private final JwtUtil jwtUtil;
     private final LoginAttemptService loginAttemptService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Find a user profile by email.
@@ -175,6 +178,7 @@ public class UserServiceImpl implements UserService {
         if (user.getImageUrl() != null && !user.getImageUrl().isEmpty()) {
             user.setImageUrl(null);
             userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.profile(user.getId()));
             return true;
         }
 
@@ -196,6 +200,7 @@ public class UserServiceImpl implements UserService {
                 .map(user -> {
                     user.setImageUrl(imageUrl);
                     User savedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.profile(savedUser.getId()));
                     return new UserUpdateImageProfile(savedUser.getImageUrl());
                 });
     }
@@ -219,14 +224,14 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException(
                         messageSource.getMessage("user.notfound.email", new Object[]{email}, LocaleContextHolder.getLocale())));
 
-        if (!passwordEncoder.matches(changeUserPWD.password(), user.getPassword())) {
+        if (!passwordHashingService.matches(changeUserPWD.password(), user.getPassword())) {
             throw new InvalidPWD(
                     messageSource.getMessage("user.invalid.password", null, LocaleContextHolder.getLocale()));
         }
 
         loginAttemptService.resetAttempts(email);
 
-        user.setPassword(passwordEncoder.encode(changeUserPWD.newPassword()));
+        user.setPassword(passwordHashingService.encode(changeUserPWD.newPassword()));
         userRepository.save(user);
 
         return true;
@@ -246,6 +251,7 @@ public class UserServiceImpl implements UserService {
                     messageSource.getMessage("user.not.found", new Object[]{id}, LocaleContextHolder.getLocale()));
         }
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.get().getEmail()));
     }
 
     /**
@@ -317,6 +323,8 @@ public class UserServiceImpl implements UserService {
                     }
 
                     User savedUser = userRepository.save(user);
+                    // الإيميل ممكن يكون اتغير
+                    eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), email));
                     return userMapper.toUserProfile(savedUser);
                 });
     }
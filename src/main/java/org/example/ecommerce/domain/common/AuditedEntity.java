@@ -0,0 +1,49 @@
+package org.example.ecommerce.domain.common;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Timestamps and lifecycle hooks shared by all entities.
+ * <p>
+ * The id, how it is generated and entity equality are declared by the subclasses:
+ * {@link BaseEntity} (IDENTITY) and {@link PooledEntity} (pooled sequence).
+ * </p>
+ */
+@MappedSuperclass
+@Getter
+@Setter
+public abstract class AuditedEntity {
+
+    @Column(updatable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    protected LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    protected LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        onPrePersist(); // hook method
+    }
+
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+        onPreUpdate(); // hook method
+    }
+
+    protected void onPrePersist() {
+        // يمكن للكلاسات المشتقة تعديل هذه الدالة
+    }
+
+    protected void onPreUpdate() {
+        // يمكن للكلاسات المشتقة تعديل هذه الدالة
+    }
+}
@@ -1,46 +1,16 @@
 package org.example.ecommerce.domain.common;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.time.LocalDateTime;
 import java.util.Objects;
 
 @MappedSuperclass
 @Getter
 @Setter
-public abstract class BaseEntity extends BaseIdEntity{
+public abstract class BaseEntity extends BaseIdEntity {
 
-    @Column(updatable = false)
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
-    protected LocalDateTime createdAt;
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
-    protected LocalDateTime updatedAt;
-
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = createdAt;
-        onPrePersist(); // hook method
-    }
-
-
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-        onPreUpdate(); // hook method
-    }
-
-    protected void onPrePersist() {
-        // يمكن للكلاسات المشتقة تعديل هذه الدالة
-    }
-
-    protected void onPreUpdate() {
-        // يمكن للكلاسات المشتقة تعديل هذه الدالة
-    }
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,13 +4,10 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.time.LocalDateTime;
-import java.util.Objects;
-
 @MappedSuperclass
 @Getter
 @Setter
-public abstract class BaseIdEntity {
+public abstract class BaseIdEntity extends AuditedEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
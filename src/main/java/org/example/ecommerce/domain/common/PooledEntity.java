@@ -0,0 +1,49 @@
+package org.example.ecommerce.domain.common;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Objects;
+
+/**
+ * Entity whose id comes from a pooled sequence instead of IDENTITY.
+ * <p>
+ * Hibernate reserves a block of ids per sequence call ({@code <Entity>_SEQ},
+ * increment 50), so new rows get their id at persist time and the inserts can be
+ * sent as JDBC batches at flush. Used for entities written in bulk (orders, merged cart items).
+ * </p>
+ * <p>
+ * Moving an existing table from {@link BaseEntity} here needs a migration: the
+ * IDENTITY column has to become a plain BIGINT and the sequence has to start above
+ * the current ids. See {@code db/migration/001-identity-to-sequence-procedure.sql}.
+ * </p>
+ */
+@MappedSuperclass
+@Getter
+@Setter
+public abstract class PooledEntity extends AuditedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    protected Long id;
+
+    /**
+     * Pooled entities are built and added to collections before their id is
+     * assigned at persist, so two unsaved instances are never equal and the hash
+     * does not depend on the id.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PooledEntity that = (PooledEntity) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+}
@@ -0,0 +1,10 @@
+package org.example.ecommerce.domain.common.exception;
+
+/**
+ * Thrown when a pagination continuation token cannot be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
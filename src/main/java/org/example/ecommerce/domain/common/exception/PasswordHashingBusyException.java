@@ -0,0 +1,12 @@
+package org.example.ecommerce.domain.common.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated (queue full or the wait
+ * timed out). Mapped to 429 so clients back off instead of piling up.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,8 @@ package org.example.ecommerce.domain.common.repository;
 
 import org.example.ecommerce.domain.common.FailedLoginAttempt;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,4 +36,13 @@ public interface FailedLoginAttemptRepository {
      * @return the saved {@link FailedLoginAttempt} entity
      */
     FailedLoginAttempt saveAndFlush(FailedLoginAttempt failedLoginAttempt);
+
+    /**
+     * Finds the records that were blocked recently enough to still be blocked.
+     *
+     * @param attempts the attempts threshold of a block
+     * @param after    records with a later last attempt are returned
+     * @return the matching records
+     */
+    List<FailedLoginAttempt> findByAttemptsGreaterThanEqualAndLastAttemptTimeAfter(int attempts, LocalDateTime after);
 }
@@ -41,5 +41,10 @@ public class Cart extends BaseEntity {
 
     private String tempId; // معرف مؤقت للمستخدم الغير مسجل
 
+    // optimistic locking: إضافتين في نفس الوقت على نفس السلة ما يضيعوش تحديث بعض
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0") // الصفوف القديمة تبدأ من 0
+    private Long version;
+
 
 }
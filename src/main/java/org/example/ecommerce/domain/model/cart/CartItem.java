@@ -3,12 +3,14 @@ package org.example.ecommerce.domain.model.cart;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.example.ecommerce.domain.common.BaseEntity;
+import org.example.ecommerce.domain.common.PooledEntity;
 import org.example.ecommerce.domain.model.product.Product;
 
 @Entity
@@ -17,7 +19,7 @@ import org.example.ecommerce.domain.model.product.Product;
 @AllArgsConstructor
 @NoArgsConstructor
 
-public class CartItem extends BaseEntity {
+public class CartItem extends PooledEntity {
 
     @ManyToOne
     @JsonIgnore
@@ -35,4 +37,8 @@ public class CartItem extends BaseEntity {
     @ManyToOne
     @JoinColumn(name = "product_id")
     private Product product;
+
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0") // الصفوف القديمة تبدأ من 0
+    private Long version;
 }
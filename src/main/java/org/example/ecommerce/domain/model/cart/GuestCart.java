@@ -0,0 +1,34 @@
+package org.example.ecommerce.domain.model.cart;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cart of an anonymous visitor (TEMP_CART_ID cookie), kept outside the database.
+ * Only product ids and quantities are stored; prices are read from the products
+ * when the cart is shown, merged into a user's cart or checked out.
+ *
+ * @param tempId the cookie value
+ * @param items  quantity per product id, in insertion order
+ */
+public record GuestCart(String tempId, Map<Long, Integer> items) {
+
+    public GuestCart {
+        items = Collections.unmodifiableMap(new LinkedHashMap<>(items));
+    }
+
+    public static GuestCart empty(String tempId) {
+        return new GuestCart(tempId, Map.of());
+    }
+
+    public int quantityOf(Long productId) {
+        return items.getOrDefault(productId, 0);
+    }
+
+    public GuestCart withAdded(Long productId, int quantity) {
+        Map<Long, Integer> updated = new LinkedHashMap<>(items);
+        updated.merge(productId, quantity, Integer::sum);
+        return new GuestCart(tempId, updated);
+    }
+}
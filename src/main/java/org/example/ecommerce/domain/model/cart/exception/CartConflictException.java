@@ -0,0 +1,7 @@
+package org.example.ecommerce.domain.model.cart.exception;
+
+public class CartConflictException extends RuntimeException {
+    public CartConflictException(String message) {
+        super(message);
+    }
+}
@@ -4,13 +4,18 @@ import org.example.ecommerce.domain.model.cart.Cart;
 import org.example.ecommerce.domain.model.cart.CartItem;
 import org.example.ecommerce.domain.model.product.Product;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CartItemRepository {
 
     Optional<CartItem> findByCartAndProduct(Cart cart, Product product);
+    Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+    List<CartItem> findByCartIdIn(Collection<Long> cartIds);
     Optional<CartItem> findCartItemById(Long id);
     void deleteCartItemById(Long id);
     CartItem save(CartItem cartItem);
+    <S extends CartItem> Iterable<S> saveAll(Iterable<S> cartItems);
 
 }
@@ -18,6 +18,7 @@ import java.util.List;
  * Supports hierarchical structure with parent and child categories.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_category_path", columnList = "path"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -76,11 +77,30 @@ public class Category extends BaseEntity {
     @NotNull
     private Integer level;
 
+    /**
+     * Materialized path of ids from the root down to this category, e.g. {@code /1/5/12/}.
+     * A subtree is every category whose path starts with this one, so subtree reads
+     * and deletes are a single indexed prefix match.
+     */
+    @Column(length = 512)
+    private String path;
+
     /**
      * URL of the category image/icon.
      */
     private String imageUrl;
 
+    /**
+     * Computes the materialized path from the parent's path and this category's id.
+     * Requires the id to be assigned.
+     *
+     * @return the path this category should have
+     */
+    public String buildPath() {
+        String parentPath = parentCategory != null ? parentCategory.getPath() : null;
+        return (parentPath != null ? parentPath : "/") + getId() + "/";
+    }
+
     /**
      * Adds a child category to this category.
      *
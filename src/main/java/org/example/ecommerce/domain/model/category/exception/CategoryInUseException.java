@@ -0,0 +1,16 @@
+package org.example.ecommerce.domain.model.category.exception;
+
+/**
+ * Exception thrown when deleting a category whose subtree still has products.
+ */
+public class CategoryInUseException extends RuntimeException {
+
+    /**
+     * Constructs a new CategoryInUseException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public CategoryInUseException(String message) {
+        super(message);
+    }
+}
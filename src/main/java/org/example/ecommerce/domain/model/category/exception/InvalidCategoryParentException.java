@@ -0,0 +1,16 @@
+package org.example.ecommerce.domain.model.category.exception;
+
+/**
+ * Exception thrown when a category would be moved under itself or one of its descendants.
+ */
+public class InvalidCategoryParentException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidCategoryParentException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidCategoryParentException(String message) {
+        super(message);
+    }
+}
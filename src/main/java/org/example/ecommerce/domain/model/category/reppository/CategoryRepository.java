@@ -80,4 +80,38 @@ public interface CategoryRepository {
      * @param entities the iterable collection of categories to delete
      */
     void deleteAll(Iterable<? extends Category> entities);
+
+    /**
+     * Rewrites the path prefix of every category under {@code oldPrefix},
+     * used when a category is moved to a new parent.
+     *
+     * @param oldPrefix the moved category's previous path
+     * @param newPrefix the moved category's new path
+     * @return number of updated categories
+     */
+    int replacePathPrefix(String oldPrefix, String newPrefix);
+
+    /**
+     * Deletes a category and all of its descendants in one statement.
+     *
+     * @param path the path of the subtree root
+     * @return number of deleted categories
+     */
+    int deleteSubtree(String path);
+
+    /**
+     * Counts the products in a category and all of its descendants.
+     *
+     * @param path the path of the subtree root
+     * @return number of products in the subtree
+     */
+    long countProductsInSubtree(String path);
+
+    /**
+     * Counts the products in the given categories, used for categories without a path.
+     *
+     * @param categories the categories to check
+     * @return number of products in those categories
+     */
+    long countProductsIn(List<Category> categories);
 }
@@ -0,0 +1,10 @@
+package org.example.ecommerce.domain.model.inventory;
+
+public enum ReservationStatus {
+    /** Stock taken from the product, order not paid yet. */
+    ACTIVE,
+    /** Order paid, the stock is sold. */
+    CONFIRMED,
+    /** Order cancelled or payment timed out, the stock went back to the product. */
+    RELEASED
+}
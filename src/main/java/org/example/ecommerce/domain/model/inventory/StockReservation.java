@@ -0,0 +1,51 @@
+package org.example.ecommerce.domain.model.inventory;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.ecommerce.domain.common.PooledEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quantity of one product held for one order.
+ * <p>
+ * The stock is already decremented on {@code product.quantity} when the row is
+ * created; releasing the reservation puts it back. Active reservations that pass
+ * {@code expiresAt} without payment are released by the inventory sweeper.
+ * </p>
+ */
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_order", columnList = "order_id"),
+        @Index(name = "idx_stock_reservation_status_expires", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockReservation extends PooledEntity {
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public StockReservation(Long orderId, Long productId, Integer quantity, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.ecommerce.domain.model.inventory.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.ecommerce.domain.model.inventory.repository;
+
+/**
+ * Atomic updates of {@code product.quantity} that never read-modify-write in Java.
+ */
+public interface StockRepository {
+
+    /**
+     * Takes {@code quantity} units if at least that many are in stock.
+     *
+     * @return {@code true} if the stock was decremented, {@code false} if not enough was left
+     */
+    boolean tryDecrement(Long productId, int quantity);
+
+    /**
+     * Puts {@code quantity} units back.
+     */
+    void increment(Long productId, int quantity);
+}
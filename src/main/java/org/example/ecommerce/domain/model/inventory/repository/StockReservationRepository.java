@@ -0,0 +1,24 @@
+package org.example.ecommerce.domain.model.inventory.repository;
+
+import org.example.ecommerce.domain.model.inventory.ReservationStatus;
+import org.example.ecommerce.domain.model.inventory.StockReservation;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository {
+    <S extends StockReservation> List<S> saveAll(Iterable<S> reservations);
+
+    List<StockReservation> findByOrderIdAndStatus(Long orderId, ReservationStatus status);
+
+    // الحجوزات اللي وقتها خلص من غير دفع
+    List<Long> findExpiredOrderIds(LocalDateTime now, Limit limit);
+
+    // بيغير الحالة بس لو لسه على status، عشان الإرجاع ما يحصلش مرتين
+    int release(Long id, ReservationStatus status);
+    int confirmByOrderIds(Collection<Long> orderIds);
+
+    List<Long> findOrderIdsByStatus(Collection<Long> orderIds, ReservationStatus status);
+}
@@ -0,0 +1,63 @@
+package org.example.ecommerce.domain.model.mail;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.ecommerce.domain.common.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outgoing email waiting in the mail queue.
+ * <p>
+ * Listeners only insert rows here (inside the caller's transaction); the mail
+ * dispatcher claims due rows, sends them and records the outcome.
+ * </p>
+ */
+@Entity
+@Table(name = "mail_queue", indexes = {
+        @Index(name = "idx_mail_queue_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_mail_queue_claim_token", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailMessage extends BaseEntity {
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(500)")
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MailStatus status = MailStatus.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Identifies the dispatcher run that claimed this row.
+     */
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime sentAt;
+
+    public MailMessage(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
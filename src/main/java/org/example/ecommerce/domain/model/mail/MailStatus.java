@@ -0,0 +1,16 @@
+package org.example.ecommerce.domain.model.mail;
+
+public enum MailStatus {
+
+    /** Waiting to be sent (first attempt or scheduled retry). */
+    PENDING,
+
+    /** Claimed by a dispatcher run and being sent. */
+    SENDING,
+
+    /** Delivered to the SMTP server. */
+    SENT,
+
+    /** Gave up after the maximum number of attempts. */
+    DEAD
+}
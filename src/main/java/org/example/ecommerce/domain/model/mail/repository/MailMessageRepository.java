@@ -0,0 +1,25 @@
+package org.example.ecommerce.domain.model.mail.repository;
+
+import org.example.ecommerce.domain.model.mail.MailMessage;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailMessageRepository {
+    MailMessage save(MailMessage message);
+    <S extends MailMessage> List<S> saveAll(Iterable<S> messages);
+
+    // الرسائل المستحقة للإرسال (PENDING ووقتها جه)
+    List<Long> findDueIds(LocalDateTime now, Limit limit);
+
+    // بيعلم الرسائل بالـ token، والرسائل اللي اتاخدت من instance تانية ما بتتعدش
+    int claim(List<Long> ids, String claimToken, LocalDateTime now);
+    List<MailMessage> findByClaimToken(String claimToken);
+
+    // رسائل فضلت SENDING (الـ instance وقعت) بترجع PENDING
+    int releaseStale(LocalDateTime cutoff);
+
+    // رسائل الـ dispatch ده اللي الإرسال بتاعها خلص وقته، بترجع PENDING من غير ما تتحسب محاولة
+    int release(List<Long> ids, String claimToken, LocalDateTime nextAttemptAt);
+}
@@ -5,7 +5,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import lombok.*;
 import org.example.ecommerce.domain.common.Address;
-import org.example.ecommerce.domain.common.BaseEntity;
+import org.example.ecommerce.domain.common.PooledEntity;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.payment.PaymentDetails;
 import org.hibernate.annotations.GenericGenerator;
@@ -29,10 +29,13 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = true)
 
-@Table(name = "orders")
-public class Order extends BaseEntity {
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_seller_created", columnList = "seller_id, created_at")
+})
+public class Order extends PooledEntity {
 
 
 
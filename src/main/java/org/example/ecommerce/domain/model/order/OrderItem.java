@@ -7,7 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.example.ecommerce.domain.common.BaseEntity;
+import org.example.ecommerce.domain.common.PooledEntity;
 import org.example.ecommerce.domain.model.product.Product;
 
 
@@ -17,7 +17,7 @@ import org.example.ecommerce.domain.model.product.Product;
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = true)
 
-public class OrderItem extends BaseEntity {
+public class OrderItem extends PooledEntity {
 
     /**
      * Reference to the parent order this item belongs to.
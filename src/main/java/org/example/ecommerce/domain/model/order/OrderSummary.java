@@ -0,0 +1,26 @@
+package org.example.ecommerce.domain.model.order;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the order history lists: order columns only, no items, address or user.
+ * The full order (with items) is loaded separately for the detail view.
+ */
+public record OrderSummary(
+        Long id,
+        String orderId,
+        Long userId,
+        Long sellerId,
+        Long totalSellingPrice,
+        Integer totalItems,
+        OrderStatus orderStatus,
+        PaymentStatus paymentStatus,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime createdAt,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime deliverDate
+) {
+}
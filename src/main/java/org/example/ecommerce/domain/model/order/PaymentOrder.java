@@ -69,4 +69,11 @@ public class PaymentOrder {
      */
     @OneToMany
     private Set<Order> orders = new HashSet<>();
+
+    /**
+     * Optimistic lock version; every status transition increments it.
+     */
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
 }
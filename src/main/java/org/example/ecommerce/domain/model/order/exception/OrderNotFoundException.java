@@ -0,0 +1,7 @@
+package org.example.ecommerce.domain.model.order.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+}
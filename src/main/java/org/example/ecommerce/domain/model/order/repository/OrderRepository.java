@@ -1,15 +1,125 @@
 package org.example.ecommerce.domain.model.order.repository;
 
 import org.example.ecommerce.domain.model.order.Order;
+import org.example.ecommerce.domain.model.order.OrderSummary;
+import org.example.ecommerce.domain.model.seller_report.OrderSalesRow;
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByUserId(Long userId);
-    List<Order> findBySellerId(Long sellerId);
+    // أعمدة الطلب بس: من غير items / address / user
+    String SUMMARY_SELECT = """
+            SELECT new org.example.ecommerce.domain.model.order.OrderSummary(
+                o.id, o.orderId, o.user.id, o.sellerId, o.totalSellingPrice, o.totalItems,
+                o.orderStatus, o.paymentDetails.paymentStatus, o.createdAt, o.deliverDate)
+            FROM Order o
+            """;
 
+    // keyset على (user_id, created_at) / (seller_id, created_at)
+    @Query(SUMMARY_SELECT + """
+            WHERE o.user.id = :userId
+              AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummary> findUserHistoryAfter(@Param("userId") Long userId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    @Query(SUMMARY_SELECT + """
+            WHERE o.sellerId = :sellerId
+              AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummary> findSellerHistoryAfter(@Param("sellerId") Long sellerId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    // صفحة تفاصيل الطلب: الـ items والمنتجات والعنوان في query واحد
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "shippingAddress"})
+    Optional<Order> findDetailedById(Long id);
+
+
+    // كل طلبات الـ PaymentOrder في UPDATE واحد بدل ما نحمّلهم
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Order o
+            SET o.paymentDetails.paymentStatus = :status,
+                o.paymentDetails.paymentId = :paymentId,
+                o.paymentDetails.createdAt = :paidAt
+            WHERE o.id IN :ids
+            """)
+    int updatePaymentDetails(@Param("ids") Collection<Long> ids,
+                             @Param("status") PaymentStatus status,
+                             @Param("paymentId") String paymentId,
+                             @Param("paidAt") Instant paidAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.paymentDetails.refundRequired = true WHERE o.id IN :ids")
+    int flagRefundRequired(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + " WHERE o.id IN :ids")
+    List<OrderSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // عدادات SellerReport محسوبة من الطلبات، صف لكل بائع؛ لازم تتقري جوه transaction
+    @Query("""
+            SELECT new org.example.ecommerce.domain.model.seller_report.SellerReportCounters(
+                o.sellerId,
+                COUNT(o),
+                SUM(CASE WHEN o.orderStatus = org.example.ecommerce.domain.model.order.OrderStatus.CANCELLED THEN 1L ELSE 0L END),
+                SUM(CASE WHEN o.paymentDetails.paymentStatus = org.example.ecommerce.domain.payment.PaymentStatus.COMPLETED
+                         THEN 1L ELSE 0L END),
+                SUM(CASE WHEN o.paymentDetails.paymentStatus = org.example.ecommerce.domain.payment.PaymentStatus.COMPLETED
+                         THEN COALESCE(o.totalSellingPrice, 0L) ELSE 0L END),
+                SUM(CASE WHEN o.paymentDetails.paymentStatus = org.example.ecommerce.domain.payment.PaymentStatus.COMPLETED
+                         THEN COALESCE(o.totalSellingPrice, 0L) ELSE 0L END),
+                SUM(CASE WHEN o.paymentDetails.paymentStatus = org.example.ecommerce.domain.payment.PaymentStatus.COMPLETED
+                          AND o.orderStatus = org.example.ecommerce.domain.model.order.OrderStatus.CANCELLED
+                         THEN COALESCE(o.totalSellingPrice, 0L) ELSE 0L END),
+                SUM(CASE WHEN o.paymentDetails.paymentStatus = org.example.ecommerce.domain.payment.PaymentStatus.COMPLETED
+                         THEN COALESCE(o.totalSellingPrice, 0L) ELSE 0L END)
+                - SUM(CASE WHEN o.paymentDetails.paymentStatus = org.example.ecommerce.domain.payment.PaymentStatus.COMPLETED
+                          AND o.orderStatus = org.example.ecommerce.domain.model.order.OrderStatus.CANCELLED
+                         THEN COALESCE(o.totalSellingPrice, 0L) ELSE 0L END))
+            FROM Order o
+            WHERE o.sellerId IS NOT NULL
+            GROUP BY o.sellerId
+            ORDER BY o.sellerId
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<SellerReportCounters> streamSellerReportCounters();
+
+    @Query("SELECT DISTINCT o.sellerId FROM Order o WHERE o.sellerId IS NOT NULL")
+    List<Long> findSellerIds();
+
+    // الـ backfill بتاع الـ rollups: طلبات بائع واحد في chunks بالـ id من غير offset
+    @Query("""
+            SELECT new org.example.ecommerce.domain.model.seller_report.OrderSalesRow(
+                o.id, o.sellerId, o.totalSellingPrice, o.orderStatus, o.paymentDetails.paymentStatus,
+                o.createdAt, o.updatedAt, o.paymentDetails.createdAt)
+            FROM Order o
+            WHERE o.sellerId = :sellerId AND o.id > :afterId
+            ORDER BY o.id
+            """)
+    List<OrderSalesRow> findSalesRowsBySellerAfter(@Param("sellerId") Long sellerId, @Param("afterId") Long afterId, Limit limit);
 }
@@ -0,0 +1,59 @@
+package org.example.ecommerce.domain.model.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.ecommerce.domain.common.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event recorded in the same transaction as the change that raised it.
+ * <p>
+ * The payload is a JSON snapshot (not the entities), so the relay can publish it
+ * after commit even if the rows it describes were changed or deleted meanwhile.
+ * </p>
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbox_event_claim_token", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent extends BaseEntity {
+
+    /**
+     * Simple class name of the payload, resolved by the relay.
+     */
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime publishedAt;
+
+    public OutboxEvent(String eventType, String payload) {
+        this.eventType = eventType;
+        this.payload = payload;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.ecommerce.domain.model.outbox;
+
+public enum OutboxStatus {
+    PENDING,
+    PUBLISHING,
+    PUBLISHED,
+    DEAD
+}
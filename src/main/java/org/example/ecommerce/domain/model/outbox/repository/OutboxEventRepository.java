@@ -0,0 +1,21 @@
+package org.example.ecommerce.domain.model.outbox.repository;
+
+import org.example.ecommerce.domain.model.outbox.OutboxEvent;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository {
+    OutboxEvent save(OutboxEvent event);
+    <S extends OutboxEvent> List<S> saveAll(Iterable<S> events);
+
+    // الأحداث المستحقة بترتيب الإدخال
+    List<Long> findDueIds(LocalDateTime now, Limit limit);
+
+    int claim(List<Long> ids, String claimToken, LocalDateTime now);
+    List<OutboxEvent> findByClaimTokenOrderById(String claimToken);
+
+    // أحداث فضلت PUBLISHING (الـ instance وقعت) بترجع PENDING
+    int releaseStale(LocalDateTime cutoff);
+}
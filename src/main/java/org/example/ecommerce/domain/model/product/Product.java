@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.example.ecommerce.domain.common.BaseEntity;
 import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.seller.Seller;
@@ -22,6 +23,15 @@ import java.util.List;
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper=true)
 @Entity
+// UPDATE بالأعمدة اللي اتغيرت بس، عشان حفظ المنتج ما يمسحش خصم المخزون أو العدادات اللي اتعملت بالـ SQL
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_product_verified_category_created", columnList = "is_verified, category_id, created_at"),
+        @Index(name = "idx_product_verified_seller_created", columnList = "is_verified, seller_id, created_at"),
+        @Index(name = "idx_product_verified_created", columnList = "is_verified, created_at"),
+        @Index(name = "idx_product_verified_views", columnList = "is_verified, views_counter"),
+        @Index(name = "idx_product_verified_search", columnList = "is_verified, search_counter")
+})
 public class Product extends BaseEntity {
     @Column(nullable = false,columnDefinition= "NVARCHAR(100)")
     private String title;
@@ -36,8 +46,10 @@ public class Product extends BaseEntity {
     @Max(100)
     private Integer discountPercentage;
 
+    // NULL ما ينفعش: الحجز بيخصم بـ quantity >= ? (db/migration/004)
     @Min(0)
-    private Integer quantity;
+    @Column(columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer quantity = 0;
 
     private String color;
 
@@ -50,8 +62,11 @@ public class Product extends BaseEntity {
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
 
+    // NULL بيختفي من الـ scroll بالعدادات: الـ seek بيقارن بـ < (db/migration/005)
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
     private Long viewsCounter = 0L;
 
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
     private Long searchCounter = 0L; // صححت الاسم
 
     @Enumerated(EnumType.STRING)
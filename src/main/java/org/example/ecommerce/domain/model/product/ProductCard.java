@@ -0,0 +1,26 @@
+package org.example.ecommerce.domain.model.product;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a product as shown in listing pages.
+ * <p>
+ * Selected directly by JPQL constructor expressions so listings never hydrate
+ * {@link Product} together with its category, seller, images and reviews.
+ * {@code createdAt}, {@code viewsCounter} and {@code searchCounter} are the sort
+ * keys used by keyset pagination.
+ * </p>
+ */
+public record ProductCard(
+        Long id,
+        String title,
+        Long sellingPrice,
+        Long maximumRetailPrice,
+        Integer discountPercentage,
+        String image,
+        Long categoryId,
+        LocalDateTime createdAt,
+        Long viewsCounter,
+        Long searchCounter
+) {
+}
@@ -0,0 +1,16 @@
+package org.example.ecommerce.domain.model.product;
+
+/**
+ * Pending increments of the popularity counters of a single product.
+ * Produced by the in-memory counter buffer and applied to the database in batches.
+ *
+ * @param productId the product id
+ * @param views     number of views to add to {@code views_counter}
+ * @param searches  number of hits to add to {@code search_counter}
+ */
+public record ProductCounterDelta(
+        Long productId,
+        long views,
+        long searches
+) {
+}
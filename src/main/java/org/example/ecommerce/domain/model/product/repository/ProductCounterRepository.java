@@ -0,0 +1,21 @@
+package org.example.ecommerce.domain.model.product.repository;
+
+import org.example.ecommerce.domain.model.product.ProductCounterDelta;
+
+import java.util.List;
+
+/**
+ * Repository for applying popularity counter increments to products
+ * without loading the product entities.
+ */
+public interface ProductCounterRepository {
+
+    /**
+     * Adds the given deltas to {@code views_counter} / {@code search_counter}
+     * using relative updates, grouped into JDBC batches.
+     *
+     * @param deltas    the increments to apply
+     * @param batchSize maximum number of statements per JDBC batch
+     */
+    void incrementCounters(List<ProductCounterDelta> deltas, int batchSize);
+}
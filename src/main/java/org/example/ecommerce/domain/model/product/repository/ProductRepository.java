@@ -1,21 +1,36 @@
 package org.example.ecommerce.domain.model.product.repository;
 
 import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.ProductCard;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository {
     Product save(Product product);
     Optional<Product> findById(Long id);
+    List<Product> findAllById(Iterable<Long> ids);
     Page<Product> findAll(Pageable pageable);
-    Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
-    Page<Product> findBySellerId(Long sellerId, Pageable pageable);
-
-    Page<Product> findAllByOrderByViewsCounterDesc(Pageable pageable);
-    Page<Product> findAllByOrderBySearchCounterDesc(Pageable pageable);
     void deleteById(Long id);
 
     Page<Product> findByIsVerified(Boolean isVerified, Pageable pageable);
+
+    // الاستعلامات العامة بترجع كروت المنتجات الموثقة فقط
+    Page<ProductCard> findVerifiedCards(Pageable pageable);
+    Page<ProductCard> findVerifiedCardsByCategory(Long categoryId, Pageable pageable);
+    Page<ProductCard> findVerifiedCardsByCategoryPath(String path, Pageable pageable);
+    Page<ProductCard> findVerifiedCardsBySeller(Long sellerId, Pageable pageable);
+    Page<ProductCard> findVerifiedCardsOrderByViewsCounter(Pageable pageable);
+    Page<ProductCard> findVerifiedCardsOrderBySearchCounter(Pageable pageable);
+
+    // keyset pagination: الصفوف اللي بعد (sortKey, id) من غير count query
+    List<ProductCard> findVerifiedNewestAfter(LocalDateTime createdAt, Long id, Limit limit);
+    List<ProductCard> findVerifiedByCategoryNewestAfter(Long categoryId, LocalDateTime createdAt, Long id, Limit limit);
+    List<ProductCard> findVerifiedBySellerNewestAfter(Long sellerId, LocalDateTime createdAt, Long id, Limit limit);
+    List<ProductCard> findVerifiedMostViewedAfter(Long viewsCounter, Long id, Limit limit);
+    List<ProductCard> findVerifiedMostSearchedAfter(Long searchCounter, Long id, Limit limit);
 }
@@ -0,0 +1,23 @@
+package org.example.ecommerce.domain.model.seller_report;
+
+import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Order columns the rollup backfill needs, read in id order.
+ *
+ * @param paidAt time the payment was recorded, if any
+ */
+public record OrderSalesRow(
+        Long id,
+        Long sellerId,
+        Long totalSellingPrice,
+        OrderStatus orderStatus,
+        PaymentStatus paymentStatus,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Instant paidAt) {
+}
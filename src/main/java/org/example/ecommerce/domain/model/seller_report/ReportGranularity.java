@@ -0,0 +1,43 @@
+package org.example.ecommerce.domain.model.seller_report;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size of the seller sales report. Only {@link #HOUR} and {@link #DAY}
+ * rollups are stored; weeks and months are summed from the daily rows.
+ */
+public enum ReportGranularity {
+
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * The stored rollup this granularity is read from.
+     */
+    public ReportGranularity stored() {
+        return this == HOUR ? HOUR : DAY;
+    }
+
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime next(LocalDateTime bucket) {
+        return switch (this) {
+            case HOUR -> bucket.plusHours(1);
+            case DAY -> bucket.plusDays(1);
+            case WEEK -> bucket.plusWeeks(1);
+            case MONTH -> bucket.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.ecommerce.domain.model.seller_report;
+
+/**
+ * The additive counters of a {@link SellerReport} for one seller, used both as
+ * a delta (applied with {@code col = col + ?}) and as absolute totals
+ * (recomputed from orders by the reconciliation).
+ */
+public record SellerReportCounters(
+        Long sellerId,
+        long totalOrders,
+        long canceledOrders,
+        long totalTransactions,
+        long totalSales,
+        long totalEarnings,
+        long totalRefunds,
+        long netEarnings) {
+
+    public static SellerReportCounters zero(Long sellerId) {
+        return new SellerReportCounters(sellerId, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public SellerReportCounters minus(SellerReportCounters other) {
+        return new SellerReportCounters(sellerId,
+                totalOrders - other.totalOrders,
+                canceledOrders - other.canceledOrders,
+                totalTransactions - other.totalTransactions,
+                totalSales - other.totalSales,
+                totalEarnings - other.totalEarnings,
+                totalRefunds - other.totalRefunds,
+                netEarnings - other.netEarnings);
+    }
+
+    public boolean isZero() {
+        return totalOrders == 0 && canceledOrders == 0 && totalTransactions == 0
+                && totalSales == 0 && totalEarnings == 0 && totalRefunds == 0 && netEarnings == 0;
+    }
+}
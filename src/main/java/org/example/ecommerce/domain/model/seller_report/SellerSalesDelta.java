@@ -0,0 +1,40 @@
+package org.example.ecommerce.domain.model.seller_report;
+
+import java.time.LocalDateTime;
+
+/**
+ * Increment for one {@link SellerSalesRollup} row.
+ */
+public record SellerSalesDelta(
+        Long sellerId,
+        ReportGranularity granularity,
+        LocalDateTime bucketStart,
+        long ordersPlaced,
+        long ordersCancelled,
+        long ordersPaid,
+        long revenue,
+        long refunds) {
+
+    public SellerSalesDelta plus(SellerSalesDelta other) {
+        return new SellerSalesDelta(sellerId, granularity, bucketStart,
+                ordersPlaced + other.ordersPlaced,
+                ordersCancelled + other.ordersCancelled,
+                ordersPaid + other.ordersPaid,
+                revenue + other.revenue,
+                refunds + other.refunds);
+    }
+
+    /**
+     * Same counters in another bucket.
+     */
+    public SellerSalesDelta in(ReportGranularity granularity, LocalDateTime bucketStart) {
+        return new SellerSalesDelta(sellerId, granularity, bucketStart,
+                ordersPlaced, ordersCancelled, ordersPaid, revenue, refunds);
+    }
+
+    public Key key() {
+        return new Key(sellerId, granularity, bucketStart);
+    }
+
+    public record Key(Long sellerId, ReportGranularity granularity, LocalDateTime bucketStart) {}
+}
@@ -0,0 +1,31 @@
+package org.example.ecommerce.domain.model.seller_report;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of the seller sales report.
+ */
+public record SellerSalesPoint(
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime bucketStart,
+        long ordersPlaced,
+        long ordersCancelled,
+        long ordersPaid,
+        long revenue,
+        long refunds) {
+
+    public static SellerSalesPoint empty(LocalDateTime bucketStart) {
+        return new SellerSalesPoint(bucketStart, 0, 0, 0, 0, 0);
+    }
+
+    public SellerSalesPoint plus(SellerSalesPoint other) {
+        return new SellerSalesPoint(bucketStart,
+                ordersPlaced + other.ordersPlaced,
+                ordersCancelled + other.ordersCancelled,
+                ordersPaid + other.ordersPaid,
+                revenue + other.revenue,
+                refunds + other.refunds);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.ecommerce.domain.model.seller_report;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.ecommerce.domain.common.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sales figures of one seller for one hour or one day.
+ * <p>
+ * Rows are keyed by {@code (seller_id, granularity, bucket_start)} and only ever
+ * incremented, from the order changes that happened inside the bucket, so range
+ * reports read a handful of rows instead of scanning {@code orders}.
+ * </p>
+ */
+@Entity
+@Table(name = "seller_sales_rollup", indexes = {
+        @Index(name = "ux_seller_sales_rollup_bucket", columnList = "seller_id, granularity, bucket_start", unique = true),
+        @Index(name = "idx_seller_sales_rollup_bucket_start", columnList = "bucket_start")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class SellerSalesRollup extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long sellerId;
+
+    /**
+     * {@code HOUR} or {@code DAY}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private ReportGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    private long ordersPlaced;
+
+    private long ordersCancelled;
+
+    private long ordersPaid;
+
+    /**
+     * Amount of the orders paid in the bucket.
+     */
+    private long revenue;
+
+    /**
+     * Amount of paid orders cancelled in the bucket.
+     */
+    private long refunds;
+}
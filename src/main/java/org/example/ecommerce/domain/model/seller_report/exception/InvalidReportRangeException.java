@@ -0,0 +1,7 @@
+package org.example.ecommerce.domain.model.seller_report.exception;
+
+public class InvalidReportRangeException extends RuntimeException {
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
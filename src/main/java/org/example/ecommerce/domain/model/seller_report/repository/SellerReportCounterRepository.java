@@ -0,0 +1,15 @@
+package org.example.ecommerce.domain.model.seller_report.repository;
+
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+
+import java.util.Collection;
+
+/**
+ * Applies counter deltas to the {@code seller_report} rows in place, without
+ * loading the entities, creating missing rows. Not atomic on its own: callers
+ * run it in a transaction so a failed batch can be retried as a whole.
+ */
+public interface SellerReportCounterRepository {
+
+    void applyDeltas(Collection<SellerReportCounters> deltas);
+}
@@ -0,0 +1,16 @@
+package org.example.ecommerce.domain.model.seller_report.repository;
+
+import org.example.ecommerce.domain.model.seller_report.SellerReport;
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SellerReportRepository {
+
+    Optional<SellerReport> findBySellerId(Long sellerId);
+    SellerReport save(SellerReport sellerReport);
+
+    // العدادات المحفوظة لكل البائعين (صف واحد لكل بائع)
+    List<SellerReportCounters> findAllCounters();
+}
@@ -0,0 +1,13 @@
+package org.example.ecommerce.domain.model.seller_report.repository;
+
+import org.example.ecommerce.domain.model.seller_report.SellerSalesDelta;
+
+import java.util.Collection;
+
+/**
+ * Adds deltas to the {@code seller_sales_rollup} rows in place, creating missing rows.
+ */
+public interface SellerSalesDeltaRepository {
+
+    void applyDeltas(Collection<SellerSalesDelta> deltas);
+}
@@ -0,0 +1,18 @@
+package org.example.ecommerce.domain.model.seller_report.repository;
+
+import org.example.ecommerce.domain.model.seller_report.ReportGranularity;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesPoint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SellerSalesRollupRepository {
+
+    // buckets في [from, to)
+    List<SellerSalesPoint> findPoints(Long sellerId, ReportGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    List<Long> findSellerIds();
+
+    // قبل ما بائع يتحسب من جديد في الـ backfill، في نفس الـ transaction
+    int deleteBucketsBefore(Long sellerId, LocalDateTime cutoff);
+}
@@ -10,10 +10,14 @@ import java.util.Optional;
 public interface UserRepository {
     User save(User user);
     Optional<User> findById(Long id);
+    User getReferenceById(Long id);
     Optional<User> findByEmail(String email);
     void deleteById(Long id);
     Optional<User> findByPhoneNumber(String phone);
     Boolean existsByPhoneNumber(String phoneNumber);
 
     Page<User> findAll(Pageable pageable);
+
+    // بيغيّر الـ hash بس لو محدش غيّر الباسورد في النص
+    int updatePasswordIfUnchanged(Long id, String currentPassword, String newPassword);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.example.ecommerce.domain.payment;
+
+public class InvalidPaymentCallbackException extends RuntimeException {
+    public InvalidPaymentCallbackException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.ecommerce.domain.payment;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.ecommerce.domain.common.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment gateway callback as it was received.
+ * <p>
+ * {@code eventId} is the gateway's idempotency key and is unique, so a callback
+ * delivered twice is stored once. Rows are processed in the background, where the
+ * payment order is locked and only moved forward.
+ * </p>
+ */
+@Entity
+@Table(name = "payment_callback", indexes = {
+        @Index(name = "ux_payment_callback_event_id", columnList = "event_id", unique = true),
+        @Index(name = "idx_payment_callback_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_payment_callback_claim_token", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PaymentCallback extends BaseEntity {
+
+    @Column(nullable = false, length = 100)
+    private String eventId;
+
+    @Column(nullable = false, length = 100)
+    private String paymentLinkId;
+
+    @Column(length = 100)
+    private String paymentId;
+
+    /**
+     * Result reported by the gateway ({@code COMPLETED} or {@code FAILED}).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentStatus result;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentCallbackStatus status = PaymentCallbackStatus.RECEIVED;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime processedAt;
+
+    public PaymentCallback(String eventId, String paymentLinkId, String paymentId, PaymentStatus result) {
+        this.eventId = eventId;
+        this.paymentLinkId = paymentLinkId;
+        this.paymentId = paymentId;
+        this.result = result;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.ecommerce.domain.payment;
+
+/**
+ * Processing state of a stored gateway callback.
+ */
+public enum PaymentCallbackStatus {
+
+    /** Stored, waiting for the processor (or for its retry time). */
+    RECEIVED,
+
+    /** Claimed by a processor run. */
+    PROCESSING,
+
+    /** The payment order moved to the reported status. */
+    APPLIED,
+
+    /** Duplicate or out-of-order result that the payment order already moved past. */
+    IGNORED,
+
+    /** Gave up after the maximum number of attempts. */
+    DEAD
+}
@@ -59,4 +59,10 @@ public class PaymentDetails {
      * Timestamp of the payment creation.
      */
     private Instant createdAt;
+
+    /**
+     * Set when the payment arrived after the order was cancelled and its stock
+     * released; the order stays cancelled and the amount must be refunded.
+     */
+    private Boolean refundRequired;
 }
@@ -0,0 +1,25 @@
+package org.example.ecommerce.domain.payment.repository;
+
+import org.example.ecommerce.domain.payment.PaymentCallback;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PaymentCallbackRepository {
+
+    // بيرمي DataIntegrityViolationException لو الـ eventId اتسجل قبل كده
+    PaymentCallback saveAndFlush(PaymentCallback callback);
+    <S extends PaymentCallback> List<S> saveAll(Iterable<S> callbacks);
+
+    boolean existsByEventId(String eventId);
+
+    // الـ callbacks المستحقة بترتيب الاستلام
+    List<Long> findDueIds(LocalDateTime now, Limit limit);
+
+    int claim(List<Long> ids, String claimToken, LocalDateTime now);
+    List<PaymentCallback> findByClaimTokenOrderById(String claimToken);
+
+    // callbacks فضلت PROCESSING (الـ instance وقعت) بترجع RECEIVED
+    int releaseStale(LocalDateTime cutoff);
+}
@@ -0,0 +1,34 @@
+package org.example.ecommerce.infrastructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.cart.CartStore;
+import org.example.ecommerce.application.service.cart.impl.InMemoryCartStore;
+import org.example.ecommerce.application.service.cart.impl.RedisCartStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Picks the guest {@link CartStore} from {@code cart.guest.store}; an unknown value
+ * fails startup with a clear message instead of a missing bean.
+ */
+@Configuration
+@Slf4j
+public class CartStoreConfig {
+
+    @Bean
+    public CartStore cartStore(@Value("${cart.guest.store:memory}") String store,
+                               @Value("${cart.guest.ttl-hours:168}") long ttlHours,
+                               @Value("${cart.guest.max-size:100000}") int maxSize,
+                               ObjectProvider<StringRedisTemplate> redisTemplate) {
+        log.info("Guest carts stored in: {}", store);
+        return switch (store.trim().toLowerCase()) {
+            case "memory" -> new InMemoryCartStore(ttlHours, maxSize);
+            case "redis" -> new RedisCartStore(redisTemplate.getObject(), ttlHours);
+            default -> throw new IllegalStateException(
+                    "Unknown cart.guest.store '" + store + "', expected 'memory' or 'redis'");
+        };
+    }
+}
@@ -1,13 +1,15 @@
 package org.example.ecommerce.infrastructure.config;
 
 import lombok.RequiredArgsConstructor;
-import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.example.ecommerce.application.service.user.PrincipalCache;
 import org.example.ecommerce.infrastructure.exception.CustomAccessDeniedHandler;
 import org.example.ecommerce.infrastructure.exception.CustomBasicAuthenticationEntryPoint;
 import org.example.ecommerce.infrastructure.filter.AuthoritiesLoggingAfterFilter;
 import org.example.ecommerce.infrastructure.filter.JwtTokenGeneratorFilter;
 import org.example.ecommerce.infrastructure.filter.JwtTokenValidatorFilter;
 import org.example.ecommerce.infrastructure.filter.RequestValidationBeforeFilter;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -18,7 +20,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -28,6 +32,7 @@ import org.springframework.web.cors.CorsConfiguration;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 
 /**
  * This configuration class defines the security setup for the application.
@@ -38,7 +43,8 @@ import java.util.Collections;
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class ProjectSecurityConfig {
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final JwtTokenVerifier jwtTokenVerifier;
 
 
     CsrfTokenRequestAttributeHandler csrfTokenRequestAttributeHandler = new CsrfTokenRequestAttributeHandler();
@@ -79,8 +85,8 @@ public class ProjectSecurityConfig {
 //                        .csrfTokenRequestHandler(csrfTokenRequestAttributeHandler)
 //                        .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()))
 //                .addFilterAfter(new CsrfCookieFilter(), BasicAuthenticationFilter.class)
-                .addFilterAfter(new JwtTokenGeneratorFilter(), BasicAuthenticationFilter.class)
-                .addFilterBefore(new JwtTokenValidatorFilter(userRepository), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new JwtTokenGeneratorFilter(jwtTokenVerifier), BasicAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenValidatorFilter(principalCache, jwtTokenVerifier), UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(new RequestValidationBeforeFilter() , BasicAuthenticationFilter.class)
                 .addFilterAfter(new AuthoritiesLoggingAfterFilter() , BasicAuthenticationFilter.class)
 
@@ -95,6 +101,7 @@ public class ProjectSecurityConfig {
                                                         .requestMatchers("api/v1/admin/notifications/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/user/notifications/**").authenticated()
                         .requestMatchers("/ws/**", "/ws", "/topic/**", "/app/**").permitAll()
+                        .requestMatchers("/api/v1/payments/webhook").permitAll() // موقّع بـ HMAC من الـ gateway
 
 
                         .anyRequest().authenticated()
@@ -112,9 +119,17 @@ public class ProjectSecurityConfig {
 
 
 
+    /**
+     * bcrypt بـ cost قابل للتعديل من {@code security.password.bcrypt-strength}.
+     * الـ hashes القديمة ({noop}, {pbkdf2}, ...) لسه بتتقبل، وأي hash بـ cost أقل
+     * بيتعمله upgrade بعد أول login ناجح.
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return encoder;
     }
 
 
@@ -0,0 +1,41 @@
+package org.example.ecommerce.infrastructure.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Runs the {@code @Scheduled} jobs on their own pool sized by
+ * {@code spring.task.scheduling.pool.size}.
+ * <p>
+ * The STOMP broker registers its own {@code TaskScheduler} beans, so Boot does not
+ * create {@code taskScheduler} and Spring would otherwise fall back to one thread
+ * shared by every job: the nightly reconcile or a slow SMTP dispatch would delay
+ * payment callback polling and reservation expiry.
+ * </p>
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private final ThreadPoolTaskSchedulerBuilder schedulerBuilder;
+
+    // Bean عشان الـ context يقفله في الـ shutdown
+    @Bean
+    public ThreadPoolTaskScheduler scheduledJobsTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = schedulerBuilder.build();
+        log.info("Scheduled jobs run on {} threads", scheduler.getPoolSize());
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(scheduledJobsTaskScheduler());
+    }
+}
@@ -1,54 +1,187 @@
 package org.example.ecommerce.infrastructure.config;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.example.ecommerce.infrastructure.config.constant.ApplicationConstants;
+import org.example.ecommerce.application.service.notification.NotificationPushService;
+import org.example.ecommerce.application.service.notification.WebSocketSessionRegistry;
+import org.example.ecommerce.domain.model.user.UserRole;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.*;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.messaging.StompSubProtocolErrorHandler;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
+/**
+ * STOMP over SockJS on {@code /ws}.
+ * <p>
+ * By default the in-memory simple broker is used, which only sees the
+ * subscriptions of this instance. With {@code websocket.relay.enabled=true}
+ * {@code /topic} and {@code /queue} are relayed to an external STOMP broker
+ * (RabbitMQ, ActiveMQ) and user destinations are resolved across instances, so
+ * the application can run on more than one node.
+ * </p>
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
 
+    private static final String APP_PREFIX = "/app/";
+    private static final String USER_NOTIFICATIONS = "/user" + NotificationPushService.USER_QUEUE;
+    // wildcards بتاعة الـ broker ({var} في الـ relay) ما ينفعش تيجي من الـ client
+    private static final Pattern PATTERN_CHARACTERS = Pattern.compile("[*?{}]");
+
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final boolean relayEnabled;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final String relayVirtualHost;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final int inboundCorePoolSize;
+    private final int inboundMaxPoolSize;
+    private final int inboundQueueCapacity;
+    private final int outboundCorePoolSize;
+    private final int outboundMaxPoolSize;
+    private final int outboundQueueCapacity;
+
+    public WebSocketConfig(JwtTokenVerifier jwtTokenVerifier,
+                           WebSocketSessionRegistry sessionRegistry,
+                           @Value("${websocket.relay.enabled:false}") boolean relayEnabled,
+                           @Value("${websocket.relay.host:localhost}") String relayHost,
+                           @Value("${websocket.relay.port:61613}") int relayPort,
+                           @Value("${websocket.relay.login:guest}") String relayLogin,
+                           @Value("${websocket.relay.passcode:guest}") String relayPasscode,
+                           @Value("${websocket.relay.virtual-host:/}") String relayVirtualHost,
+                           @Value("${websocket.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                           @Value("${websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                           @Value("${websocket.inbound.core-pool-size:8}") int inboundCorePoolSize,
+                           @Value("${websocket.inbound.max-pool-size:32}") int inboundMaxPoolSize,
+                           @Value("${websocket.inbound.queue-capacity:10000}") int inboundQueueCapacity,
+                           @Value("${websocket.outbound.core-pool-size:8}") int outboundCorePoolSize,
+                           @Value("${websocket.outbound.max-pool-size:32}") int outboundMaxPoolSize,
+                           @Value("${websocket.outbound.queue-capacity:10000}") int outboundQueueCapacity) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.sessionRegistry = sessionRegistry;
+        this.relayEnabled = relayEnabled;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.relayVirtualHost = relayVirtualHost;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.inboundCorePoolSize = inboundCorePoolSize;
+        this.inboundMaxPoolSize = inboundMaxPoolSize;
+        this.inboundQueueCapacity = inboundQueueCapacity;
+        this.outboundCorePoolSize = outboundCorePoolSize;
+        this.outboundMaxPoolSize = outboundMaxPoolSize;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*") // في الإنتاج، استخدم domains محددة
                 .withSockJS();
+        // الـ ERROR frame يوصل فيه سبب الرفض بدل "Failed to send message to ExecutorSubscribableChannel"
+        registry.setErrorHandler(new StompSubProtocolErrorHandler() {
+            @Override
+            public Message<byte[]> handleClientMessageProcessingError(Message<byte[]> clientMessage, Throwable ex) {
+                Throwable cause = ex instanceof MessageDeliveryException && ex.getCause() != null ? ex.getCause() : ex;
+                return super.handleClientMessageProcessingError(clientMessage, cause);
+            }
+        });
         logger.info("STOMP endpoint /ws registered with SockJS support");
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // تمكين Simple Broker للموضوعات
-        registry.enableSimpleBroker("/topic", "/queue");
+        if (relayEnabled) {
+            // الـ subscriptions في broker خارجي، فكل الـ instances بتشوفها
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setVirtualHost(relayVirtualHost)
+                    // رسائل /user لمستخدم متوصل على instance تانية
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            logger.info("STOMP broker relay enabled: {}:{}", relayHost, relayPort);
+        } else {
+            // تمكين Simple Broker للموضوعات (instance واحدة بس)
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
         logger.info("Message broker configured: /topic, /queue, /app, /user");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // client بطيء ما يحجزش رسايل الباقيين
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                // بنحتفظ بالـ session عشان نقفلها لما الـ token يخلص
+                .addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+                    @Override
+                    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                        sessionRegistry.attach(session);
+                        super.afterConnectionEstablished(session);
+                    }
+
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                        sessionRegistry.remove(session.getId());
+                        super.afterConnectionClosed(session, closeStatus);
+                    }
+                });
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -69,15 +202,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                         String token = authToken.substring("Bearer ".length()).trim();
                         logger.info("Extracted JWT token length: {}", token.length());
 
-                        SecretKey key = Keys.hmacShaKeyFor(
-                                ApplicationConstants.JWT_SECRET_DEFAULT_VALUE.getBytes(StandardCharsets.UTF_8)
-                        );
-
-                        Claims claims = Jwts.parser()
-                                .verifyWith(key)
-                                .build()
-                                .parseSignedClaims(token)
-                                .getPayload();
+                        // نفس المفتاح المستخدم في الـ HTTP بدل الـ default الثابت
+                        Claims claims = jwtTokenVerifier.verify(token);
 
                         String username = claims.getSubject();
                         String roles = claims.get("authorities", String.class);
@@ -106,6 +232,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                                 new UsernamePasswordAuthenticationToken(username, null, authorities);
 
                         accessor.setUser(authentication);
+                        sessionRegistry.register(accessor.getSessionId(), username,
+                                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
                         logger.info("WebSocket authentication set for user: {} with {} authorities",
                                 username, authorities.size());
 
@@ -115,8 +243,65 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     }
                 }
 
+                if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+                    checkSubscription(accessor.getDestination(), accessor.getUser());
+                }
+
+                if (accessor != null && StompCommand.SEND.equals(accessor.getCommand())) {
+                    checkSend(accessor.getDestination());
+                }
+
                 return message;
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * SUBSCRIBE is allow-listed: the user's own {@code /user/queue/notifications} and
+     * {@code /topic/<role>/notifications} for each role the principal holds. Anything
+     * else is rejected, including broker patterns ({@code /topic/**}) and direct
+     * {@code /queue/...} destinations, which would expose other users' messages.
+     */
+    static void checkSubscription(String destination, Principal user) {
+        if (!(user instanceof Authentication authentication)) {
+            throw new AccessDeniedException("Subscriptions require an authenticated CONNECT");
+        }
+        if (destination == null || PATTERN_CHARACTERS.matcher(destination).find()) {
+            throw denied(destination, user);
+        }
+        if (USER_NOTIFICATIONS.equals(destination)) {
+            return;
+        }
+        boolean allowed = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(WebSocketConfig::roleOf)
+                .anyMatch(role -> role != null && NotificationPushService.roleTopic(role).equals(destination));
+        if (!allowed) {
+            throw denied(destination, user);
+        }
+    }
+
+    /**
+     * Clients only SEND to application destinations; {@code /topic} and {@code /queue}
+     * are written by the server alone.
+     */
+    static void checkSend(String destination) {
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            throw new AccessDeniedException("Not allowed to send to " + destination);
+        }
+    }
+
+    private static UserRole roleOf(String authority) {
+        for (UserRole role : UserRole.values()) {
+            if (role.name().equals(authority)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    private static AccessDeniedException denied(String destination, Principal user) {
+        logger.warn("Subscription to {} denied for {}", destination, user.getName());
+        return new AccessDeniedException("Not allowed to subscribe to " + destination);
+    }
+}
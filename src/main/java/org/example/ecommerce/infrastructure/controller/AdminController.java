@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.admin.AdminService;
+import org.example.ecommerce.application.service.notification.WebSocketSessionRegistry;
+import org.example.ecommerce.application.service.user.PrincipalCache;
 import org.example.ecommerce.domain.model.seller.AccountStatus;
 import org.example.ecommerce.domain.model.seller.Seller;
 import org.example.ecommerce.domain.model.seller.exception.SellerException;
@@ -42,6 +44,8 @@ import java.util.Optional;
 public class AdminController {
 
     private final AdminService adminService;
+    private final PrincipalCache principalCache;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
 
     /**
      * Get a user profile by email.
@@ -242,4 +246,26 @@ public class AdminController {
         }
         throw new SellerException("Seller not found with id: " + id);
     }
+
+    /**
+     * Hit/miss counters of the verified-principal cache used by the JWT filter.
+     *
+     * @return 200 with the cache statistics
+     */
+    @GetMapping("/cache/principals")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<PrincipalCache.Stats> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
+    /**
+     * Live STOMP connections on this instance.
+     *
+     * @return 200 with connected users, open sessions and expired-token evictions
+     */
+    @GetMapping("/websocket/sessions")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<WebSocketSessionRegistry.Stats> getWebSocketSessionStats() {
+        return ResponseEntity.ok(webSocketSessionRegistry.stats());
+    }
 }
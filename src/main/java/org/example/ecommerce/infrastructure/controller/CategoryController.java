@@ -5,21 +5,24 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.category.CategoryService;
+import org.example.ecommerce.application.service.category.CategoryTreeService;
 import org.example.ecommerce.domain.common.exception.INTERNAL_SERVER_ERROR;
 import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.category.exception.CategoryNotFoundException;
 import org.example.ecommerce.infrastructure.dto.category.CategoryDto;
+import org.example.ecommerce.infrastructure.dto.category.CategoryTreeSnapshot;
 import org.example.ecommerce.infrastructure.dto.category.CreateCategoryWithoutIconDto;
 import org.example.ecommerce.infrastructure.mapper.CategoryMapper;
 import org.example.ecommerce.infrastructure.utils.ImageUploadUtil;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for managing categories in the e-commerce system.
@@ -32,6 +35,7 @@ import java.util.stream.Collectors;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CategoryTreeService categoryTreeService;
     private final ImageUploadUtil imageUploadUtil;
     private final CategoryMapper categoryMapper;
 
@@ -116,16 +120,23 @@ public class CategoryController {
     }
 
     /**
-     * Retrieves all categories in DTO format.
+     * Retrieves the category tree from the in-memory snapshot.
+     * The body is pre-serialized JSON; a matching If-None-Match returns 304.
      *
-     * @return ResponseEntity containing list of all category DTOs
+     * @param request the current request, used for ETag revalidation
+     * @return ResponseEntity containing the serialized root categories
      */
     @GetMapping()
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
-        List<CategoryDto> categories = categoryService.getAllCategories().stream()
-                .map(categoryMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+        CategoryTreeSnapshot tree = categoryTreeService.current();
+        if (request.checkNotModified(tree.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(tree.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tree.json());
     }
 
     /**
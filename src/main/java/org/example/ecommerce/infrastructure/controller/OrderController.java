@@ -4,15 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.cart.CartService;
 import org.example.ecommerce.application.service.order.OrderService;
+import org.example.ecommerce.application.service.seller.SellerService;
 import org.example.ecommerce.application.service.user.UserService;
 import org.example.ecommerce.domain.common.Address;
 import org.example.ecommerce.domain.model.cart.Cart;
 import org.example.ecommerce.domain.model.order.Order;
 import org.example.ecommerce.domain.model.order.OrderItem;
 import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.model.order.OrderSummary;
+import org.example.ecommerce.domain.model.seller.exception.SellerException;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.model.user.exception.UserNotFoundException;
 import org.example.ecommerce.infrastructure.mapper.UserMapper;
+import org.example.ecommerce.infrastructure.response.CursorPage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,6 +37,8 @@ public class OrderController {
     private final UserService userService;
     private final UserMapper userMapper;
     private final CartService cartService;
+    private final SellerService sellerService;
+
     /**
      * Create orders from cart for a specific user and shipping address
      */
@@ -65,5 +71,40 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // =================== Order history (keyset pagination) ===================
 
+    @GetMapping("/history")
+    public CursorPage<OrderSummary> getUserOrdersHistory(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        User user = userService.findByJwt(jwt)
+                .map(userMapper::toUser)
+                .orElseThrow(() -> new UserNotFoundException("user not found"));
+        return orderService.userOrdersHistory(user.getId(), cursor, size);
+    }
+
+    @GetMapping("/seller/history")
+    public CursorPage<OrderSummary> getSellerOrdersHistory(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Long sellerId = sellerService.getSellerProfile(jwt)
+                .orElseThrow(() -> new SellerException("seller not found"))
+                .id();
+        return orderService.sellerOrdersHistory(sellerId, cursor, size);
+    }
+
+    @GetMapping("/{orderId}")
+    public Order getOrderDetails(
+            @RequestHeader("Authorization") String jwt,
+            @PathVariable Long orderId
+    ) {
+        User user = userService.findByJwt(jwt)
+                .map(userMapper::toUser)
+                .orElseThrow(() -> new UserNotFoundException("user not found"));
+        return orderService.findOrderDetails(orderId, user);
+    }
 }
@@ -0,0 +1,36 @@
+package org.example.ecommerce.infrastructure.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.payment.PaymentCallbackService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Endpoint called by the payment gateway. Callbacks are authenticated by their
+ * HMAC signature (no JWT), stored and acknowledged; processing happens later.
+ */
+@RestController
+@RequestMapping("/api/v1/payments")
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentWebhookController {
+
+    private static final String SIGNATURE_HEADER = "X-Payment-Signature";
+
+    private final PaymentCallbackService paymentCallbackService;
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Map<String, String>> receiveCallback(
+            @RequestBody String payload,
+            @RequestHeader(value = SIGNATURE_HEADER, required = false) String signature) {
+
+        boolean stored = paymentCallbackService.receive(payload, signature);
+        // الـ duplicate بيترد عليه بنجاح برضه عشان الـ gateway يبطل يعيد
+        return ResponseEntity.status(stored ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                .body(Map.of("message", stored ? "Callback received" : "Callback already received"));
+    }
+}
@@ -8,6 +8,7 @@ import org.example.ecommerce.application.service.product.ProductService;
 import org.example.ecommerce.application.service.seller.SellerService;
 import org.example.ecommerce.domain.common.exception.INTERNAL_SERVER_ERROR;
 import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.ProductCard;
 import org.example.ecommerce.domain.model.product.exception.ProductNotFoundException;
 import org.example.ecommerce.domain.model.seller.Seller;
 import org.example.ecommerce.infrastructure.dto.product.CreateProductDto;
@@ -15,6 +16,7 @@ import org.example.ecommerce.infrastructure.dto.product.ProductDTO;
 import org.example.ecommerce.infrastructure.dto.seller.SellerProfile;
 import org.example.ecommerce.infrastructure.mapper.ProductMapper;
 import org.example.ecommerce.infrastructure.mapper.SellerMapper;
+import org.example.ecommerce.infrastructure.response.CursorPage;
 import org.example.ecommerce.infrastructure.utils.JwtUtil;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -102,23 +104,27 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        Page<Product> products = productService.getProducts(PageRequest.of(page, size));
+        Page<ProductCard> products = productService.getProducts(PageRequest.of(page, size));
         return ResponseEntity.ok(products);
     }
 
     // =================== Get products by category ===================
     @GetMapping("/category/{categoryId}")
-    public Page<Product> getProductsByCategory(
+    public Page<ProductCard> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
+        if (includeSubcategories) {
+            return productService.findByCategoryTree(categoryId, PageRequest.of(page, size));
+        }
         return productService.findByCategoryId(categoryId, PageRequest.of(page, size));
     }
 
     // =================== Get products by seller ===================
     @GetMapping("/seller/{sellerId}")
-    public Page<Product> getProductsBySeller(
+    public Page<ProductCard> getProductsBySeller(
             @PathVariable Long sellerId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
@@ -128,23 +134,21 @@ public class ProductController {
 
     // =================== Get products by viewsCounter ===================
     @GetMapping("/views")
-    public Page<ProductDTO> getProductsByViewsCounter(
+    public Page<ProductCard> getProductsByViewsCounter(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        return productService.findByViewsCounter(PageRequest.of(page,size))
-                .map(productMapper::toDTO);
+        return productService.findByViewsCounter(PageRequest.of(page,size));
     }
 
     // =================== Get products by searchCounter ===================
     @GetMapping("/search")
-    public Page<ProductDTO> getProductsBySearchCounter(
+    public Page<ProductCard> getProductsBySearchCounter(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
 //        Page<ProductDTO> productDTOS = productService.
-        return productService.findBySearchCounter(PageRequest.of(page, size))
-                .map(productMapper::toDTO);
+        return productService.findBySearchCounter(PageRequest.of(page, size));
     }
 
     // =================== Get products by isVerified ===================
@@ -157,6 +161,51 @@ public class ProductController {
         return productService.findByIsVerified(isVerified, PageRequest.of(page, size));
     }
 
+    // =================== Keyset (cursor) pagination ===================
+    // بيرجع nextCursor بدل رقم الصفحة ومن غير count query
+
+    @GetMapping("/scroll")
+    public CursorPage<ProductCard> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return productService.scrollProducts(cursor, size);
+    }
+
+    @GetMapping("/category/{categoryId}/scroll")
+    public CursorPage<ProductCard> scrollProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return productService.scrollByCategoryId(categoryId, cursor, size);
+    }
+
+    @GetMapping("/seller/{sellerId}/scroll")
+    public CursorPage<ProductCard> scrollProductsBySeller(
+            @PathVariable Long sellerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return productService.scrollBySellerId(sellerId, cursor, size);
+    }
+
+    @GetMapping("/views/scroll")
+    public CursorPage<ProductCard> scrollProductsByViewsCounter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return productService.scrollByViewsCounter(cursor, size);
+    }
+
+    @GetMapping("/search/scroll")
+    public CursorPage<ProductCard> scrollProductsBySearchCounter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return productService.scrollBySearchCounter(cursor, size);
+    }
+
     @PutMapping("/status")
     public ResponseEntity<Boolean> updateProductStatus(
             @RequestParam("id") Long id,
@@ -1,5 +1,6 @@
 package org.example.ecommerce.infrastructure.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -174,7 +175,8 @@ public class UserController {
     @PutMapping("/changePwd")
     public ResponseEntity<?> changePassword(
             @Valid @RequestBody UserChangeUserPWDDto changeUserPWD,
-            @RequestHeader(value = "Authorization", required = false) String jwt
+            @RequestHeader(value = "Authorization", required = false) String jwt,
+            HttpServletRequest request
     ){
         log.info("Received request to delete user with jwt: {}", jwt);
 
@@ -187,11 +189,12 @@ public class UserController {
 
         String email = jwtUtil.extractEmailFromJwt(jwt);
         log.debug("Extracted email from JWT: {}", email);
-        if (loginAttemptService.isBlocked(email)) {
+        String clientIp = request.getRemoteAddr();
+        if (loginAttemptService.isBlocked(email, clientIp)) {
             throw new FailedLoginAttempt(
                     messageSource.getMessage("block.request", new Object[]{email}, LocaleContextHolder.getLocale()));
         }
-        loginAttemptService.loginFailed(email);
+        loginAttemptService.loginFailed(email, clientIp);
 
         if(!email.equals(changeUserPWD.email())){
             throw new EmailIsNotValid(
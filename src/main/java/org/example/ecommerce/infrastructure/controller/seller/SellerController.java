@@ -4,19 +4,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.application.service.seller.SellerService;
+import org.example.ecommerce.application.service.seller_report.SellerAnalyticsService;
 import org.example.ecommerce.application.service.user.UserService;
 import org.example.ecommerce.domain.common.exception.INTERNAL_SERVER_ERROR;
 import org.example.ecommerce.domain.common.exception.ImageIsRequired;
 import org.example.ecommerce.domain.common.exception.UnauthorizedException;
+import org.example.ecommerce.domain.model.seller.exception.SellerException;
+import org.example.ecommerce.domain.model.seller_report.ReportGranularity;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesPoint;
 import org.example.ecommerce.domain.model.user.exception.UserNotFoundException;
 import org.example.ecommerce.infrastructure.dto.seller.*;
 import org.example.ecommerce.infrastructure.dto.user.UserProfile;
 import org.example.ecommerce.infrastructure.utils.ImageUploadUtil;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -28,6 +35,7 @@ public class SellerController {
     private final SellerService sellerService;
     private final UserService userService;
     private final ImageUploadUtil  imageUploadUtil;
+    private final SellerAnalyticsService sellerAnalyticsService;
 
 
     @PostMapping("")
@@ -172,6 +180,19 @@ public class SellerController {
         return ResponseEntity.ok("Seller profile updated successfully");
     }
 
-
-
+    /**
+     * Sales of the calling seller per hour/day/week/month, read from the rollups.
+     */
+    @GetMapping("/report")
+    public List<SellerSalesPoint> getSalesReport(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") ReportGranularity granularity
+    ) {
+        Long sellerId = sellerService.getSellerProfile(jwt)
+                .orElseThrow(() -> new SellerException("seller not found"))
+                .id();
+        return sellerAnalyticsService.salesReport(sellerId, from, to, granularity);
+    }
 }
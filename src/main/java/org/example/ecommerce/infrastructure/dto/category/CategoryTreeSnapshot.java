@@ -0,0 +1,23 @@
+package org.example.ecommerce.infrastructure.dto.category;
+
+import java.util.List;
+
+/**
+ * Immutable, pre-built view of the whole category tree.
+ * <p>
+ * Built once per change and shared by every request: {@code json} is the
+ * already-serialized body of {@code GET /api/v1/Categories} and {@code etag}
+ * is derived from those bytes, so clients can revalidate with If-None-Match.
+ * </p>
+ *
+ * @param version monotonically increasing build number (per instance)
+ * @param roots   root categories with their children populated
+ * @param json    serialized {@code roots}
+ * @param etag    strong ETag of {@code json}
+ */
+public record CategoryTreeSnapshot(
+        long version,
+        List<CategoryDto> roots,
+        byte[] json,
+        String etag
+) {}
@@ -0,0 +1,31 @@
+package org.example.ecommerce.infrastructure.dto.notification;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.example.ecommerce.domain.model.notification.Notification;
+import org.example.ecommerce.domain.model.user.UserRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a WebSocket client receives for a {@link Notification}; the entity itself
+ * is not sent because it drags the whole {@code User} along.
+ */
+public record NotificationMessage(
+        Long id,
+        String title,
+        String message,
+        boolean read,
+        UserRole role,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime createdAt
+) {
+    public static NotificationMessage from(Notification notification) {
+        return new NotificationMessage(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.isRead(),
+                notification.getRole(),
+                notification.getCreatedAt());
+    }
+}
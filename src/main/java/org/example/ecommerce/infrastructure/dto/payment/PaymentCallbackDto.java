@@ -0,0 +1,16 @@
+package org.example.ecommerce.infrastructure.dto.payment;
+
+/**
+ * Body of a payment gateway callback.
+ *
+ * @param eventId       unique id of the delivery (idempotency key)
+ * @param paymentLinkId payment link the result belongs to
+ * @param paymentId     gateway payment/transaction id
+ * @param status        {@code COMPLETED} or {@code FAILED}
+ */
+public record PaymentCallbackDto(
+        String eventId,
+        String paymentLinkId,
+        String paymentId,
+        String status) {
+}
@@ -0,0 +1,28 @@
+package org.example.ecommerce.infrastructure.event;
+
+import org.example.ecommerce.domain.model.category.Category;
+
+/**
+ * Snapshot of a {@link CategoryEvent}, stored in the outbox and relayed after commit.
+ */
+public record CategoryChangedMessage(
+        Long id,
+        String categoryId,
+        String nameEn,
+        String nameAr,
+        Integer level,
+        Type eventType,
+        String performedBy
+) {
+    public static CategoryChangedMessage from(CategoryEvent event) {
+        Category category = event.getCategory();
+        return new CategoryChangedMessage(
+                category.getId(),
+                category.getCategoryId(),
+                category.getNameEn(),
+                category.getNameAr(),
+                category.getLevel(),
+                event.getEventType(),
+                event.getPerformedBy());
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.ecommerce.infrastructure.event;
+
+import org.example.ecommerce.domain.model.order.Order;
+import org.example.ecommerce.domain.model.order.OrderStatus;
+import org.example.ecommerce.domain.model.order.OrderSummary;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order changed in a way that moves the seller's figures. Published inside the
+ * transaction that made the change; consumers listen after commit.
+ *
+ * @param orderStatus   order status after the change
+ * @param paymentStatus payment status after the change
+ */
+public record OrderLifecycleEvent(
+        Long orderId,
+        Long sellerId,
+        Change change,
+        long amount,
+        OrderStatus orderStatus,
+        PaymentStatus paymentStatus,
+        LocalDateTime occurredAt) {
+
+    public enum Change {
+        PLACED,
+        PAID,
+        CANCELLED
+    }
+
+    public static OrderLifecycleEvent of(Order order, Change change) {
+        return new OrderLifecycleEvent(order.getId(), order.getSellerId(), change,
+                order.getTotalSellingPrice() == null ? 0L : order.getTotalSellingPrice(),
+                order.getOrderStatus(), order.getPaymentDetails().getPaymentStatus(), LocalDateTime.now());
+    }
+
+    public static OrderLifecycleEvent paid(OrderSummary order) {
+        return new OrderLifecycleEvent(order.id(), order.sellerId(), Change.PAID,
+                order.totalSellingPrice() == null ? 0L : order.totalSellingPrice(),
+                order.orderStatus(), PaymentStatus.COMPLETED, LocalDateTime.now());
+    }
+
+    /**
+     * Whether the order ends up both paid and cancelled, i.e. its amount is refunded.
+     */
+    public boolean refunded() {
+        return orderStatus == OrderStatus.CANCELLED && paymentStatus == PaymentStatus.COMPLETED;
+    }
+}
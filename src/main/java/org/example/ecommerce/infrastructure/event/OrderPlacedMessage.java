@@ -0,0 +1,30 @@
+package org.example.ecommerce.infrastructure.event;
+
+import org.example.ecommerce.domain.model.order.Order;
+
+import java.util.List;
+
+/**
+ * Snapshot of an {@link OrderEvent}, stored in the outbox and relayed after commit.
+ * Product titles are captured here because the cart is cleared once the order is placed.
+ */
+public record OrderPlacedMessage(
+        Long customerId,
+        String customerName,
+        String customerEmail,
+        List<String> orderIds,
+        List<String> productTitles,
+        Type type
+) {
+    public static OrderPlacedMessage from(OrderEvent event) {
+        return new OrderPlacedMessage(
+                event.getCustomer().getId(),
+                event.getCustomer().getFullName(),
+                event.getCustomer().getEmail(),
+                event.getOrders().stream().map(Order::getOrderId).toList(),
+                event.getCart().getCartItems().stream()
+                        .map(item -> item.getProduct().getTitle())
+                        .toList(),
+                event.getType());
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.ecommerce.infrastructure.event;
+
+import org.example.ecommerce.domain.model.product.Product;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link ProductEvent}, stored in the outbox and relayed after commit.
+ */
+public record ProductChangedMessage(
+        Long productId,
+        String title,
+        String description,
+        List<String> images,
+        Type eventType,
+        String performedBy,
+        Long performedById
+) {
+    public static ProductChangedMessage from(ProductEvent event) {
+        Product product = event.getProduct();
+        return new ProductChangedMessage(
+                product.getId(),
+                product.getTitle(),
+                product.getDescription(),
+                product.getImages() == null ? List.of() : List.copyOf(product.getImages()),
+                event.getEventType(),
+                event.getPerformedBy(),
+                event.getPerformedById());
+    }
+}
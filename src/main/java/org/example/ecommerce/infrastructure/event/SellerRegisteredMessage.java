@@ -0,0 +1,36 @@
+package org.example.ecommerce.infrastructure.event;
+
+import org.example.ecommerce.domain.model.seller.BusinessDetails;
+import org.example.ecommerce.domain.model.seller.Seller;
+
+/**
+ * Snapshot of a {@link NewSellerRegisteredEvent}, stored in the outbox and relayed after commit.
+ */
+public record SellerRegisteredMessage(
+        Long sellerId,
+        String fullName,
+        boolean emailVerified,
+        String accountStatus,
+        String businessName,
+        String businessEmail,
+        String businessMobile,
+        String businessAddress,
+        String logo,
+        String banner
+) {
+    public static SellerRegisteredMessage from(NewSellerRegisteredEvent event) {
+        Seller seller = event.getSeller();
+        BusinessDetails details = seller.getBusinessDetails();
+        return new SellerRegisteredMessage(
+                seller.getId(),
+                seller.getUser().getFullName(),
+                Boolean.TRUE.equals(seller.getIsEmailVerified()),
+                seller.getAccountStatus() != null ? seller.getAccountStatus().name() : null,
+                details.getBusinessName(),
+                details.getBusinessEmail(),
+                details.getBusinessMobile(),
+                details.getBusinessAddress(),
+                details.getLogo(),
+                details.getBanner());
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.ecommerce.infrastructure.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A user row was changed or deleted; the cached copies are dropped once the
+ * change is committed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String email; // null لو الـ roles وحالة الحساب ما اتغيروش
+
+    public static UserChangedEvent profile(Long userId) {
+        return new UserChangedEvent(userId, null);
+    }
+}
@@ -4,13 +4,22 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.domain.common.exception.FailedLoginAttempt;
+import org.example.ecommerce.domain.common.exception.PasswordHashingBusyException;
 import org.example.ecommerce.domain.common.exception.INTERNAL_SERVER_ERROR;
 import org.example.ecommerce.domain.common.exception.ImageIsRequired;
+import org.example.ecommerce.domain.common.exception.InvalidCursorException;
 import org.example.ecommerce.domain.common.exception.UnauthorizedException;
 import org.example.ecommerce.domain.model.category.exception.CategoryAlreadyExistsException;
+import org.example.ecommerce.domain.model.category.exception.CategoryInUseException;
 import org.example.ecommerce.domain.model.category.exception.CategoryNotFoundException;
+import org.example.ecommerce.domain.model.category.exception.InvalidCategoryParentException;
+import org.example.ecommerce.domain.model.cart.exception.CartConflictException;
+import org.example.ecommerce.domain.model.inventory.exception.InsufficientStockException;
+import org.example.ecommerce.domain.model.order.exception.OrderNotFoundException;
 import org.example.ecommerce.domain.model.product.exception.ProductNotFoundException;
+import org.example.ecommerce.domain.model.seller_report.exception.InvalidReportRangeException;
 import org.example.ecommerce.domain.model.user.exception.*;
+import org.example.ecommerce.domain.payment.InvalidPaymentCallbackException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -55,7 +64,10 @@ public class GlobalExceptionHandler {
             UserAlreadyExistsException.class,
             PhoneNumberAlreadyExists.class,
             EmailAlreadyExists.class,
-            CategoryAlreadyExistsException.class
+            CategoryAlreadyExistsException.class,
+            CategoryInUseException.class,
+            InsufficientStockException.class,
+            CartConflictException.class
     })
     public ResponseEntity<ErrorDetails> handleConflictExceptions(
             RuntimeException ex,
@@ -70,7 +82,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
             UserNotFoundException.class,
             CategoryNotFoundException.class,
-            ProductNotFoundException.class
+            ProductNotFoundException.class,
+            OrderNotFoundException.class
     })
     public ResponseEntity<ErrorDetails> handleNotFoundExceptions(
             RuntimeException ex,
@@ -89,6 +102,10 @@ public class GlobalExceptionHandler {
             NameIsNotVlild.class,
             ImageIsRequired.class,
             InvalidPWD.class,
+            InvalidCursorException.class,
+            InvalidCategoryParentException.class,
+            InvalidPaymentCallbackException.class,
+            InvalidReportRangeException.class,
             MissingServletRequestPartException.class
 
     })
@@ -117,7 +134,8 @@ public class GlobalExceptionHandler {
                 .body(buildErrorDetails(request, HttpStatus.UNAUTHORIZED, ex.getMessage()));
     }
     @ExceptionHandler({
-            FailedLoginAttempt.class
+            FailedLoginAttempt.class,
+            PasswordHashingBusyException.class
     })
     public ResponseEntity<ErrorDetails> handleTooManyExceptions(
             RuntimeException ex ,
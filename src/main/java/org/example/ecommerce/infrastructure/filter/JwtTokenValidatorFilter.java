@@ -1,19 +1,16 @@
 package org.example.ecommerce.infrastructure.filter;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.application.service.user.PrincipalCache;
 import org.example.ecommerce.domain.model.user.UserRole;
-import org.example.ecommerce.domain.model.user.repository.UserRepository;
 import org.example.ecommerce.infrastructure.config.constant.ApplicationConstants;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -22,9 +19,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -34,11 +29,13 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenValidatorFilter.class);
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final JwtTokenVerifier jwtTokenVerifier;
 
     // Constructor injection بدلاً من @Autowired
-    public JwtTokenValidatorFilter(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public JwtTokenValidatorFilter(PrincipalCache principalCache, JwtTokenVerifier jwtTokenVerifier) {
+        this.principalCache = principalCache;
+        this.jwtTokenVerifier = jwtTokenVerifier;
     }
 
     @Override
@@ -50,32 +47,9 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
 
         if (jwt != null) {
             try {
-                if (jwt.startsWith("Bearer ")) {
-                    jwt = jwt.substring(7);
-                    logger.info("Removed 'Bearer ' prefix: {}", jwt);
-                }
-
-                Environment environment = getEnvironment();
-                String secret;
-                if (environment != null) {
-                    secret = environment.getProperty(
-                            ApplicationConstants.JWT_SECRET_KEY,
-                            ApplicationConstants.JWT_SECRET_DEFAULT_VALUE
-                    );
-                } else {
-                    secret = ApplicationConstants.JWT_SECRET_DEFAULT_VALUE;
-                }
-                logger.debug("Using secret key: {}", secret.length() > 5 ? secret.substring(0, 5) + "..." : secret);
-
-                SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-                logger.info("SecretKey created successfully");
-
-                Claims claims = Jwts.parser()
-                        .verifyWith(secretKey)
-                        .build()
-                        .parseSignedClaims(jwt)
-                        .getPayload();
-                logger.info("Claims parsed: {}", claims);
+                // المفتاح والـ parser جاهزين، والـ claims بتتخزن في الـ request لباقي الطبقات
+                Claims claims = jwtTokenVerifier.verifyAndStore(request, jwt);
+                logger.debug("Claims parsed: {}", claims);
 
                 String email = claims.getSubject();
                 if (email == null) {
@@ -83,15 +57,15 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
                 }
                 logger.info("Email extracted from claims: {}", email);
 
-                // التحقق من وجود المستخدم في قاعدة البيانات
-                Optional<User> userOptional = userRepository.findByEmail(email);
-                if (!userOptional.isPresent()) {
+                // التحقق من وجود المستخدم (من الكاش، وقاعدة البيانات عند الـ miss)
+                Optional<PrincipalCache.Principal> principalOptional = principalCache.findByEmail(email);
+                if (principalOptional.isEmpty()) {
                     logger.warn("User not found in database: {}", email);
                     throw new BadCredentialsException("User not found in database");
                 }
 
-                User user = userOptional.get();
-                logger.info("User found: {}", user.getEmail());
+                PrincipalCache.Principal principal = principalOptional.get();
+                logger.debug("User found: {}", principal.email());
 
                 String authoritiesClaim = claims.get("authorities", String.class);
                 logger.debug("Authorities claim: {}", authoritiesClaim);
@@ -106,9 +80,9 @@ public class JwtTokenValidatorFilter extends OncePerRequestFilter {
                     logger.info("Granted authorities from token: {}", grantedAuthorities);
                 } else {
                     // استخدام الأدوار من قاعدة البيانات بدلاً من الافتراضي
-                    if (user.getAuthorities() != null && !user.getAuthorities().isEmpty()) {
-                        grantedAuthorities = user.getAuthorities().stream()
-                                .map(authority -> new SimpleGrantedAuthority(authority.getRole().name()))
+                    if (!principal.roles().isEmpty()) {
+                        grantedAuthorities = principal.roles().stream()
+                                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
                                 .collect(Collectors.toList());
                     } else {
                         // في حالة عدم وجود أدوار، استخدام الدور الافتراضي
@@ -2,15 +2,15 @@ package org.example.ecommerce.infrastructure.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.ecommerce.application.service.EmailService;
+import org.example.ecommerce.application.service.mail.MailQueueService;
+import org.example.ecommerce.application.service.notification.NotificationPushService;
 import org.example.ecommerce.domain.model.admin.Admin;
 import org.example.ecommerce.domain.model.admin.AdminRepository;
-import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.notification.Notification;
 import org.example.ecommerce.domain.model.notification.repository.NotificationRepository;
-import org.example.ecommerce.infrastructure.event.CategoryEvent;
+import org.example.ecommerce.domain.model.user.UserRole;
+import org.example.ecommerce.infrastructure.event.CategoryChangedMessage;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -22,43 +22,44 @@ public class CategoryEventListener {
 
     private final AdminRepository adminRepository;
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MailQueueService mailQueueService;
+    private final NotificationPushService notificationPushService;
 
+    // بيتنادى من الـ outbox relay بعد الـ commit
     @EventListener
-    public void handleCategoryEvent(CategoryEvent event) {
-        Category category = event.getCategory();
-        String userName = event.getPerformedBy();
+    public void handleCategoryEvent(CategoryChangedMessage event) {
+        String userName = event.performedBy();
 
-        String title = switch (event.getEventType()) {
+        String title = switch (event.eventType()) {
             case CREATED -> "New Category Created";
             case UPDATED -> "Category Updated";
             case DELETED -> "Category Deleted";
         };
 
-        String htmlMessage = generateHtmlMessage(title, category, userName);
+        String htmlMessage = generateHtmlMessage(title, event, userName);
 
         Notification notification = Notification.builder()
                 .title(title)
-                .message(category.getNameEn() + " by " + userName)
+                .message(event.nameEn() + " by " + userName)
                 .build();
 
         notificationRepository.save(notification);
 
-        // 🔥 إرسال عبر WebSocket
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        // 🔥 إرسال عبر WebSocket للـ Admins بس
+        notificationPushService.pushToRole(UserRole.ROLE_ADMIN, notification);
         sendEmailToAllAdmins(title, htmlMessage);
         // الإيميل زي ما هو
     }
 
     public void sendEmailToAllAdmins(String title, String htmlMessage) {
-        List<Admin> admins = adminRepository.findAll();
-        for (Admin admin : admins) {
-            emailService.sendEmail(admin.getEmail(), title, htmlMessage);
-        }
+        // بيتحط في الـ mail queue بس، والإرسال بيتم في الخلفية
+        List<String> adminEmails = adminRepository.findAll().stream()
+                .map(Admin::getEmail)
+                .toList();
+        mailQueueService.enqueueAll(adminEmails, title, htmlMessage);
     }
 
-    private String generateHtmlMessage(String header, Category category, String performedBy) {
+    private String generateHtmlMessage(String header, CategoryChangedMessage category, String performedBy) {
         String htmlTemplate = """
         <html>
         <head>
@@ -126,10 +127,10 @@ public class CategoryEventListener {
         return String.format(htmlTemplate,
                 header,
                 performedBy,
-                category.getNameEn(),
-                category.getNameAr(),
-                category.getCategoryId(),
-                category.getLevel()
+                category.nameEn(),
+                category.nameAr(),
+                category.categoryId(),
+                category.level()
         );
     }
 
@@ -0,0 +1,23 @@
+package org.example.ecommerce.infrastructure.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.category.CategoryTreeService;
+import org.example.ecommerce.infrastructure.event.CategoryEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeEventListener {
+
+    private final CategoryTreeService categoryTreeService;
+
+    // بعد الـ commit عشان الشجرة الجديدة تشوف التغيير
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleCategoryEvent(CategoryEvent event) {
+        log.info("Category {} ({}), rebuilding category tree", event.getCategory().getId(), event.getEventType());
+        categoryTreeService.rebuild();
+    }
+}
@@ -1,20 +1,18 @@
 package org.example.ecommerce.infrastructure.listener;
 
 import lombok.RequiredArgsConstructor;
-import org.example.ecommerce.application.service.EmailService;
+import org.example.ecommerce.application.service.mail.MailQueueService;
+import org.example.ecommerce.application.service.notification.NotificationPushService;
 import org.example.ecommerce.domain.model.notification.Notification;
 import org.example.ecommerce.domain.model.notification.repository.NotificationRepository;
-import org.example.ecommerce.domain.model.order.Order;
 import org.example.ecommerce.domain.model.user.UserRole;
-import org.example.ecommerce.infrastructure.event.OrderEvent;
+import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.example.ecommerce.infrastructure.event.OrderPlacedMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.stream.Collectors;
-
 @Component
 @RequiredArgsConstructor
 public class OrderCustomerEventListener {
@@ -22,33 +20,26 @@ public class OrderCustomerEventListener {
     private static final Logger logger = LoggerFactory.getLogger(OrderCustomerEventListener.class);
 
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MailQueueService mailQueueService;
+    private final NotificationPushService notificationPushService;
+    private final UserRepository userRepository;
 
+    // بيتنادى من الـ outbox relay بعد الـ commit
     @EventListener
-    public void handleOrderEvent(OrderEvent event) {
+    public void handleOrderEvent(OrderPlacedMessage event) {
         try {
-            logger.info("Processing order event for user: {}", event.getCustomer().getId());
+            logger.info("Processing order event for user: {}", event.customerId());
 
             // بناء معرفات الطلبات
-            StringBuilder orderIds = new StringBuilder();
-            for (Order order : event.getOrders()) {
-                if (orderIds.length() > 0) {
-                    orderIds.append(", ");
-                }
-                orderIds.append(order.getOrderId());
-            }
+            String orderIds = String.join(", ", event.orderIds());
 
             // بناء أسماء المنتجات
-            String productNames = event.getCart().getCartItems()
-                    .stream()
-                    .map(item -> item.getProduct().getTitle())
-                    .collect(Collectors.joining(", "));
+            String productNames = String.join(", ", event.productTitles());
 
             // رسالة العميل
             String customerMessage = String.format(
                     "Your order [%s] has been successfully placed. Products: %s",
-                    orderIds.toString(),
+                    orderIds,
                     productNames
             );
 
@@ -58,7 +49,7 @@ public class OrderCustomerEventListener {
                     .message(customerMessage)
                     .read(false)
                     .role(UserRole.ROLE_CUSTOMER)
-                    .user(event.getCustomer())
+                    .user(userRepository.findById(event.customerId()).orElse(null))
                     .build();
 
             // حفظ الإشعار في قاعدة البيانات
@@ -67,27 +58,19 @@ public class OrderCustomerEventListener {
 
             // إرسال بريد إلكتروني للعميل
             try {
-                emailService.sendEmail(
-                        event.getCustomer().getEmail(),
+                mailQueueService.enqueue(
+                        event.customerEmail(),
                         "Order Placed Successfully",
                         customerMessage
                 );
-                logger.info("Email sent to: {}", event.getCustomer().getEmail());
+                logger.info("Email queued for: {}", event.customerEmail());
             } catch (Exception e) {
-                logger.error("Failed to send email to: {}", event.getCustomer().getEmail(), e);
+                logger.error("Failed to queue email for: {}", event.customerEmail(), e);
                 // لا نوقف العملية إذا فشل البريد الإلكتروني
             }
 
-            // إرسال WebSocket للعميل
-            String topicDestination = "/topic/notifications/user" + event.getCustomer().getId();
-            logger.info("Sending WebSocket notification to: {}", topicDestination);
-
-            try {
-                messagingTemplate.convertAndSend(topicDestination, savedNotification);
-                logger.info("WebSocket notification sent successfully to topic: {}", topicDestination);
-            } catch (Exception e) {
-                logger.error("Failed to send WebSocket notification to topic: {}", topicDestination, e);
-            }
+            // إرسال WebSocket للعميل بس على /user/queue/notifications
+            notificationPushService.pushToUser(event.customerEmail(), savedNotification);
 
         } catch (Exception e) {
             logger.error("Error processing order event", e);
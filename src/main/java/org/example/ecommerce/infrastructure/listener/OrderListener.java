@@ -1,47 +1,34 @@
 package org.example.ecommerce.infrastructure.listener;
 
 import lombok.RequiredArgsConstructor;
-import org.example.ecommerce.application.service.EmailService;
+import org.example.ecommerce.application.service.mail.MailQueueService;
+import org.example.ecommerce.application.service.notification.NotificationPushService;
 import org.example.ecommerce.domain.model.admin.Admin;
 import org.example.ecommerce.domain.model.admin.AdminRepository;
 import org.example.ecommerce.domain.model.notification.Notification;
 import org.example.ecommerce.domain.model.notification.repository.NotificationRepository;
-import org.example.ecommerce.domain.model.order.Order;
 import org.example.ecommerce.domain.model.user.UserRole;
-import org.example.ecommerce.infrastructure.event.OrderEvent;
+import org.example.ecommerce.infrastructure.event.OrderPlacedMessage;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class OrderListener {
 
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MailQueueService mailQueueService;
+    private final NotificationPushService notificationPushService;
     private final AdminRepository adminRepository;
 
+    // بيتنادى من الـ outbox relay بعد الـ commit
     @EventListener
-    public void handleOrderEvent(OrderEvent event) {
-        String customerName = event.getCustomer().getFullName();
-        StringBuilder orderIds = new StringBuilder();
-
-        for (Order order : event.getOrders()) {
-            orderIds.append(order.getOrderId()).append(", ");
-        }
-
-        if (orderIds.length() > 2) {
-            orderIds.setLength(orderIds.length() - 2);
-        }
-
-        String productNames = event.getCart().getCartItems()
-                .stream()
-                .map(item -> item.getProduct().getTitle())
-                .collect(Collectors.joining(", "));
+    public void handleOrderEvent(OrderPlacedMessage event) {
+        String customerName = event.customerName();
+        String orderIds = String.join(", ", event.orderIds());
+        String productNames = String.join(", ", event.productTitles());
 
         String fullMessage = "Orders [" + orderIds + "] have been placed by " + customerName
                 + ". Products: " + productNames;
@@ -56,8 +43,8 @@ public class OrderListener {
         notificationRepository.save(notification);
 
         // إرسال بريد إلكتروني للعميل
-        emailService.sendEmail(
-                event.getCustomer().getEmail(),
+        mailQueueService.enqueue(
+                event.customerEmail(),
                 "New Orders Placed",
                 fullMessage
         );
@@ -65,15 +52,16 @@ public class OrderListener {
         // إرسال بريد إلكتروني لكل Admins
         sendEmailToAllAdmins("New Orders Placed", fullMessage);
 
-        // إرسال WebSocket للـ Admins (topic عام)
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        // إرسال WebSocket للـ Admins بس
+        notificationPushService.pushToRole(UserRole.ROLE_ADMIN, notification);
 
     }
 
     private void sendEmailToAllAdmins(String title, String htmlMessage) {
-        List<Admin> admins = adminRepository.findAll();
-        for (Admin admin : admins) {
-            emailService.sendEmail(admin.getEmail(), title, htmlMessage);
-        }
+        // بيتحط في الـ mail queue بس، والإرسال بيتم في الخلفية
+        List<String> adminEmails = adminRepository.findAll().stream()
+                .map(Admin::getEmail)
+                .toList();
+        mailQueueService.enqueueAll(adminEmails, title, htmlMessage);
     }
 }
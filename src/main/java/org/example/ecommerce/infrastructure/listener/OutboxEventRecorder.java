@@ -0,0 +1,58 @@
+package org.example.ecommerce.infrastructure.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.application.service.outbox.OutboxService;
+import org.example.ecommerce.infrastructure.event.CategoryChangedMessage;
+import org.example.ecommerce.infrastructure.event.CategoryEvent;
+import org.example.ecommerce.infrastructure.event.NewSellerRegisteredEvent;
+import org.example.ecommerce.infrastructure.event.OrderEvent;
+import org.example.ecommerce.infrastructure.event.OrderPlacedMessage;
+import org.example.ecommerce.infrastructure.event.ProductChangedMessage;
+import org.example.ecommerce.infrastructure.event.ProductEvent;
+import org.example.ecommerce.infrastructure.event.SellerRegisteredMessage;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Turns the domain events published by the services into outbox rows.
+ * <p>
+ * Recording runs synchronously in the publisher's transaction, so a rollback
+ * drops the event too. The notification / mail / WebSocket listeners consume the
+ * relayed {@code *Message} snapshots instead of the domain events.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEventRecorder {
+
+    private final OutboxService outboxService;
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        outboxService.record(OrderPlacedMessage.from(event));
+    }
+
+    @EventListener
+    public void onProductEvent(ProductEvent event) {
+        outboxService.record(ProductChangedMessage.from(event));
+    }
+
+    @EventListener
+    public void onCategoryEvent(CategoryEvent event) {
+        outboxService.record(CategoryChangedMessage.from(event));
+    }
+
+    @EventListener
+    public void onNewSeller(NewSellerRegisteredEvent event) {
+        outboxService.record(SellerRegisteredMessage.from(event));
+    }
+
+    // بعد الـ commit بس: الـ relay يشتغل فورًا بدل ما يستنى الـ poll الجاي
+    @TransactionalEventListener(
+            classes = {OrderEvent.class, ProductEvent.class, CategoryEvent.class, NewSellerRegisteredEvent.class},
+            fallbackExecution = true)
+    public void afterCommit() {
+        outboxService.wakeUp();
+    }
+}
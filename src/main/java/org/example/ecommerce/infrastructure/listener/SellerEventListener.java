@@ -2,15 +2,13 @@ package org.example.ecommerce.infrastructure.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.ecommerce.application.service.EmailService;
+import org.example.ecommerce.application.service.mail.MailQueueService;
 import org.example.ecommerce.domain.model.admin.Admin;
 import org.example.ecommerce.domain.model.admin.AdminRepository;
 import org.example.ecommerce.domain.model.notification.Notification;
 import org.example.ecommerce.domain.model.notification.repository.NotificationRepository;
-import org.example.ecommerce.domain.model.seller.BusinessDetails;
-import org.example.ecommerce.domain.model.seller.Seller;
 import org.example.ecommerce.domain.model.seller.repository.SellerRepository;
-import org.example.ecommerce.infrastructure.event.NewSellerRegisteredEvent;
+import org.example.ecommerce.infrastructure.event.SellerRegisteredMessage;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
@@ -22,13 +20,12 @@ import java.util.List;
 public class SellerEventListener {
 
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
+    private final MailQueueService mailQueueService;
     private final AdminRepository adminRepository;
 
+    // بيتنادى من الـ outbox relay بعد الـ commit
     @EventListener
-    public void handleNewSeller(NewSellerRegisteredEvent event) {
-        Seller seller = event.getSeller();
-        BusinessDetails details = seller.getBusinessDetails();
+    public void handleNewSeller(SellerRegisteredMessage seller) {
 
         String title = "New Seller Registered";
 
@@ -52,27 +49,27 @@ public class SellerEventListener {
                 "          <td>" +
                 "            <p style='font-size:16px; color: #333;'>A new seller has joined your platform. Details below:</p>" +
                 "            <table cellpadding='5' cellspacing='0' style='width:100%; border-collapse: collapse;'>" +
-                "              <tr><td><strong>Full Name:</strong></td><td>" + seller.getUser().getFullName() + "</td></tr>" +
-                "              <tr><td><strong>Email Verified:</strong></td><td>" + (seller.getIsEmailVerified() ? "Yes" : "No") + "</td></tr>" +
-                "              <tr><td><strong>Account Status:</strong></td><td>" + (seller.getAccountStatus() != null ? seller.getAccountStatus() : "N/A") + "</td></tr>" +
-                "              <tr><td><strong>Business Name:</strong></td><td>" + details.getBusinessName() + "</td></tr>" +
-                "              <tr><td><strong>Business Email:</strong></td><td>" + details.getBusinessEmail() + "</td></tr>" +
-                "              <tr><td><strong>Business Mobile:</strong></td><td>" + details.getBusinessMobile() + "</td></tr>" +
-                "              <tr><td><strong>Business Address:</strong></td><td>" + details.getBusinessAddress() + "</td></tr>" +
+                "              <tr><td><strong>Full Name:</strong></td><td>" + seller.fullName() + "</td></tr>" +
+                "              <tr><td><strong>Email Verified:</strong></td><td>" + (seller.emailVerified() ? "Yes" : "No") + "</td></tr>" +
+                "              <tr><td><strong>Account Status:</strong></td><td>" + (seller.accountStatus() != null ? seller.accountStatus() : "N/A") + "</td></tr>" +
+                "              <tr><td><strong>Business Name:</strong></td><td>" + seller.businessName() + "</td></tr>" +
+                "              <tr><td><strong>Business Email:</strong></td><td>" + seller.businessEmail() + "</td></tr>" +
+                "              <tr><td><strong>Business Mobile:</strong></td><td>" + seller.businessMobile() + "</td></tr>" +
+                "              <tr><td><strong>Business Address:</strong></td><td>" + seller.businessAddress() + "</td></tr>" +
                 "            </table>" +
                 "          </td>" +
                 "        </tr>";
 
         // إضافة الشعار والبنر لو موجود
-        if(details.getLogo() != null && !details.getLogo().isEmpty()) {
+        if(seller.logo() != null && !seller.logo().isEmpty()) {
             htmlMessage += "<tr><td style='text-align:center; padding-top:15px;'>" +
-                    "<img src='" + details.getLogo() + "' alt='Business Logo' style='max-width:150px; height:auto;'/>" +
+                    "<img src='" + seller.logo() + "' alt='Business Logo' style='max-width:150px; height:auto;'/>" +
                     "</td></tr>";
         }
 
-        if(details.getBanner() != null && !details.getBanner().isEmpty()) {
+        if(seller.banner() != null && !seller.banner().isEmpty()) {
             htmlMessage += "<tr><td style='text-align:center; padding-top:15px;'>" +
-                    "<img src='" + details.getBanner() + "' alt='Business Banner' style='max-width:100%; height:auto; border-radius:5px;'/>" +
+                    "<img src='" + seller.banner() + "' alt='Business Banner' style='max-width:100%; height:auto; border-radius:5px;'/>" +
                     "</td></tr>";
         }
 
@@ -97,22 +94,22 @@ public class SellerEventListener {
         // حفظ الإشعار في قاعدة البيانات
         Notification notification = Notification.builder()
                 .title(title)
-                .message("New seller: " + seller.getUser().getFullName())
+                .message("New seller: " + seller.fullName())
                 .build();
         notificationRepository.save(notification);
 
         // إرسال الإيميل
         sendEmailToAllAdmins( title,htmlMessage);
 
-        log.info("Admin notified (DB + Email) about new seller: {}", seller.getUser().getFullName());
+        log.info("Admin notified (DB + Email) about new seller: {}", seller.fullName());
     }
 
     public void sendEmailToAllAdmins(String title, String htmlMessage) {
-        List<Admin> admins = adminRepository.findAll();
-
-        for (Admin admin : admins) {
-            emailService.sendEmail(admin.getEmail(), title, htmlMessage);
-        }
+        // بيتحط في الـ mail queue بس، والإرسال بيتم في الخلفية
+        List<String> adminEmails = adminRepository.findAll().stream()
+                .map(Admin::getEmail)
+                .toList();
+        mailQueueService.enqueueAll(adminEmails, title, htmlMessage);
     }
 
     // نفس الطريقة تنطبق على تحديث البيانات أو حذف الايميل
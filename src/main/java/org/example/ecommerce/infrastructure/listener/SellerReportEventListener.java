@@ -0,0 +1,23 @@
+package org.example.ecommerce.infrastructure.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.application.service.seller_report.SellerAnalyticsService;
+import org.example.ecommerce.application.service.seller_report.SellerReportService;
+import org.example.ecommerce.infrastructure.event.OrderLifecycleEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class SellerReportEventListener {
+
+    private final SellerReportService sellerReportService;
+    private final SellerAnalyticsService sellerAnalyticsService;
+
+    // بعد الـ commit بس، عشان تغيير اترجع ما يتحسبش
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderLifecycleEvent event) {
+        sellerReportService.record(event);
+        sellerAnalyticsService.record(event);
+    }
+}
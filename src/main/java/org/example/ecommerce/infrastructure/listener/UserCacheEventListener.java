@@ -0,0 +1,28 @@
+package org.example.ecommerce.infrastructure.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.user.PrincipalCache;
+import org.example.ecommerce.application.service.user.impl.GetUserContext;
+import org.example.ecommerce.infrastructure.event.UserChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheEventListener {
+
+    private final PrincipalCache principalCache;
+    private final GetUserContext getUserContext;
+
+    // بعد الـ commit: لو مسحنا قبله، request تانية ممكن تقرا القيمة القديمة وتخزنها تاني
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleUserChanged(UserChangedEvent event) {
+        log.debug("User {} changed, dropping cached principal and profile", event.getUserId());
+        if (event.getEmail() != null) {
+            principalCache.invalidate(event.getEmail());
+        }
+        getUserContext.invalidate(event.getUserId());
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.domain.model.product.ProductCounterDelta;
+import org.example.ecommerce.domain.model.product.repository.ProductCounterRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link ProductCounterRepository}.
+ * Uses relative updates so concurrent flushes never overwrite each other. The
+ * split batches are only all-or-nothing inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcProductCounterRepository implements ProductCounterRepository {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE product SET views_counter = COALESCE(views_counter, 0) + ?, " +
+                    "search_counter = COALESCE(search_counter, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void incrementCounters(List<ProductCounterDelta> deltas, int batchSize) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, deltas, batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.views());
+            ps.setLong(2, delta.searches());
+            ps.setLong(3, delta.productId());
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerReportCounterRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link SellerReportCounterRepository}.
+ * All deltas go out as one batch of relative UPDATEs; sellers without a report
+ * row yet get an INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcSellerReportCounterRepository implements SellerReportCounterRepository {
+
+    private static final String UPDATE_SQL = """
+            UPDATE seller_report SET
+                total_orders = COALESCE(total_orders, 0) + ?,
+                canceled_orders = COALESCE(canceled_orders, 0) + ?,
+                total_transactions = COALESCE(total_transactions, 0) + ?,
+                total_sales = COALESCE(total_sales, 0) + ?,
+                total_earnings = COALESCE(total_earnings, 0) + ?,
+                total_refunds = COALESCE(total_refunds, 0) + ?,
+                net_earnings = COALESCE(net_earnings, 0) + ?,
+                updated_at = ?
+            WHERE seller_id = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO seller_report (seller_id, total_orders, canceled_orders, total_transactions,
+                total_sales, total_earnings, total_refunds, net_earnings, total_tax, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyDeltas(Collection<SellerReportCounters> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<SellerReportCounters> rows = new ArrayList<>(deltas);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, delta) -> {
+            ps.setLong(1, delta.totalOrders());
+            ps.setLong(2, delta.canceledOrders());
+            ps.setLong(3, delta.totalTransactions());
+            ps.setLong(4, delta.totalSales());
+            ps.setLong(5, delta.totalEarnings());
+            ps.setLong(6, delta.totalRefunds());
+            ps.setLong(7, delta.netEarnings());
+            ps.setTimestamp(8, now);
+            ps.setLong(9, delta.sellerId());
+        })[0];
+
+        for (int i = 0; i < rows.size(); i++) {
+            // SUCCESS_NO_INFO (-2) معناه الصف اتحدث
+            if (updated[i] == 0) {
+                insert(rows.get(i), now);
+            }
+        }
+    }
+
+    private void insert(SellerReportCounters delta, Timestamp now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, delta.sellerId(), delta.totalOrders(), delta.canceledOrders(),
+                    delta.totalTransactions(), delta.totalSales(), delta.totalEarnings(), delta.totalRefunds(),
+                    delta.netEarnings(), now, now);
+        } catch (DuplicateKeyException e) {
+            // instance تانية عملت الصف في نفس اللحظة
+            applyDeltas(List.of(delta));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesDelta;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerSalesDeltaRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link SellerSalesDeltaRepository}: one batch of relative
+ * UPDATEs, then an INSERT for each bucket that had no row yet.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcSellerSalesDeltaRepository implements SellerSalesDeltaRepository {
+
+    private static final String UPDATE_SQL = """
+            UPDATE seller_sales_rollup SET
+                orders_placed = orders_placed + ?,
+                orders_cancelled = orders_cancelled + ?,
+                orders_paid = orders_paid + ?,
+                revenue = revenue + ?,
+                refunds = refunds + ?,
+                updated_at = ?
+            WHERE seller_id = ? AND granularity = ? AND bucket_start = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO seller_sales_rollup (seller_id, granularity, bucket_start, orders_placed, orders_cancelled,
+                orders_paid, revenue, refunds, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyDeltas(Collection<SellerSalesDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<SellerSalesDelta> rows = new ArrayList<>(deltas);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, delta) -> {
+            ps.setLong(1, delta.ordersPlaced());
+            ps.setLong(2, delta.ordersCancelled());
+            ps.setLong(3, delta.ordersPaid());
+            ps.setLong(4, delta.revenue());
+            ps.setLong(5, delta.refunds());
+            ps.setTimestamp(6, now);
+            ps.setLong(7, delta.sellerId());
+            ps.setString(8, delta.granularity().name());
+            ps.setTimestamp(9, Timestamp.valueOf(delta.bucketStart()));
+        })[0];
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                insert(rows.get(i), now);
+            }
+        }
+    }
+
+    private void insert(SellerSalesDelta delta, Timestamp now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, delta.sellerId(), delta.granularity().name(),
+                    Timestamp.valueOf(delta.bucketStart()), delta.ordersPlaced(), delta.ordersCancelled(),
+                    delta.ordersPaid(), delta.revenue(), delta.refunds(), now, now);
+        } catch (DuplicateKeyException e) {
+            // instance تانية عملت نفس الـ bucket في نفس اللحظة
+            applyDeltas(List.of(delta));
+        }
+    }
+}
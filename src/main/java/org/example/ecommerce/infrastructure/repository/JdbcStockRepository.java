@@ -0,0 +1,34 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.domain.model.inventory.repository.StockRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC implementation of {@link StockRepository}.
+ * The check and the decrement are one conditional UPDATE, so concurrent
+ * checkouts can never take the quantity below zero.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcStockRepository implements StockRepository {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE product SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE product SET quantity = COALESCE(quantity, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean tryDecrement(Long productId, int quantity) {
+        return jdbcTemplate.update(DECREMENT_SQL, quantity, productId, quantity) == 1;
+    }
+
+    @Override
+    public void increment(Long productId, int quantity) {
+        jdbcTemplate.update(INCREMENT_SQL, quantity, productId);
+    }
+}
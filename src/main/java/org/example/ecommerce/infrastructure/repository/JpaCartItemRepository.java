@@ -4,15 +4,24 @@ import org.example.ecommerce.domain.model.cart.Cart;
 import org.example.ecommerce.domain.model.cart.CartItem;
 import org.example.ecommerce.domain.model.cart.repository.CartItemRepository;
 import org.example.ecommerce.domain.model.product.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JpaCartItemRepository extends CrudRepository<CartItem, Long> , CartItemRepository {
 
     Optional<CartItem> findByCartAndProduct(Cart cart, Product product);
+    Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+
+    // عناصر أكتر من سلة مع منتجاتها في query واحدة
+    @EntityGraph(attributePaths = "product")
+    List<CartItem> findByCartIdIn(Collection<Long> cartIds);
+
     Optional<CartItem> findCartItemById(Long id);
     void deleteCartItemById(Long id);
 }
@@ -3,8 +3,12 @@ package org.example.ecommerce.infrastructure.repository;
 import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.category.reppository.CategoryRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +26,47 @@ public interface JpaCategoryRepository extends JpaRepository<Category, Long>, Ca
      * @return an Optional containing the Category if found, or empty if not
      */
     Optional<Category> findByCategoryId(String categoryId);
+
+    /**
+     * Rewrites the path prefix of every category under {@code oldPrefix}.
+     *
+     * @param oldPrefix the moved category's previous path
+     * @param newPrefix the moved category's new path
+     * @return number of updated categories
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Category c
+            SET c.path = CONCAT(:newPrefix, SUBSTRING(c.path, LENGTH(:oldPrefix) + 1))
+            WHERE c.path LIKE CONCAT(:oldPrefix, '%')
+            """)
+    int replacePathPrefix(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
+
+    /**
+     * Deletes a category and all of its descendants in one statement.
+     *
+     * @param path the path of the subtree root
+     * @return number of deleted categories
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.path LIKE CONCAT(:path, '%')")
+    int deleteSubtree(@Param("path") String path);
+
+    /**
+     * Counts the products in a category and all of its descendants.
+     *
+     * @param path the path of the subtree root
+     * @return number of products in the subtree
+     */
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.category.path LIKE CONCAT(:path, '%')")
+    long countProductsInSubtree(@Param("path") String path);
+
+    /**
+     * Counts the products in the given categories.
+     *
+     * @param categories the categories to check
+     * @return number of products in those categories
+     */
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.category IN :categories")
+    long countProductsIn(@Param("categories") List<Category> categories);
 }
@@ -5,6 +5,8 @@ import org.example.ecommerce.domain.common.repository.FailedLoginAttemptReposito
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,5 +16,7 @@ public interface JpaFailedLoginAttemptRepository
     {
     Optional<FailedLoginAttempt> findByEmail(String email);
 
+    List<FailedLoginAttempt> findByAttemptsGreaterThanEqualAndLastAttemptTimeAfter(int attempts, LocalDateTime after);
+
 
 }
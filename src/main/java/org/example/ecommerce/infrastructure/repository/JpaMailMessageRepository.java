@@ -0,0 +1,65 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import org.example.ecommerce.domain.model.mail.MailMessage;
+import org.example.ecommerce.domain.model.mail.repository.MailMessageRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JpaMailMessageRepository extends JpaRepository<MailMessage, Long>, MailMessageRepository {
+
+    @Query("""
+            SELECT m.id FROM MailMessage m
+            WHERE m.status = org.example.ecommerce.domain.model.mail.MailStatus.PENDING
+              AND m.nextAttemptAt <= :now
+            ORDER BY m.nextAttemptAt
+            """)
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE MailMessage m
+            SET m.status = org.example.ecommerce.domain.model.mail.MailStatus.SENDING,
+                m.claimToken = :claimToken,
+                m.updatedAt = :now
+            WHERE m.id IN :ids
+              AND m.status = org.example.ecommerce.domain.model.mail.MailStatus.PENDING
+            """)
+    int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken, @Param("now") LocalDateTime now);
+
+    List<MailMessage> findByClaimToken(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE MailMessage m
+            SET m.status = org.example.ecommerce.domain.model.mail.MailStatus.PENDING,
+                m.claimToken = null
+            WHERE m.status = org.example.ecommerce.domain.model.mail.MailStatus.SENDING
+              AND m.updatedAt < :cutoff
+            """)
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE MailMessage m
+            SET m.status = org.example.ecommerce.domain.model.mail.MailStatus.PENDING,
+                m.claimToken = null,
+                m.nextAttemptAt = :nextAttemptAt
+            WHERE m.id IN :ids
+              AND m.claimToken = :claimToken
+              AND m.status = org.example.ecommerce.domain.model.mail.MailStatus.SENDING
+            """)
+    int release(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken,
+                @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
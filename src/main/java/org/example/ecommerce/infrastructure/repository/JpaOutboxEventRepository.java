@@ -0,0 +1,51 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import org.example.ecommerce.domain.model.outbox.OutboxEvent;
+import org.example.ecommerce.domain.model.outbox.repository.OutboxEventRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepository {
+
+    @Query("""
+            SELECT e.id FROM OutboxEvent e
+            WHERE e.status = org.example.ecommerce.domain.model.outbox.OutboxStatus.PENDING
+              AND e.nextAttemptAt <= :now
+            ORDER BY e.id
+            """)
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = org.example.ecommerce.domain.model.outbox.OutboxStatus.PUBLISHING,
+                e.claimToken = :claimToken,
+                e.updatedAt = :now
+            WHERE e.id IN :ids
+              AND e.status = org.example.ecommerce.domain.model.outbox.OutboxStatus.PENDING
+            """)
+    int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken, @Param("now") LocalDateTime now);
+
+    List<OutboxEvent> findByClaimTokenOrderById(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = org.example.ecommerce.domain.model.outbox.OutboxStatus.PENDING,
+                e.claimToken = null
+            WHERE e.status = org.example.ecommerce.domain.model.outbox.OutboxStatus.PUBLISHING
+              AND e.updatedAt < :cutoff
+            """)
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+}
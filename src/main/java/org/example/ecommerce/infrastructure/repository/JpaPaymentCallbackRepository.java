@@ -0,0 +1,51 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import org.example.ecommerce.domain.payment.PaymentCallback;
+import org.example.ecommerce.domain.payment.repository.PaymentCallbackRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JpaPaymentCallbackRepository extends JpaRepository<PaymentCallback, Long>, PaymentCallbackRepository {
+
+    @Query("""
+            SELECT c.id FROM PaymentCallback c
+            WHERE c.status = org.example.ecommerce.domain.payment.PaymentCallbackStatus.RECEIVED
+              AND c.nextAttemptAt <= :now
+            ORDER BY c.id
+            """)
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE PaymentCallback c
+            SET c.status = org.example.ecommerce.domain.payment.PaymentCallbackStatus.PROCESSING,
+                c.claimToken = :claimToken,
+                c.updatedAt = :now
+            WHERE c.id IN :ids
+              AND c.status = org.example.ecommerce.domain.payment.PaymentCallbackStatus.RECEIVED
+            """)
+    int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken, @Param("now") LocalDateTime now);
+
+    List<PaymentCallback> findByClaimTokenOrderById(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE PaymentCallback c
+            SET c.status = org.example.ecommerce.domain.payment.PaymentCallbackStatus.RECEIVED,
+                c.claimToken = null
+            WHERE c.status = org.example.ecommerce.domain.payment.PaymentCallbackStatus.PROCESSING
+              AND c.updatedAt < :cutoff
+            """)
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,24 +1,110 @@
 package org.example.ecommerce.infrastructure.repository;
 
-import org.example.ecommerce.domain.model.category.Category;
 import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.ProductCard;
 import org.example.ecommerce.domain.model.product.repository.ProductRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface JpaProductRepository extends JpaRepository<Product, Long> ,
         ProductRepository {
 
-    Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
-    Page<Product> findBySellerId(Long sellerId, Pageable pageable);
-
-    Page<Product> findAllByOrderByViewsCounterDesc(Pageable pageable);
-    Page<Product> findAllByOrderBySearchCounterDesc(Pageable pageable);
+    // حقول الكارت بس في SQL واحد: من غير category / seller / reviews
+    String CARD_SELECT = """
+            SELECT new org.example.ecommerce.domain.model.product.ProductCard(
+                p.id, p.title, p.sellingPrice, p.maximumRetailPrice, p.discountPercentage,
+                (SELECT MIN(i) FROM Product p2 JOIN p2.images i WHERE p2.id = p.id),
+                p.category.id, p.createdAt, p.viewsCounter, p.searchCounter)
+            FROM Product p
+            """;
 
     Page<Product> findByIsVerified(Boolean isVerified, Pageable pageable);
-}
 
+    // =================== product cards (offset pagination) ===================
+
+    @Query(value = CARD_SELECT + " WHERE p.isVerified = true",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isVerified = true")
+    Page<ProductCard> findVerifiedCards(Pageable pageable);
+
+    @Query(value = CARD_SELECT + " WHERE p.isVerified = true AND p.category.id = :categoryId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isVerified = true AND p.category.id = :categoryId")
+    Page<ProductCard> findVerifiedCardsByCategory(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    // كل المنتجات تحت التصنيف وفروعه: prefix match على category.path
+    @Query(value = CARD_SELECT + " WHERE p.isVerified = true AND p.category.path LIKE CONCAT(:path, '%')",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isVerified = true AND p.category.path LIKE CONCAT(:path, '%')")
+    Page<ProductCard> findVerifiedCardsByCategoryPath(@Param("path") String path, Pageable pageable);
+
+    @Query(value = CARD_SELECT + " WHERE p.isVerified = true AND p.seller.id = :sellerId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isVerified = true AND p.seller.id = :sellerId")
+    Page<ProductCard> findVerifiedCardsBySeller(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query(value = CARD_SELECT + " WHERE p.isVerified = true ORDER BY p.viewsCounter DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isVerified = true")
+    Page<ProductCard> findVerifiedCardsOrderByViewsCounter(Pageable pageable);
+
+    @Query(value = CARD_SELECT + " WHERE p.isVerified = true ORDER BY p.searchCounter DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isVerified = true")
+    Page<ProductCard> findVerifiedCardsOrderBySearchCounter(Pageable pageable);
+
+    // =================== keyset (seek) pagination ===================
+    // كل query بترجع List عشان Spring Data ما يعملش count query
+
+    @Query(CARD_SELECT + """
+            WHERE p.isVerified = true
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<ProductCard> findVerifiedNewestAfter(@Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    @Query(CARD_SELECT + """
+            WHERE p.isVerified = true
+              AND p.category.id = :categoryId
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<ProductCard> findVerifiedByCategoryNewestAfter(@Param("categoryId") Long categoryId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
+    @Query(CARD_SELECT + """
+            WHERE p.isVerified = true
+              AND p.seller.id = :sellerId
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<ProductCard> findVerifiedBySellerNewestAfter(@Param("sellerId") Long sellerId,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
+
+    @Query(CARD_SELECT + """
+            WHERE p.isVerified = true
+              AND (p.viewsCounter < :viewsCounter OR (p.viewsCounter = :viewsCounter AND p.id < :id))
+            ORDER BY p.viewsCounter DESC, p.id DESC
+            """)
+    List<ProductCard> findVerifiedMostViewedAfter(@Param("viewsCounter") Long viewsCounter,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    @Query(CARD_SELECT + """
+            WHERE p.isVerified = true
+              AND (p.searchCounter < :searchCounter OR (p.searchCounter = :searchCounter AND p.id < :id))
+            ORDER BY p.searchCounter DESC, p.id DESC
+            """)
+    List<ProductCard> findVerifiedMostSearchedAfter(@Param("searchCounter") Long searchCounter,
+                                                    @Param("id") Long id,
+                                                    Limit limit);
+}
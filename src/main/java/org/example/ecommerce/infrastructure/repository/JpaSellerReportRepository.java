@@ -0,0 +1,29 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import org.example.ecommerce.domain.model.seller_report.SellerReport;
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerReportRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JpaSellerReportRepository extends JpaRepository<SellerReport, Long>, SellerReportRepository {
+
+    Optional<SellerReport> findBySellerId(Long sellerId);
+
+    @Query("""
+            SELECT new org.example.ecommerce.domain.model.seller_report.SellerReportCounters(
+                r.seller.id,
+                CAST(COALESCE(r.totalOrders, 0) AS Long),
+                CAST(COALESCE(r.canceledOrders, 0) AS Long),
+                CAST(COALESCE(r.totalTransactions, 0) AS Long),
+                COALESCE(r.totalSales, 0), COALESCE(r.totalEarnings, 0),
+                COALESCE(r.totalRefunds, 0), COALESCE(r.netEarnings, 0))
+            FROM SellerReport r
+            """)
+    List<SellerReportCounters> findAllCounters();
+}
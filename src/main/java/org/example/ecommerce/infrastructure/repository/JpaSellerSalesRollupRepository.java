@@ -0,0 +1,41 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import org.example.ecommerce.domain.model.seller_report.ReportGranularity;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesPoint;
+import org.example.ecommerce.domain.model.seller_report.SellerSalesRollup;
+import org.example.ecommerce.domain.model.seller_report.repository.SellerSalesRollupRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JpaSellerSalesRollupRepository extends JpaRepository<SellerSalesRollup, Long>, SellerSalesRollupRepository {
+
+    @Query("""
+            SELECT new org.example.ecommerce.domain.model.seller_report.SellerSalesPoint(
+                r.bucketStart, r.ordersPlaced, r.ordersCancelled, r.ordersPaid, r.revenue, r.refunds)
+            FROM SellerSalesRollup r
+            WHERE r.sellerId = :sellerId
+              AND r.granularity = :granularity
+              AND r.bucketStart >= :from AND r.bucketStart < :to
+            ORDER BY r.bucketStart
+            """)
+    List<SellerSalesPoint> findPoints(@Param("sellerId") Long sellerId,
+                                      @Param("granularity") ReportGranularity granularity,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    @Query("SELECT DISTINCT r.sellerId FROM SellerSalesRollup r")
+    List<Long> findSellerIds();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SellerSalesRollup r WHERE r.sellerId = :sellerId AND r.bucketStart < :cutoff")
+    int deleteBucketsBefore(@Param("sellerId") Long sellerId, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,48 @@
+package org.example.ecommerce.infrastructure.repository;
+
+import org.example.ecommerce.domain.model.inventory.ReservationStatus;
+import org.example.ecommerce.domain.model.inventory.StockReservation;
+import org.example.ecommerce.domain.model.inventory.repository.StockReservationRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JpaStockReservationRepository extends JpaRepository<StockReservation, Long>, StockReservationRepository {
+
+    @Query("""
+            SELECT DISTINCT r.orderId FROM StockReservation r
+            WHERE r.status = org.example.ecommerce.domain.model.inventory.ReservationStatus.ACTIVE
+              AND r.expiresAt <= :now
+            """)
+    List<Long> findExpiredOrderIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = org.example.ecommerce.domain.model.inventory.ReservationStatus.RELEASED
+            WHERE r.id = :id
+              AND r.status = :status
+            """)
+    int release(@Param("id") Long id, @Param("status") ReservationStatus status);
+
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = org.example.ecommerce.domain.model.inventory.ReservationStatus.CONFIRMED
+            WHERE r.orderId IN :orderIds
+              AND r.status = org.example.ecommerce.domain.model.inventory.ReservationStatus.ACTIVE
+            """)
+    int confirmByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT DISTINCT r.orderId FROM StockReservation r WHERE r.orderId IN :orderIds AND r.status = :status")
+    List<Long> findOrderIdsByStatus(@Param("orderIds") Collection<Long> orderIds,
+                                    @Param("status") ReservationStatus status);
+}
@@ -3,7 +3,11 @@ package org.example.ecommerce.infrastructure.repository;
 import org.example.ecommerce.domain.model.user.User;
 import org.example.ecommerce.domain.model.user.repository.UserRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -15,5 +19,11 @@ public interface JpaUserRepository extends JpaRepository<User, Long>, UserReposi
     @Override
     Optional<User> findByPhoneNumber(String phoneNumber);
 
-
+    @Override
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("currentPassword") String currentPassword,
+                                  @Param("newPassword") String newPassword);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package org.example.ecommerce.infrastructure.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated listing.
+ * <p>
+ * Unlike {@link org.springframework.data.domain.Page} it carries no total count;
+ * the client passes {@code nextCursor} back to fetch the following page.
+ * </p>
+ *
+ * @param content    the items of this page
+ * @param nextCursor opaque token for the next page, or null on the last page
+ * @param hasNext    whether another page exists
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext) {
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.ecommerce.infrastructure.utils;
+
+import org.example.ecommerce.domain.common.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination: the sort key and id of the last row
+ * of the previous page, encoded as URL-safe Base64 so clients treat it as opaque.
+ *
+ * @param key the last sort key, as a string
+ * @param id  the last id, used as a tie-breaker
+ */
+public record Cursor(String key, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static String encode(Object key, Long id) {
+        String raw = String.valueOf(key) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new Cursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor key: " + key);
+        }
+    }
+
+    public long keyAsLong() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor key: " + key);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.ecommerce.infrastructure.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.infrastructure.config.constant.ApplicationConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single place that owns the JWT signing keys and the (immutable, thread-safe) parser.
+ * <p>
+ * Keys are derived once at startup. Tokens are signed with the active key and carry
+ * its {@code kid}; verification picks the key by {@code kid}, so tokens signed with a
+ * previous key keep working during a rotation. Tokens without {@code kid} (issued
+ * before rotation support) are verified with the active key.
+ * </p>
+ * <p>
+ * The validator filter stores the verified claims as a request attribute, and
+ * {@link #verify(String)} reuses them for the same token instead of checking the
+ * HMAC again.
+ * </p>
+ */
+@Component
+@Slf4j
+public class JwtTokenVerifier {
+
+    public static final String CLAIMS_ATTRIBUTE = JwtTokenVerifier.class.getName() + ".CLAIMS";
+    public static final String TOKEN_ATTRIBUTE = JwtTokenVerifier.class.getName() + ".TOKEN";
+
+    private final String activeKid;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> keysByKid;
+    private final JwtParser parser;
+
+    /**
+     * @param secret       the active secret
+     * @param activeKid    key id written into new tokens
+     * @param previousKeys retired keys still accepted, as {@code kid:secret,kid:secret}
+     */
+    public JwtTokenVerifier(
+            @Value("${" + ApplicationConstants.JWT_SECRET_KEY + ":" + ApplicationConstants.JWT_SECRET_DEFAULT_VALUE + "}") String secret,
+            @Value("${jwt.kid:default}") String activeKid,
+            @Value("${jwt.previous-keys:}") String previousKeys) {
+        this.activeKid = activeKid;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(activeKid, signingKey);
+        for (String entry : previousKeys.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator > 0) {
+                String kid = entry.substring(0, separator).trim();
+                String previousSecret = entry.substring(separator + 1).trim();
+                keys.putIfAbsent(kid, Keys.hmacShaKeyFor(previousSecret.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        this.keysByKid = Collections.unmodifiableMap(keys);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+                        if (kid == null) {
+                            return signingKey;
+                        }
+                        SecretKey key = keysByKid.get(kid);
+                        if (key == null) {
+                            throw new SignatureException("Unknown JWT key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        log.info("JWT verifier initialised: active kid={}, accepted kids={}", activeKid, keysByKid.keySet());
+    }
+
+    /**
+     * Verifies a token (with or without the {@code Bearer } prefix) and returns its claims.
+     * Reuses the claims already verified for this request when the token is the same.
+     *
+     * @param jwt the raw token or Authorization header value
+     * @return the verified claims
+     */
+    public Claims verify(String jwt) {
+        String token = stripBearer(jwt);
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT is null or empty");
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && token.equals(attributes.getAttribute(TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))
+                && attributes.getAttribute(CLAIMS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Claims claims) {
+            return claims;
+        }
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verifies a token and exposes the claims on the request for later {@link #verify(String)} calls.
+     *
+     * @param request the current request
+     * @param jwt     the raw token or Authorization header value
+     * @return the verified claims
+     */
+    public Claims verifyAndStore(HttpServletRequest request, String jwt) {
+        String token = stripBearer(jwt);
+        Claims claims = verify(token);
+        request.setAttribute(TOKEN_ATTRIBUTE, token);
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        return claims;
+    }
+
+    public SecretKey signingKey() {
+        return signingKey;
+    }
+
+    public String activeKid() {
+        return activeKid;
+    }
+
+    private String stripBearer(String jwt) {
+        if (jwt != null && jwt.startsWith(ApplicationConstants.JWT_BEARER_PREFIX)) {
+            return jwt.substring(ApplicationConstants.JWT_BEARER_PREFIX.length()).trim();
+        }
+        return jwt;
+    }
+}
@@ -1,35 +1,17 @@
 package org.example.ecommerce.infrastructure.utils;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.example.ecommerce.infrastructure.config.constant.ApplicationConstants;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
-    @Value("${" + ApplicationConstants.JWT_SECRET_KEY + ":" + ApplicationConstants.JWT_SECRET_DEFAULT_VALUE + "}")
-    private String jwtSecret;
+    private final JwtTokenVerifier jwtTokenVerifier;
 
     public String extractEmailFromJwt(String jwt) {
-        jwt = cleanJwtToken(jwt);
-
-        if (jwt == null || jwt.trim().isEmpty()) {
-            throw new IllegalArgumentException("JWT is null or empty");
-        }
-
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(jwt)
-                .getPayload();
+        Claims claims = getClaims(jwt);
 
         String email = (String) claims.get("username");
 
@@ -44,13 +26,6 @@ public class JwtUtil {
         return email;
     }
 
-    private String cleanJwtToken(String jwt) {
-        if (jwt != null && jwt.startsWith("Bearer ")) {
-            return jwt.substring(7);
-        }
-        return jwt;
-    }
-
     public Long extractUserIdFromJwt(String jwt) {
         Claims claims = getClaims(jwt);
         Object idObj = claims.get("id"); // أو "userId" حسب الـ JWT
@@ -63,17 +38,10 @@ public class JwtUtil {
             throw new IllegalArgumentException("Invalid userId in JWT");
         }
     }
+
+    // بيرجع الـ claims اللي اتحققت في الفلتر لو نفس التوكن
     private Claims getClaims(String jwt) {
-        jwt = cleanJwtToken(jwt);
-        if (jwt == null || jwt.trim().isEmpty()) {
-            throw new IllegalArgumentException("JWT is null or empty");
-        }
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(jwt)
-                .getPayload();
+        return jwtTokenVerifier.verify(jwt);
     }
 }
 
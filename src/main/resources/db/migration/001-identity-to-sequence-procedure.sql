@@ -0,0 +1,114 @@
+-- =====================================================================
+-- dbo.identity_to_sequence: turns an IDENTITY "id" column into a plain
+-- BIGINT fed by a Hibernate pooled sequence (increment 50).
+--
+-- Needed on existing databases for every entity that moved from
+-- BaseEntity (IDENTITY) to PooledEntity (SEQUENCE): ddl-auto=update never
+-- alters an existing column, and SQL Server rejects the explicit id values
+-- Hibernate inserts into an IDENTITY column.
+--
+-- What it does, in one transaction per table:
+--   1. drops the foreign keys that reference <table>.id (kept for step 4)
+--   2. rebuilds id as BIGINT NOT NULL without IDENTITY, values unchanged
+--   3. restores the primary key under its original name
+--   4. recreates the foreign keys under their original names
+--   5. creates <sequence> (or restarts it if Hibernate already created it)
+--      at MAX(id) + 51. The pooled optimizer hands out the block
+--      [value - 49, value], so the first value must be at least
+--      MAX(id) + 50 for the first block to stay above existing rows.
+--
+-- Idempotent: a table already converted only gets its sequence checked,
+-- and a sequence is never moved backwards.
+-- =====================================================================
+CREATE OR ALTER PROCEDURE dbo.identity_to_sequence
+    @table SYSNAME,
+    @sequence SYSNAME
+AS
+BEGIN
+    SET NOCOUNT ON;
+    SET XACT_ABORT ON;
+
+    DECLARE @object_id INT = OBJECT_ID(@table, 'U');
+    IF @object_id IS NULL
+    BEGIN
+        PRINT 'Table ' + @table + ' does not exist, nothing to migrate';
+        RETURN;
+    END;
+
+    DECLARE @schema SYSNAME = OBJECT_SCHEMA_NAME(@object_id);
+    DECLARE @qualified NVARCHAR(300) = QUOTENAME(@schema) + N'.' + QUOTENAME(@table);
+    DECLARE @sql NVARCHAR(MAX);
+
+    BEGIN TRANSACTION;
+
+    IF COLUMNPROPERTY(@object_id, 'id', 'IsIdentity') = 1
+    BEGIN
+        DECLARE @fks TABLE (drop_sql NVARCHAR(MAX), create_sql NVARCHAR(MAX));
+
+        INSERT INTO @fks (drop_sql, create_sql)
+        SELECT N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+                   + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name),
+               N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+                   + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' ADD CONSTRAINT ' + QUOTENAME(fk.name)
+                   + N' FOREIGN KEY (' + QUOTENAME(pc.name) + N') REFERENCES ' + @qualified + N' (id)'
+        FROM sys.foreign_keys fk
+                 JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+                 JOIN sys.columns pc ON pc.object_id = fkc.parent_object_id AND pc.column_id = fkc.parent_column_id
+        WHERE fk.referenced_object_id = @object_id;
+
+        SELECT @sql = STRING_AGG(CAST(drop_sql AS NVARCHAR(MAX)), N'; ') FROM @fks;
+        IF @sql IS NOT NULL EXEC sp_executesql @sql;
+
+        DECLARE @pk SYSNAME = (SELECT name FROM sys.key_constraints
+                               WHERE parent_object_id = @object_id AND type = 'PK');
+        IF @pk IS NOT NULL
+        BEGIN
+            SET @sql = N'ALTER TABLE ' + @qualified + N' DROP CONSTRAINT ' + QUOTENAME(@pk);
+            EXEC sp_executesql @sql;
+        END;
+
+        SET @sql = N'ALTER TABLE ' + @qualified + N' ADD id_migrated BIGINT NULL';
+        EXEC sp_executesql @sql;
+        SET @sql = N'UPDATE ' + @qualified + N' SET id_migrated = id';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + @qualified + N' DROP COLUMN id';
+        EXEC sp_executesql @sql;
+        DECLARE @column NVARCHAR(400) = @schema + N'.' + @table + N'.id_migrated';
+        EXEC sp_rename @column, 'id', 'COLUMN';
+        SET @sql = N'ALTER TABLE ' + @qualified + N' ALTER COLUMN id BIGINT NOT NULL';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + @qualified + N' ADD CONSTRAINT '
+            + QUOTENAME(COALESCE(@pk, N'PK_' + @table)) + N' PRIMARY KEY (id)';
+        EXEC sp_executesql @sql;
+
+        SET @sql = NULL;
+        SELECT @sql = STRING_AGG(CAST(create_sql AS NVARCHAR(MAX)), N'; ') FROM @fks;
+        IF @sql IS NOT NULL EXEC sp_executesql @sql;
+
+        PRINT @table + '.id converted from IDENTITY to BIGINT';
+    END;
+
+    DECLARE @start BIGINT;
+    SET @sql = N'SELECT @start = ISNULL(MAX(id), 0) + 51 FROM ' + @qualified;
+    EXEC sp_executesql @sql, N'@start BIGINT OUTPUT', @start = @start OUTPUT;
+
+    DECLARE @current BIGINT = (SELECT CAST(current_value AS BIGINT) FROM sys.sequences
+                               WHERE name = @sequence AND schema_id = SCHEMA_ID(@schema));
+    IF @current IS NULL
+    BEGIN
+        SET @sql = N'CREATE SEQUENCE ' + QUOTENAME(@schema) + N'.' + QUOTENAME(@sequence)
+            + N' AS BIGINT START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+        EXEC sp_executesql @sql;
+        PRINT 'Sequence ' + @sequence + ' created at ' + CAST(@start AS NVARCHAR(20));
+    END
+    ELSE IF @current < @start
+    BEGIN
+        SET @sql = N'ALTER SEQUENCE ' + QUOTENAME(@schema) + N'.' + QUOTENAME(@sequence)
+            + N' RESTART WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+        EXEC sp_executesql @sql;
+        PRINT 'Sequence ' + @sequence + ' restarted at ' + CAST(@start AS NVARCHAR(20));
+    END;
+
+    COMMIT TRANSACTION;
+END;
+GO
@@ -0,0 +1,8 @@
+-- Order / OrderItem ids come from pooled sequences (PooledEntity) since the
+-- checkout inserts are batched. Run after 001, BEFORE starting the new version:
+--   sqlcmd -S <host> -d <database> -i 001-identity-to-sequence-procedure.sql -i 002-orders-pooled-sequences.sql
+-- Sequence names follow Hibernate's implicit <EntityName>_SEQ after Spring's
+-- snake_case naming: Order -> order_seq, OrderItem -> order_item_seq.
+EXEC dbo.identity_to_sequence @table = 'orders', @sequence = 'order_seq';
+EXEC dbo.identity_to_sequence @table = 'order_item', @sequence = 'order_item_seq';
+GO
@@ -0,0 +1,6 @@
+-- CartItem ids come from a pooled sequence (PooledEntity) so merged guest carts
+-- are inserted with one batched saveAll. Run after 001, BEFORE starting the new version:
+--   sqlcmd -S <host> -d <database> -i 003-cart-item-pooled-sequence.sql
+-- CartItem -> cart_item_seq (Hibernate's implicit <EntityName>_SEQ, snake_cased).
+EXEC dbo.identity_to_sequence @table = 'cart_item', @sequence = 'cart_item_seq';
+GO
@@ -0,0 +1,34 @@
+-- Stock reservations take units with "UPDATE ... WHERE quantity >= ?", which never
+-- matches a NULL quantity, so such products could not be bought at all. Products
+-- without a quantity are treated as out of stock (0) until a seller sets one, and
+-- the column becomes NOT NULL DEFAULT 0. Safe to run more than once:
+--   sqlcmd -S <host> -d <database> -i 004-product-quantity-not-null.sql
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+UPDATE product SET quantity = 0 WHERE quantity IS NULL;
+
+-- ALTER COLUMN is refused while a CHECK constraint (Hibernate's @Min(0)) uses the column
+DECLARE @checks TABLE (name SYSNAME, definition NVARCHAR(MAX));
+INSERT INTO @checks
+SELECT name, definition FROM sys.check_constraints
+WHERE parent_object_id = OBJECT_ID('product')
+  AND parent_column_id = COLUMNPROPERTY(OBJECT_ID('product'), 'quantity', 'ColumnId');
+
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql += N'ALTER TABLE product DROP CONSTRAINT ' + QUOTENAME(name) + N';' FROM @checks;
+EXEC sp_executesql @sql;
+
+IF NOT EXISTS (SELECT 1 FROM sys.default_constraints
+               WHERE parent_object_id = OBJECT_ID('product')
+                 AND parent_column_id = COLUMNPROPERTY(OBJECT_ID('product'), 'quantity', 'ColumnId'))
+    ALTER TABLE product ADD CONSTRAINT df_product_quantity DEFAULT 0 FOR quantity;
+
+ALTER TABLE product ALTER COLUMN quantity INT NOT NULL;
+
+SET @sql = N'';
+SELECT @sql += N'ALTER TABLE product ADD CONSTRAINT ' + QUOTENAME(name) + N' CHECK ' + definition + N';' FROM @checks;
+EXEC sp_executesql @sql;
+
+COMMIT;
+GO
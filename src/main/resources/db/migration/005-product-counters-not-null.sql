@@ -0,0 +1,34 @@
+-- The /views and /search scrolls seek with "views_counter < ?" / "search_counter < ?",
+-- which never matches NULL, so products with a NULL counter never showed up there.
+-- NULL counters are set to 0 and both columns become NOT NULL DEFAULT 0. The
+-- indexes on them have to be dropped for the ALTER COLUMN and are created again.
+-- Safe to run more than once:
+--   sqlcmd -S <host> -d <database> -i 005-product-counters-not-null.sql
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+UPDATE product SET views_counter = 0 WHERE views_counter IS NULL;
+UPDATE product SET search_counter = 0 WHERE search_counter IS NULL;
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID('product') AND name = 'idx_product_verified_views')
+    DROP INDEX idx_product_verified_views ON product;
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID('product') AND name = 'idx_product_verified_search')
+    DROP INDEX idx_product_verified_search ON product;
+
+IF NOT EXISTS (SELECT 1 FROM sys.default_constraints
+               WHERE parent_object_id = OBJECT_ID('product')
+                 AND parent_column_id = COLUMNPROPERTY(OBJECT_ID('product'), 'views_counter', 'ColumnId'))
+    ALTER TABLE product ADD CONSTRAINT df_product_views_counter DEFAULT 0 FOR views_counter;
+IF NOT EXISTS (SELECT 1 FROM sys.default_constraints
+               WHERE parent_object_id = OBJECT_ID('product')
+                 AND parent_column_id = COLUMNPROPERTY(OBJECT_ID('product'), 'search_counter', 'ColumnId'))
+    ALTER TABLE product ADD CONSTRAINT df_product_search_counter DEFAULT 0 FOR search_counter;
+
+ALTER TABLE product ALTER COLUMN views_counter BIGINT NOT NULL;
+ALTER TABLE product ALTER COLUMN search_counter BIGINT NOT NULL;
+
+CREATE INDEX idx_product_verified_views ON product (is_verified, views_counter);
+CREATE INDEX idx_product_verified_search ON product (is_verified, search_counter);
+
+COMMIT;
+GO
@@ -0,0 +1,196 @@
+package org.example.ecommerce.application.service.authentication.impl;
+
+import org.example.ecommerce.application.service.authentication.PasswordHashingService;
+import org.example.ecommerce.domain.common.exception.PasswordHashingBusyException;
+import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.example.ecommerce.infrastructure.exception.GlobalExceptionHandler;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bounded hashing pool with an encoder that blocks until released: a saturated
+ * pool answers 429 right away, a slow hash times out, and a background rehash
+ * never overwrites a password changed while it was hashing.
+ */
+@SpringBootTest
+class BoundedPasswordHashingServiceTest extends AbstractIntegrationTest {
+
+    private static final PasswordEncoder FAST_BCRYPT = new BCryptPasswordEncoder(4);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void saturatedPoolRejectsWithTooManyRequests() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        BoundedPasswordHashingService service = new BoundedPasswordHashingService(encoder, userRepository, 1, 1, 10_000);
+        // واحد شغال على الـ thread الوحيدة، وواحد مستني في الطابور اللي سعته 1
+        Thread running = background(() -> service.matches("a", "b"));
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+        Thread queued = background(() -> service.matches("a", "b"));
+        awaitWaiting(queued);
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LoginController(service))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        long started = System.nanoTime();
+        mockMvc.perform(post("/login")).andExpect(status().isTooManyRequests());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1_000, "rejected without waiting");
+
+        encoder.release.countDown();
+        running.join(5_000);
+        queued.join(5_000);
+        service.shutdown();
+    }
+
+    @Test
+    void slowHashTimesOut() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        BoundedPasswordHashingService service = new BoundedPasswordHashingService(encoder, userRepository, 1, 1, 100);
+
+        assertThrows(PasswordHashingBusyException.class, () -> service.encode("secret"));
+
+        encoder.release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void rehashDoesNotOverwriteAConcurrentPasswordChange() throws Exception {
+        String oldHash = FAST_BCRYPT.encode("old-secret");
+        User user = saveUser(oldHash);
+        BlockingEncoder encoder = new BlockingEncoder();
+        BoundedPasswordHashingService service = new BoundedPasswordHashingService(encoder, userRepository, 1, 4, 10_000);
+
+        service.rehashInBackground(user.getId(), "old-secret", oldHash);
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+        // المستخدم غيّر الباسورد والـ rehash لسه بيحسب
+        String changedHash = FAST_BCRYPT.encode("new-secret");
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", changedHash, user.getId());
+        encoder.release.countDown();
+        service.shutdown();
+
+        assertEquals(changedHash, storedPassword(user.getId()));
+    }
+
+    @Test
+    void rehashUpgradesAnUnchangedPassword() throws Exception {
+        String oldHash = FAST_BCRYPT.encode("secret");
+        User user = saveUser(oldHash);
+        BlockingEncoder encoder = new BlockingEncoder();
+        encoder.release.countDown();
+        BoundedPasswordHashingService service = new BoundedPasswordHashingService(encoder, userRepository, 1, 4, 10_000);
+
+        service.rehashInBackground(user.getId(), "secret", oldHash);
+        service.shutdown();
+
+        String stored = storedPassword(user.getId());
+        assertNotEquals(oldHash, stored);
+        assertTrue(FAST_BCRYPT.matches("secret", stored));
+    }
+
+    private User saveUser(String passwordHash) {
+        String suffix = UUID.randomUUID().toString();
+        User user = new User();
+        user.setEmail("hash-" + suffix + "@example.com");
+        user.setPhoneNumber(suffix.substring(0, 15));
+        user.setPassword(passwordHash);
+        return userRepository.save(user);
+    }
+
+    private String storedPassword(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class, userId);
+    }
+
+    private static Thread background(Runnable task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } catch (PasswordHashingBusyException ignored) {
+                // مش موضوع الـ test
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // الـ thread عدّى الـ submit وبقى مستني الـ future
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("queued caller never started waiting");
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    /**
+     * BCrypt at cost 4 that waits for {@link #release} before hashing.
+     */
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return FAST_BCRYPT.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return FAST_BCRYPT.matches(rawPassword, encodedPassword);
+        }
+
+        private void block() {
+            started.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @RestController
+    static class LoginController {
+
+        private final PasswordHashingService passwordHashingService;
+
+        LoginController(PasswordHashingService passwordHashingService) {
+            this.passwordHashingService = passwordHashingService;
+        }
+
+        @PostMapping("/login")
+        public boolean login() {
+            return passwordHashingService.matches("secret", "$2a$04$invalid");
+        }
+    }
+}
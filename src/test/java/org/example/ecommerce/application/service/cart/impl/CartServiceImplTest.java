@@ -0,0 +1,234 @@
+package org.example.ecommerce.application.service.cart.impl;
+
+import org.example.ecommerce.application.service.cart.CartService;
+import org.example.ecommerce.domain.model.cart.Cart;
+import org.example.ecommerce.domain.model.cart.exception.CartConflictException;
+import org.example.ecommerce.domain.model.cart.repository.CartRepository;
+import org.example.ecommerce.domain.model.category.Category;
+import org.example.ecommerce.domain.model.category.reppository.CategoryRepository;
+import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.repository.ProductRepository;
+import org.example.ecommerce.domain.model.seller.Seller;
+import org.example.ecommerce.domain.model.seller.repository.SellerRepository;
+import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.example.ecommerce.support.TestTokens;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Adds to one user's cart racing each other: the versioned cart and items make a
+ * conflicting add retry on fresh rows, nothing is lost, and an add that keeps
+ * conflicting ends in {@link CartConflictException} (409). A login merge that
+ * conflicts does not fail the request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CartServiceImplTest extends AbstractIntegrationTest {
+
+    private static final int CONCURRENT_ADDS = 8;
+    private static final int MAX_ADD_ATTEMPTS = 3;
+
+    @Autowired
+    private CartService cartService;
+
+    @MockitoSpyBean
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private ExecutorService executor;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CONCURRENT_ADDS);
+        String suffix = UUID.randomUUID().toString();
+
+        User newUser = new User();
+        newUser.setEmail("cart-" + suffix + "@example.com");
+        newUser.setPhoneNumber(suffix.substring(0, 15));
+        newUser.setFullName("Cart Tester");
+        user = userRepository.save(newUser);
+
+        Category category = new Category();
+        category.setNameEn("cart-" + suffix);
+        category.setNameAr("سلة-" + suffix);
+        category.setCategoryId("cart-" + suffix);
+        category.setLevel(0);
+
+        Product newProduct = new Product();
+        newProduct.setTitle("cart product");
+        newProduct.setDescription("added concurrently");
+        newProduct.setQuantity(1000);
+        newProduct.setSellingPrice(80L);
+        newProduct.setMaximumRetailPrice(100L);
+        newProduct.setCategory(categoryRepository.save(category));
+        newProduct.setSeller(sellerRepository.save(new Seller()));
+        product = productRepository.save(newProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentAddsToTheSameCartLoseNothing() throws Exception {
+        // السلة موجودة قبلها عشان كل الـ threads تتسابق على نفس الـ version
+        cartService.addCartItem(user.getId(), product.getId(), 1, null);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_ADDS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    cartService.addCartItem(user.getId(), product.getId(), 1, null);
+                    return true;
+                } catch (CartConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int added = 1;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                added++;
+            }
+        }
+
+        assertTrue(added > 1);
+        assertEquals(added, itemQuantity());
+        assertEquals(added, cartQuantity());
+        assertEquals(added * 80L, cartSellingTotal());
+    }
+
+    @Test
+    void versionConflictIsRetriedOnFreshRows() {
+        cartService.addCartItem(user.getId(), product.getId(), 1, null);
+        clearInvocations(cartRepository);
+
+        doThrow(new ObjectOptimisticLockingFailureException(Cart.class, 0L))
+                .doCallRealMethod()
+                .when(cartRepository).save(any(Cart.class));
+
+        cartService.addCartItem(user.getId(), product.getId(), 2, null);
+
+        verify(cartRepository, times(2)).save(any(Cart.class));
+        // المحاولة الأولى اترجعت كلها، فالكمية ما اتزادتش مرتين
+        assertEquals(3, itemQuantity());
+        assertEquals(3, cartQuantity());
+    }
+
+    @Test
+    void persistentConflictGivesUpWithConflict() throws Exception {
+        cartService.addCartItem(user.getId(), product.getId(), 1, null);
+        clearInvocations(cartRepository);
+        doThrow(new ObjectOptimisticLockingFailureException(Cart.class, 0L))
+                .when(cartRepository).save(any(Cart.class));
+
+        assertThrows(CartConflictException.class,
+                () -> cartService.addCartItem(user.getId(), product.getId(), 1, null));
+        verify(cartRepository, times(MAX_ADD_ATTEMPTS)).save(any(Cart.class));
+
+        mockMvc.perform(put("/api/v1/cart")
+                        .param("product-id", product.getId().toString())
+                        .param("quantity", "1")
+                        .header("Authorization", "Bearer "
+                                + TestTokens.token(jwtTokenVerifier, user.getId(), user.getEmail(), "ROLE_CUSTOMER")))
+                .andExpect(status().isConflict());
+
+        doCallRealMethod().when(cartRepository).save(any(Cart.class));
+        assertEquals(1, itemQuantity());
+    }
+
+    @Test
+    void conflictingLoginMergeIsLeftForTheNextRequest() {
+        String tempId = "merge-" + UUID.randomUUID();
+        cartService.addCartItem(null, product.getId(), 2, tempId);
+        cartService.addCartItem(user.getId(), product.getId(), 1, null);
+        clearInvocations(cartRepository);
+
+        // طلب تاني بعد الـ login سبقنا على سلة المستخدم
+        doThrow(new ObjectOptimisticLockingFailureException(Cart.class, 0L))
+                .doCallRealMethod()
+                .when(cartRepository).save(any(Cart.class));
+
+        assertTrue(cartService.getCart(user.getId(), tempId).isPresent());
+        assertEquals(1, itemQuantity());
+
+        cartService.getCart(user.getId(), tempId);
+        cartService.getCart(user.getId(), tempId);
+        // اتدمجت مرة واحدة بس
+        assertEquals(3, itemQuantity());
+        assertEquals(3, cartQuantity());
+    }
+
+    private int itemQuantity() {
+        return jdbcTemplate.queryForObject("""
+                SELECT ci.quantity FROM cart_item ci JOIN carts c ON c.id = ci.cart_id
+                WHERE c.user_id = ? AND ci.product_id = ?""", Integer.class, user.getId(), product.getId());
+    }
+
+    private int cartQuantity() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM carts WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    private long cartSellingTotal() {
+        return jdbcTemplate.queryForObject("SELECT total_selling_price FROM carts WHERE user_id = ?", Long.class, user.getId());
+    }
+}
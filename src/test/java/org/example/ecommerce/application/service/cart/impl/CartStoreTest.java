@@ -0,0 +1,141 @@
+package org.example.ecommerce.application.service.cart.impl;
+
+import org.example.ecommerce.application.service.cart.CartStore;
+import org.example.ecommerce.domain.model.cart.GuestCart;
+import org.example.ecommerce.infrastructure.config.CartStoreConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same {@link CartStore} contract against both implementations; the Redis one
+ * runs on a throwaway Redis container.
+ */
+class CartStoreTest {
+
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void startRedis() {
+        REDIS.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        REDIS.stop();
+    }
+
+    static Stream<CartStore> stores() {
+        return Stream.of(new InMemoryCartStore(1, 1000), new RedisCartStore(redisTemplate, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void addsAccumulatePerProduct(CartStore store) {
+        String tempId = UUID.randomUUID().toString();
+
+        store.addItem(tempId, 1L, 2);
+        GuestCart cart = store.addItem(tempId, 1L, 3);
+        store.addItem(tempId, 2L, 1);
+
+        assertEquals(5, cart.quantityOf(1L));
+        assertEquals(Map.of(1L, 5, 2L, 1), store.find(tempId).orElseThrow().items());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void removeAndMergedMarker(CartStore store) {
+        String tempId = UUID.randomUUID().toString();
+        store.addItem(tempId, 1L, 1);
+
+        store.remove(tempId);
+        store.markMerged(tempId);
+        assertTrue(store.find(tempId).isEmpty());
+        assertTrue(store.isMerged(tempId));
+
+        // إضافة guest جديدة بعد الدمج لازم تتدمج تاني
+        store.addItem(tempId, 1L, 1);
+        assertFalse(store.isMerged(tempId));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void concurrentAddsAreNotLost(CartStore store) throws Exception {
+        String tempId = UUID.randomUUID().toString();
+        int threads = 8;
+        int addsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < addsPerThread; i++) {
+                    store.addItem(tempId, 7L, 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * addsPerThread, store.find(tempId).orElseThrow().quantityOf(7L));
+    }
+
+    @Test
+    void redisCartsExpire() {
+        String tempId = UUID.randomUUID().toString();
+        new RedisCartStore(redisTemplate, 1).addItem(tempId, 1L, 1);
+
+        Long ttlSeconds = redisTemplate.getExpire("cart:guest:" + tempId);
+        assertTrue(ttlSeconds != null && ttlSeconds > 3500 && ttlSeconds <= 3600, "ttl " + ttlSeconds);
+    }
+
+    @Test
+    void unknownStoreFailsStartup() {
+        CartStoreConfig config = new CartStoreConfig();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+        assertThrows(IllegalStateException.class, () -> config.cartStore("hazelcast", 1, 1000,
+                beanFactory.getBeanProvider(StringRedisTemplate.class)));
+        assertTrue(config.cartStore("memory", 1, 1000,
+                beanFactory.getBeanProvider(StringRedisTemplate.class)) instanceof InMemoryCartStore);
+    }
+}
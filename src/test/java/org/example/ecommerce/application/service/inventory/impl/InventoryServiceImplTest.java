@@ -0,0 +1,173 @@
+package org.example.ecommerce.application.service.inventory.impl;
+
+import org.example.ecommerce.application.service.inventory.InventoryService;
+import org.example.ecommerce.domain.model.category.Category;
+import org.example.ecommerce.domain.model.category.reppository.CategoryRepository;
+import org.example.ecommerce.domain.model.inventory.exception.InsufficientStockException;
+import org.example.ecommerce.domain.model.order.Order;
+import org.example.ecommerce.domain.model.order.OrderItem;
+import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.repository.ProductRepository;
+import org.example.ecommerce.domain.model.seller.Seller;
+import org.example.ecommerce.domain.model.seller.repository.SellerRepository;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reservations against a real SQL Server: many checkouts racing for the last units
+ * of one product never oversell, a payment arriving after the stock went back
+ * is reported instead of confirmed, and cancelling a paid order returns its stock.
+ */
+@SpringBootTest
+class InventoryServiceImplTest extends AbstractIntegrationTest {
+
+    private static final int UNITS = 5;
+    private static final int CHECKOUTS = 40;
+    // ids وهمية للطلبات، stock_reservation.order_id ملوش FK
+    private static final AtomicLong ORDER_IDS = new AtomicLong(System.nanoTime() & 0xFFFFFFFFFFL);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CHECKOUTS);
+        String suffix = UUID.randomUUID().toString();
+
+        Category category = new Category();
+        category.setNameEn("inventory-" + suffix);
+        category.setNameAr("مخزون-" + suffix);
+        category.setCategoryId("inventory-" + suffix);
+        category.setLevel(0);
+        category = categoryRepository.save(category);
+
+        Product newProduct = new Product();
+        newProduct.setTitle("last units");
+        newProduct.setDescription("single SKU under contention");
+        newProduct.setQuantity(UNITS);
+        newProduct.setCategory(category);
+        newProduct.setSeller(sellerRepository.save(new Seller()));
+        product = productRepository.save(newProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversellTheLastUnits() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            Order order = orderOf(1);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserve(List.of(order));
+                    return true;
+                } catch (InsufficientStockException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int reserved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                reserved++;
+            }
+        }
+
+        assertEquals(UNITS, reserved);
+        assertEquals(0, quantity());
+        assertEquals(UNITS, activeReservations());
+    }
+
+    @Test
+    void paymentAfterReleaseIsReportedNotConfirmed() {
+        Order order = orderOf(2);
+        inventoryService.reserve(List.of(order));
+        assertEquals(UNITS - 2, quantity());
+
+        // الـ sweeper أو الإلغاء رجّع المخزون قبل ما الدفع يوصل
+        inventoryService.release(order.getId());
+        List<Long> refunds = inventoryService.confirm(List.of(order));
+
+        assertEquals(List.of(order.getId()), refunds);
+        assertEquals(UNITS, quantity());
+        assertEquals(0, activeReservations());
+    }
+
+    @Test
+    void cancelAfterPaymentReturnsTheSoldStock() {
+        Order order = orderOf(2);
+        inventoryService.reserve(List.of(order));
+        assertTrue(inventoryService.confirm(List.of(order)).isEmpty());
+        assertEquals(UNITS - 2, quantity());
+
+        inventoryService.release(order.getId());
+        inventoryService.release(order.getId());
+
+        assertEquals(UNITS, quantity());
+        assertEquals(0, reservations("CONFIRMED"));
+    }
+
+    private Order orderOf(int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        Order order = new Order();
+        order.setId(ORDER_IDS.incrementAndGet());
+        order.getOrderItems().add(item);
+        return order;
+    }
+
+    private int quantity() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE id = ?", Integer.class, product.getId());
+    }
+
+    private int activeReservations() {
+        return reservations("ACTIVE");
+    }
+
+    private int reservations(String status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservation WHERE product_id = ? AND status = ?",
+                Integer.class, product.getId(), status);
+    }
+}
@@ -0,0 +1,269 @@
+package org.example.ecommerce.application.service.mail.impl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.example.ecommerce.application.service.EmailService;
+import org.example.ecommerce.domain.model.mail.MailMessage;
+import org.example.ecommerce.domain.model.mail.MailStatus;
+import org.example.ecommerce.domain.model.mail.repository.MailMessageRepository;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The mail queue against the real {@code mail_queue} table and an in-process SMTP
+ * server: claiming, batched sending, retry with backoff, dead-lettering and
+ * abandoning a hung SMTP connection. Each
+ * test drives {@link MailQueueServiceImpl#dispatch()} itself.
+ */
+@SpringBootTest
+class MailQueueServiceImplTest extends AbstractIntegrationTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    @RegisterExtension
+    static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    @Autowired
+    private MailMessageRepository mailMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MailQueueServiceImpl mailQueue;
+    private MailQueueServiceImpl unreachableMailQueue;
+
+    @BeforeEach
+    void setUp() {
+        mailQueue = mailQueue(GREEN_MAIL.getSmtp().getPort());
+        // مفيش SMTP على البورت ده فكل إرسال بيفشل
+        unreachableMailQueue = mailQueue(2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        mailQueue.shutdown();
+        unreachableMailQueue.shutdown();
+    }
+
+    @Test
+    void dueMessagesAreSentAndMarkedSent() throws Exception {
+        String first = recipient();
+        String second = recipient();
+        mailQueue.enqueueAll(List.of(first, second, first), "Order shipped", "<p>on its way</p>");
+        mailQueue.enqueue(first, "Receipt", "<p>thanks</p>");
+
+        mailQueue.dispatch();
+
+        assertEquals(2, received(first).size());
+        assertEquals(1, received(second).size());
+        assertEquals("Order shipped", received(second).get(0).getSubject());
+        for (Map<String, Object> row : rows(first, second)) {
+            assertEquals(MailStatus.SENT.name(), row.get("status"));
+            assertEquals(1, ((Number) row.get("attempts")).intValue());
+            assertNull(row.get("claim_token"));
+            assertNull(row.get("last_error"));
+            assertNotNull(row.get("sent_at"));
+        }
+
+        // مبعوتة خلاص، الـ dispatch التاني ما يبعتهاش تاني
+        mailQueue.dispatch();
+        assertEquals(2, received(first).size());
+    }
+
+    @Test
+    void rowsClaimedByAnotherInstanceAreLeftAloneUntilStale() throws Exception {
+        String to = recipient();
+        MailMessage message = mailMessageRepository.save(new MailMessage(to, "Welcome", "<p>hi</p>"));
+        assertEquals(1, mailMessageRepository.claim(List.of(message.getId()), "other-instance", LocalDateTime.now()));
+
+        mailQueue.dispatch();
+        assertEquals(0, received(to).size());
+        assertEquals(MailStatus.SENDING.name(), rows(to).get(0).get("status"));
+
+        // الـ instance التانية وقعت من ساعة
+        jdbcTemplate.update("UPDATE mail_queue SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)), message.getId());
+        mailQueue.dispatch();
+
+        assertEquals(1, received(to).size());
+        assertEquals(MailStatus.SENT.name(), rows(to).get(0).get("status"));
+    }
+
+    @Test
+    void failedSendsAreRetriedWithExponentialBackoff() throws Exception {
+        String to = recipient();
+        mailQueue.enqueue(to, "Reset password", "<p>code</p>");
+
+        LocalDateTime beforeFirst = LocalDateTime.now();
+        unreachableMailQueue.dispatch();
+        Map<String, Object> row = rows(to).get(0);
+        assertEquals(MailStatus.PENDING.name(), row.get("status"));
+        assertEquals(1, ((Number) row.get("attempts")).intValue());
+        assertNotNull(row.get("last_error"));
+        assertNull(row.get("claim_token"));
+        assertRetryAfter(row, beforeFirst, Duration.ofSeconds(INITIAL_BACKOFF_SECONDS));
+
+        // لسه وقتها ما جاش
+        mailQueue.dispatch();
+        assertEquals(0, received(to).size());
+
+        makeDue(to);
+        LocalDateTime beforeSecond = LocalDateTime.now();
+        unreachableMailQueue.dispatch();
+        row = rows(to).get(0);
+        assertEquals(2, ((Number) row.get("attempts")).intValue());
+        assertRetryAfter(row, beforeSecond, Duration.ofSeconds(INITIAL_BACKOFF_SECONDS * 2));
+
+        makeDue(to);
+        mailQueue.dispatch();
+        row = rows(to).get(0);
+        assertEquals(MailStatus.SENT.name(), row.get("status"));
+        assertEquals(3, ((Number) row.get("attempts")).intValue());
+        assertNull(row.get("last_error"));
+        assertEquals(1, received(to).size());
+    }
+
+    @Test
+    void messagesAreDeadLetteredAfterMaxAttempts() throws Exception {
+        String to = recipient();
+        mailQueue.enqueue(to, "Invoice", "<p>attached</p>");
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            makeDue(to);
+            unreachableMailQueue.dispatch();
+        }
+        Map<String, Object> row = rows(to).get(0);
+        assertEquals(MailStatus.DEAD.name(), row.get("status"));
+        assertEquals(MAX_ATTEMPTS, ((Number) row.get("attempts")).intValue());
+        assertNotNull(row.get("last_error"));
+
+        // الـ DEAD ما بتتاخدش تاني حتى لو الـ SMTP رجع
+        makeDue(to);
+        mailQueue.dispatch();
+        assertEquals(MailStatus.DEAD.name(), rows(to).get(0).get("status"));
+        assertEquals(0, received(to).size());
+    }
+
+    @Test
+    void hungSmtpConnectionIsAbandonedAndTheRowsReleased() throws Exception {
+        String to = recipient();
+        mailQueue.enqueue(to, "Order confirmed", "<p>soon</p>");
+
+        // SMTP بيقبل الـ connection وما بيردش خالص
+        try (ServerSocket silentSmtp = new ServerSocket(0)) {
+            List<Socket> accepted = Collections.synchronizedList(new ArrayList<>());
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(silentSmtp.accept());
+                    }
+                } catch (IOException ignored) {
+                    // الـ socket اتقفل في آخر الـ test
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+            MailQueueServiceImpl hungMailQueue = mailQueue(silentSmtp.getLocalPort(), 1);
+
+            LocalDateTime before = LocalDateTime.now();
+            long started = System.nanoTime();
+            hungMailQueue.dispatch();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            assertTrue(elapsedMillis < 4_000, "dispatch took " + elapsedMillis + " ms");
+
+            Map<String, Object> row = rows(to).get(0);
+            assertEquals(MailStatus.PENDING.name(), row.get("status"));
+            assertEquals(0, ((Number) row.get("attempts")).intValue());
+            assertNull(row.get("claim_token"));
+            assertRetryAfter(row, before, Duration.ofSeconds(INITIAL_BACKOFF_SECONDS));
+
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+            hungMailQueue.shutdown();
+        }
+
+        makeDue(to);
+        mailQueue.dispatch();
+        assertEquals(MailStatus.SENT.name(), rows(to).get(0).get("status"));
+        assertEquals(1, received(to).size());
+    }
+
+    private MailQueueServiceImpl mailQueue(int smtpPort) {
+        return mailQueue(smtpPort, 30);
+    }
+
+    private MailQueueServiceImpl mailQueue(int smtpPort, long sendTimeoutSeconds) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+        mailSender.getJavaMailProperties().put("mail.smtp.writetimeout", "5000");
+        return new MailQueueServiceImpl(mailMessageRepository, new EmailService(mailSender),
+                2, 100, MAX_ATTEMPTS, INITIAL_BACKOFF_SECONDS, 3600, 600, sendTimeoutSeconds);
+    }
+
+    private static String recipient() {
+        return "mail-" + UUID.randomUUID() + "@example.com";
+    }
+
+    private List<MimeMessage> received(String recipient) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (MimeMessage message : GREEN_MAIL.getReceivedMessages()) {
+            if (Arrays.stream(message.getRecipients(Message.RecipientType.TO))
+                    .anyMatch(address -> address.toString().equals(recipient))) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private List<Map<String, Object>> rows(String... recipients) {
+        String placeholders = String.join(",", Collections.nCopies(recipients.length, "?"));
+        return jdbcTemplate.queryForList(
+                "SELECT status, attempts, claim_token, last_error, sent_at, next_attempt_at FROM mail_queue"
+                        + " WHERE recipient IN (" + placeholders + ") ORDER BY id", (Object[]) recipients);
+    }
+
+    private void makeDue(String recipient) {
+        jdbcTemplate.update("UPDATE mail_queue SET next_attempt_at = ? WHERE recipient = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), recipient);
+    }
+
+    private static void assertRetryAfter(Map<String, Object> row, LocalDateTime before, Duration backoff) {
+        LocalDateTime nextAttemptAt = ((Timestamp) row.get("next_attempt_at")).toLocalDateTime();
+        assertTrue(nextAttemptAt.isAfter(before.plus(backoff).minusSeconds(1))
+                        && nextAttemptAt.isBefore(LocalDateTime.now().plus(backoff).plusSeconds(1)),
+                "next attempt at " + nextAttemptAt + ", expected about " + backoff + " after " + before);
+    }
+}
@@ -0,0 +1,313 @@
+package org.example.ecommerce.application.service.order.impl;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.application.service.cart.CartService;
+import org.example.ecommerce.application.service.order.OrderService;
+import org.example.ecommerce.domain.common.Address;
+import org.example.ecommerce.domain.common.BaseEntity;
+import org.example.ecommerce.domain.common.PooledEntity;
+import org.example.ecommerce.domain.model.cart.Cart;
+import org.example.ecommerce.domain.model.cart.repository.CartRepository;
+import org.example.ecommerce.domain.model.category.Category;
+import org.example.ecommerce.domain.model.category.reppository.CategoryRepository;
+import org.example.ecommerce.domain.model.order.Order;
+import org.example.ecommerce.domain.model.order.OrderItem;
+import org.example.ecommerce.domain.model.product.Product;
+import org.example.ecommerce.domain.model.product.repository.ProductRepository;
+import org.example.ecommerce.domain.model.seller.Seller;
+import org.example.ecommerce.domain.model.seller.repository.SellerRepository;
+import org.example.ecommerce.domain.model.user.User;
+import org.example.ecommerce.domain.model.user.repository.UserRepository;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statements and latency of writing an 8-seller, 30-item checkout, read from
+ * Hibernate {@link Statistics}.
+ * <p>
+ * The same orders/items shape is persisted once with IDENTITY ids (what
+ * orders/order_item used before) and once with pooled sequence ids (what they use
+ * now), then the real {@code createOrder} is run. IDENTITY needs one INSERT per row
+ * to get each id back; pooled ids let Hibernate send the rows as JDBC batches.
+ * The numbers are logged on every run.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Slf4j
+class CheckoutInsertBatchingTest extends AbstractIntegrationTest {
+
+    private static final int SELLERS = 8;
+    private static final int ITEMS = 30;
+    private static final int ROWS = SELLERS + ITEMS;
+    private static final int ROUNDS = 5;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void pooledIdsBatchTheCheckoutInserts() {
+        // تسخين: أول مرة فيها إنشاء الـ sequences وتحميل الـ metadata
+        persist(this::identityCheckout);
+        persist(this::pooledCheckout);
+
+        Measurement identity = Measurement.best(() -> persist(this::identityCheckout));
+        Measurement pooled = Measurement.best(() -> persist(this::pooledCheckout));
+        log.info("Checkout of {} orders / {} items, IDENTITY ids: {} statements, {} ms", SELLERS, ITEMS,
+                identity.statements(), identity.millis());
+        log.info("Checkout of {} orders / {} items, pooled ids: {} statements, {} ms", SELLERS, ITEMS,
+                pooled.statements(), pooled.millis());
+
+        assertEquals(ROWS, identity.inserts());
+        assertEquals(ROWS, pooled.inserts());
+        // IDENTITY: INSERT لكل صف عشان يرجع الـ id
+        assertTrue(identity.statements() >= ROWS, "IDENTITY statements " + identity.statements());
+        // pooled: batch للـ orders وbatch للـ items، ونداء sequence كل 50 id
+        assertTrue(pooled.statements() <= 6, "pooled statements " + pooled.statements());
+    }
+
+    @Test
+    void createOrderWritesOrdersAndItemsInBatches() {
+        User user = seedUserWithCart();
+        Address address = new Address();
+        address.setName("home");
+        address.setCity("Cairo");
+        address.setAddress("1 Tahrir St");
+
+        // التحميل برة القياس، القياس من createOrder لحد ما الـ commit يخلص
+        long started = transactionTemplate.execute(status -> {
+            User managedUser = userRepository.findById(user.getId()).orElseThrow();
+            Cart cart = cartRepository.findByUser(managedUser).orElseThrow();
+            cart.getCartItems().forEach(item -> item.getProduct().getSeller().getId());
+            statistics.clear();
+            long createStarted = System.nanoTime();
+            Set<Order> orders = orderService.createOrder(managedUser, address, cart);
+            assertEquals(SELLERS, orders.size());
+            return createStarted;
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        long orderInserts = statistics.getEntityStatistics(Order.class.getName()).getInsertCount();
+        long itemInserts = statistics.getEntityStatistics(OrderItem.class.getName()).getInsertCount();
+        log.info("createOrder for {} sellers / {} items: {} statements in total, {} ms including commit",
+                SELLERS, ITEMS, statistics.getPrepareStatementCount(), elapsedMillis);
+        assertEquals(SELLERS, orderInserts);
+        assertEquals(ITEMS, itemInserts);
+    }
+
+    private Measurement persist(Supplier<List<?>> checkout) {
+        statistics.clear();
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> checkout.get().forEach(entityManager::persist));
+        long elapsed = System.nanoTime() - started;
+        return new Measurement(statistics.getEntityInsertCount(), statistics.getPrepareStatementCount(), elapsed);
+    }
+
+    private List<?> identityCheckout() {
+        List<IdentityProbeOrder> orders = new ArrayList<>();
+        for (int s = 0; s < SELLERS; s++) {
+            orders.add(new IdentityProbeOrder((long) s));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            IdentityProbeOrder order = orders.get(i % SELLERS);
+            order.items.add(new IdentityProbeItem(order, i + 1));
+        }
+        return orders;
+    }
+
+    private List<?> pooledCheckout() {
+        List<PooledProbeOrder> orders = new ArrayList<>();
+        for (int s = 0; s < SELLERS; s++) {
+            orders.add(new PooledProbeOrder((long) s));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            PooledProbeOrder order = orders.get(i % SELLERS);
+            order.items.add(new PooledProbeItem(order, i + 1));
+        }
+        return orders;
+    }
+
+    private User seedUserWithCart() {
+        String suffix = UUID.randomUUID().toString();
+        User newUser = new User();
+        newUser.setEmail("checkout-" + suffix + "@example.com");
+        newUser.setPhoneNumber(suffix.substring(0, 15));
+        newUser.setFullName("Checkout Tester");
+        User user = userRepository.save(newUser);
+
+        Category category = new Category();
+        category.setNameEn("checkout-" + suffix);
+        category.setNameAr("دفع-" + suffix);
+        category.setCategoryId("checkout-" + suffix);
+        category.setLevel(0);
+        category = categoryRepository.save(category);
+
+        List<Seller> sellers = new ArrayList<>();
+        for (int s = 0; s < SELLERS; s++) {
+            sellers.add(sellerRepository.save(new Seller()));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            Product product = new Product();
+            product.setTitle("checkout product " + i);
+            product.setDescription("one of " + ITEMS);
+            product.setQuantity(100);
+            product.setSellingPrice(80L);
+            product.setMaximumRetailPrice(100L);
+            product.setCategory(category);
+            product.setSeller(sellers.get(i % SELLERS));
+            product = productRepository.save(product);
+            cartService.addCartItem(user.getId(), product.getId(), 1, null);
+        }
+        return user;
+    }
+
+    private record Measurement(long inserts, long statements, long nanos) {
+
+        long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        // أسرع run من ROUNDS عشان الـ GC والـ JIT ما يبوظوش المقارنة
+        static Measurement best(Supplier<Measurement> run) {
+            Measurement best = null;
+            for (int i = 0; i < ROUNDS; i++) {
+                Measurement measurement = run.get();
+                if (best == null || measurement.nanos() < best.nanos()) {
+                    best = measurement;
+                }
+            }
+            return best;
+        }
+    }
+
+    // نفس شكل Order/OrderItem بـ IDENTITY، زي ما كانوا قبل الـ sequences
+    @Entity
+    @Table(name = "checkout_probe_identity_order")
+    static class IdentityProbeOrder extends BaseEntity {
+
+        private Long sellerId;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        private List<IdentityProbeItem> items = new ArrayList<>();
+
+        protected IdentityProbeOrder() {
+        }
+
+        IdentityProbeOrder(Long sellerId) {
+            this.sellerId = sellerId;
+        }
+    }
+
+    @Entity
+    @Table(name = "checkout_probe_identity_item")
+    static class IdentityProbeItem extends BaseEntity {
+
+        @ManyToOne
+        private IdentityProbeOrder order;
+
+        private int quantity;
+
+        protected IdentityProbeItem() {
+        }
+
+        IdentityProbeItem(IdentityProbeOrder order, int quantity) {
+            this.order = order;
+            this.quantity = quantity;
+        }
+    }
+
+    @Entity
+    @Table(name = "checkout_probe_pooled_order")
+    static class PooledProbeOrder extends PooledEntity {
+
+        private Long sellerId;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        private List<PooledProbeItem> items = new ArrayList<>();
+
+        protected PooledProbeOrder() {
+        }
+
+        PooledProbeOrder(Long sellerId) {
+            this.sellerId = sellerId;
+        }
+    }
+
+    @Entity
+    @Table(name = "checkout_probe_pooled_item")
+    static class PooledProbeItem extends PooledEntity {
+
+        @ManyToOne
+        private PooledProbeOrder order;
+
+        private int quantity;
+
+        protected PooledProbeItem() {
+        }
+
+        PooledProbeItem(PooledProbeOrder order, int quantity) {
+            this.order = order;
+            this.quantity = quantity;
+        }
+    }
+}
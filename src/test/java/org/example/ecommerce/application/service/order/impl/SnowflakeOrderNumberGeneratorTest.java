@@ -0,0 +1,136 @@
+package org.example.ecommerce.application.service.order.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plain unit tests (no Spring): uniqueness under contention, clock regression and
+ * the fixed-width Crockford rendering.
+ */
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long NODE_ID = 7;
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 20_000;
+    private static final long EPOCH_2025 = 1_735_689_600_000L;
+
+    @Test
+    void concurrentCallersGetUniqueIncreasingIds() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(NODE_ID, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long[] ids = new long[IDS_PER_THREAD];
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+
+        Set<Long> all = new HashSet<>();
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < ids.length; i++) {
+                assertEquals(NODE_ID, node(ids[i]));
+                if (i > 0) {
+                    assertTrue(ids[i] > ids[i - 1], "ids of one thread must increase");
+                }
+                all.add(ids[i]);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS * IDS_PER_THREAD, all.size());
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsTheNextMillisecond() {
+        AtomicLong clock = new AtomicLong(EPOCH_2025 + 1_000);
+        SnowflakeOrderNumberGenerator generator = generatorAt(clock);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 5_000; i++) { // أكتر من 4096 في نفس الـ ms
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(1_001, timestamp(previous));
+    }
+
+    @Test
+    void clockMovingBackwardsNeverRepeatsOrGoesBack() {
+        AtomicLong clock = new AtomicLong(EPOCH_2025 + 10_000);
+        SnowflakeOrderNumberGenerator generator = generatorAt(clock);
+        long beforeRegression = generator.nextId();
+
+        clock.set(EPOCH_2025 + 5_000);
+        long afterRegression = generator.nextId();
+        assertTrue(afterRegression > beforeRegression);
+        assertEquals(10_000, timestamp(afterRegression));
+
+        clock.set(EPOCH_2025 + 20_000);
+        long recovered = generator.nextId();
+        assertEquals(20_000, timestamp(recovered));
+        assertEquals(0, recovered & 4095);
+    }
+
+    @Test
+    void orderNumbersAreFixedWidthCrockfordAndSortByTime() {
+        AtomicLong clock = new AtomicLong(EPOCH_2025);
+        SnowflakeOrderNumberGenerator generator = generatorAt(clock);
+
+        String first = generator.next();
+        clock.set(EPOCH_2025 + 3_600_000);
+        String second = generator.next();
+
+        for (String number : List.of(first, second)) {
+            assertTrue(number.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"), number);
+        }
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals("0000000000000", SnowflakeOrderNumberGenerator.encode(0));
+        assertEquals("FZZZZZZZZZZZZ", SnowflakeOrderNumberGenerator.encode(-1));
+    }
+
+    @Test
+    void multipleInstancesRequireAnExplicitNodeId() {
+        assertThrows(IllegalStateException.class, () -> new SnowflakeOrderNumberGenerator(-1, 3));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(1024, 1));
+        assertEquals(NODE_ID, node(new SnowflakeOrderNumberGenerator(NODE_ID, 3).nextId()));
+    }
+
+    private static SnowflakeOrderNumberGenerator generatorAt(AtomicLong clock) {
+        return new SnowflakeOrderNumberGenerator(NODE_ID, 1) {
+            @Override
+            long currentTimeMillis() {
+                return clock.get();
+            }
+        };
+    }
+
+    private static long timestamp(long id) {
+        return id >>> 22;
+    }
+
+    private static long node(long id) {
+        return (id >>> 12) & 1023;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.ecommerce.application.service.seller_report.impl;
+
+import org.example.ecommerce.domain.model.seller_report.SellerReportCounters;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The touched-since marks reconciliation uses to skip sellers whose deltas may
+ * still be pending.
+ */
+class SellerReportAccumulatorTest {
+
+    @Test
+    void onlySellersWithEventsAfterTheMarkAreTouched() {
+        SellerReportAccumulator accumulator = new SellerReportAccumulator(4);
+        accumulator.add(placed(1L));
+        long mark = accumulator.mark();
+        accumulator.add(placed(2L));
+
+        assertFalse(accumulator.touchedSince(1L, mark));
+        assertTrue(accumulator.touchedSince(2L, mark));
+        assertFalse(accumulator.touchedSince(3L, mark));
+
+        accumulator.add(placed(1L));
+        assertTrue(accumulator.touchedSince(1L, mark));
+    }
+
+    @Test
+    void forgettingKeepsSellersTouchedAfterTheMark() {
+        SellerReportAccumulator accumulator = new SellerReportAccumulator(4);
+        accumulator.add(placed(1L));
+        long mark = accumulator.mark();
+        accumulator.add(placed(2L));
+
+        accumulator.forgetTouchedUpTo(mark);
+
+        assertFalse(accumulator.touchedSince(1L, 0));
+        assertTrue(accumulator.touchedSince(2L, mark));
+    }
+
+    @Test
+    void drainSumsDeltasPerSeller() {
+        SellerReportAccumulator accumulator = new SellerReportAccumulator(4);
+        accumulator.add(placed(1L));
+        accumulator.add(placed(1L));
+        accumulator.add(placed(2L));
+
+        List<SellerReportCounters> drained = accumulator.drain();
+
+        assertEquals(2, drained.size());
+        assertEquals(2, drained.stream().filter(d -> d.sellerId().equals(1L)).findFirst().orElseThrow().totalOrders());
+        assertTrue(accumulator.drain().isEmpty());
+    }
+
+    private static SellerReportCounters placed(Long sellerId) {
+        return new SellerReportCounters(sellerId, 1, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.ecommerce.infrastructure.config;
+
+import org.example.ecommerce.application.service.notification.NotificationPushService;
+import org.example.ecommerce.domain.model.notification.Notification;
+import org.example.ecommerce.domain.model.user.UserRole;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.example.ecommerce.support.TestTokens;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many simulated STOMP clients (default 500, {@code -Dwebsocket.load.clients=5000}
+ * for a real load run): a user push reaches exactly one client and an admin push
+ * reaches exactly the admins.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketFanOutTest extends AbstractIntegrationTest {
+
+    private static final int CLIENTS = Integer.getInteger("websocket.load.clients", 500);
+    private static final int ADMIN_EVERY = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    private WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // websocket خام من غير SockJS عشان آلاف الاتصالات
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        stompClient.setTaskScheduler(scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    @Test
+    void pushesReachOnlyTheirTargets() throws Exception {
+        AtomicInteger userDeliveries = new AtomicInteger();
+        AtomicInteger adminDeliveries = new AtomicInteger();
+        CompletableFuture<String> targetReceived = new CompletableFuture<>();
+        int admins = 0;
+
+        for (int i = 0; i < CLIENTS; i++) {
+            boolean admin = i % ADMIN_EVERY == 0;
+            String email = "client" + i + "@example.com";
+            StompSession session = connect((long) i, email, admin ? "ROLE_ADMIN" : "ROLE_CUSTOMER");
+            sessions.add(session);
+            boolean target = i == CLIENTS - 1;
+            session.subscribe("/user/queue/notifications", handler(payload -> {
+                userDeliveries.incrementAndGet();
+                if (target) {
+                    targetReceived.complete(payload);
+                }
+            }));
+            if (admin) {
+                admins++;
+                session.subscribe("/topic/admin/notifications", handler(payload -> adminDeliveries.incrementAndGet()));
+            }
+        }
+        // آخر SUBSCRIBE يوصل للسيرفر قبل الـ push
+        TimeUnit.SECONDS.sleep(2);
+
+        notificationPushService.pushToUser("client" + (CLIENTS - 1) + "@example.com",
+                Notification.builder().title("only you").message("order placed").role(UserRole.ROLE_CUSTOMER).build());
+        notificationPushService.pushToRole(UserRole.ROLE_ADMIN,
+                Notification.builder().title("admins").message("new order").role(UserRole.ROLE_ADMIN).build());
+
+        targetReceived.get(30, TimeUnit.SECONDS);
+        int expectedAdmins = admins;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (adminDeliveries.get() < expectedAdmins && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        TimeUnit.SECONDS.sleep(1); // أي تسليم زيادة يلحق يوصل
+
+        assertEquals(1, userDeliveries.get());
+        assertEquals(expectedAdmins, adminDeliveries.get());
+    }
+
+    private StompSession connect(Long userId, String email, String authorities) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + TestTokens.token(jwtTokenVerifier, userId, email, authorities));
+        return stompClient.connectAsync("ws://localhost:" + port + "/ws/websocket",
+                        new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                        })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static StompFrameHandler handler(Consumer<String> onPayload) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onPayload.accept((String) payload);
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.ecommerce.infrastructure.config;
+
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.example.ecommerce.support.TestTokens;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real STOMP clients against {@code /ws}: a customer may only subscribe to its own
+ * user queue, never to broker patterns, raw queues or another role's topic.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketSubscriptionSecurityTest extends AbstractIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    private WebSocketStompClient stompClient;
+
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stompClient.stop();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/topic/**",
+            "/topic/*/notifications",
+            "/topic/admin/notifications",
+            "/queue/**",
+            "/queue/notifications",
+            "/queue/notifications-user1234",
+            "/user/queue/*",
+            "/topic/notifications"
+    })
+    void customerCannotSubscribeOutsideItsOwnQueue(String destination) throws Exception {
+        Connection customer = connect("customer@example.com", "ROLE_CUSTOMER");
+
+        customer.session.subscribe(destination, new StompSessionHandlerAdapter() {
+        });
+
+        StompHeaders error = customer.errors.get(5, TimeUnit.SECONDS);
+        assertTrue(error.getFirst("message").contains("Not allowed to subscribe"),
+                () -> "unexpected error: " + error);
+    }
+
+    @Test
+    void customerCanSubscribeToItsUserQueue() throws Exception {
+        Connection customer = connect("customer@example.com", "ROLE_CUSTOMER");
+
+        customer.session.subscribe("/user/queue/notifications", new StompSessionHandlerAdapter() {
+        });
+
+        assertThrows(TimeoutException.class, () -> customer.errors.get(1, TimeUnit.SECONDS));
+        assertTrue(customer.session.isConnected());
+    }
+
+    @Test
+    void adminCanSubscribeToAdminTopic() throws Exception {
+        Connection admin = connect("admin@example.com", "ROLE_ADMIN");
+
+        admin.session.subscribe("/topic/admin/notifications", new StompSessionHandlerAdapter() {
+        });
+
+        assertThrows(TimeoutException.class, () -> admin.errors.get(1, TimeUnit.SECONDS));
+        assertTrue(admin.session.isConnected());
+    }
+
+    @Test
+    void clientCannotSendToBrokerDestinations() throws Exception {
+        Connection customer = connect("customer@example.com", "ROLE_CUSTOMER");
+
+        customer.session.send("/topic/admin/notifications", "spoofed");
+
+        StompHeaders error = customer.errors.get(5, TimeUnit.SECONDS);
+        assertTrue(error.getFirst("message").contains("Not allowed to send"));
+    }
+
+    private Connection connect(String email, String authorities) throws Exception {
+        CompletableFuture<StompHeaders> errors = new CompletableFuture<>();
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + TestTokens.token(jwtTokenVerifier, 1L, email, authorities));
+
+        StompSession session = stompClient.connectAsync("http://localhost:" + port + "/ws",
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return byte[].class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        errors.complete(headers);
+                    }
+
+                    @Override
+                    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                                byte[] payload, Throwable exception) {
+                        errors.completeExceptionally(exception);
+                    }
+                }).get(10, TimeUnit.SECONDS);
+        assertEquals(true, session.isConnected());
+        return new Connection(session, errors);
+    }
+
+    private record Connection(StompSession session, CompletableFuture<StompHeaders> errors) {}
+}
@@ -0,0 +1,254 @@
+package org.example.ecommerce.infrastructure.controller;
+
+import org.example.ecommerce.application.service.payment.PaymentCallbackService;
+import org.example.ecommerce.application.service.payment.PaymentOrderRepository;
+import org.example.ecommerce.application.service.payment.PaymentService;
+import org.example.ecommerce.domain.model.order.PaymentOrder;
+import org.example.ecommerce.domain.payment.PaymentStatus;
+import org.example.ecommerce.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * HMAC-signed gateway callbacks through {@code /api/v1/payments/webhook}: duplicates
+ * are acknowledged, forged ones rejected, and a payment order moves at most once
+ * however many (or however late) results arrive for it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentWebhookControllerTest extends AbstractIntegrationTest {
+
+    private static final String WEBHOOK = "/api/v1/payments/webhook";
+    private static final String SIGNATURE_HEADER = "X-Payment-Signature";
+    private static final int CONCURRENT_DELIVERIES = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentCallbackService paymentCallbackService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+    private String paymentLinkId;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CONCURRENT_DELIVERIES);
+        paymentLinkId = "plink_" + UUID.randomUUID();
+        PaymentOrder paymentOrder = new PaymentOrder();
+        paymentOrder.setAmount(1000L);
+        paymentOrder.setPaymentLinkId(paymentLinkId);
+        paymentOrderRepository.save(paymentOrder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void duplicateEventIdIsAcknowledgedWithOk() throws Exception {
+        String payload = payload("evt_" + UUID.randomUUID(), "COMPLETED");
+
+        deliver(payload, sign(payload)).andExpect(status().isAccepted());
+        deliver(payload, sign(payload)).andExpect(status().isOk());
+
+        assertEquals(1, callbackCount());
+    }
+
+    @Test
+    void invalidSignatureIsRejected() throws Exception {
+        String payload = payload("evt_" + UUID.randomUUID(), "COMPLETED");
+
+        deliver(payload, sign(payload("evt_other", "COMPLETED"))).andExpect(status().isUnauthorized());
+        deliver(payload, "not-hex").andExpect(status().isUnauthorized());
+        mockMvc.perform(post(WEBHOOK).contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(0, callbackCount());
+    }
+
+    @Test
+    void failedAfterCompletedIsIgnored() throws Exception {
+        String completed = payload("evt_" + UUID.randomUUID(), "COMPLETED");
+        deliver(completed, sign(completed)).andExpect(status().isAccepted());
+        awaitProcessed();
+
+        String failed = payload("evt_" + UUID.randomUUID(), "FAILED");
+        deliver(failed, sign(failed)).andExpect(status().isAccepted());
+        awaitProcessed();
+
+        assertEquals(Map.of("APPLIED", 1L, "IGNORED", 1L), callbackStatuses());
+        assertEquals(PaymentStatus.COMPLETED, currentStatus());
+    }
+
+    @Test
+    void concurrentDeliveriesOfTheSameEventAreStoredOnce() throws Exception {
+        String payload = payload("evt_" + UUID.randomUUID(), "COMPLETED");
+        String signature = sign(payload);
+
+        List<Integer> statuses = concurrently(() ->
+                deliver(payload, signature).andReturn().getResponse().getStatus());
+
+        assertEquals(1, statuses.stream().filter(s -> s == 202).count(), () -> "statuses: " + statuses);
+        assertEquals(CONCURRENT_DELIVERIES - 1, statuses.stream().filter(s -> s == 200).count());
+        awaitProcessed();
+        assertEquals(Map.of("APPLIED", 1L), callbackStatuses());
+    }
+
+    @Test
+    void concurrentResultsTransitionThePaymentOnce() throws Exception {
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_DELIVERIES; i++) {
+            payloads.add(payload("evt_" + UUID.randomUUID(), "COMPLETED"));
+        }
+        List<Integer> statuses = concurrently(payloads, payload ->
+                deliver(payload, sign(payload)).andReturn().getResponse().getStatus());
+        assertEquals(CONCURRENT_DELIVERIES, statuses.stream().filter(s -> s == 202).count());
+        awaitProcessed();
+        assertEquals(Map.of("APPLIED", 1L, "IGNORED", (long) CONCURRENT_DELIVERIES - 1), callbackStatuses());
+
+        // أكتر من instance بيطبق نفس النتيجة في نفس اللحظة: الـ row lock يسيب واحد بس يعدي
+        String otherLink = "plink_" + UUID.randomUUID();
+        PaymentOrder other = new PaymentOrder();
+        other.setAmount(1000L);
+        other.setPaymentLinkId(otherLink);
+        paymentOrderRepository.save(other);
+
+        List<Boolean> applied = concurrently(() ->
+                paymentService.applyPaymentResult(otherLink, "pay_" + UUID.randomUUID(), PaymentStatus.COMPLETED));
+
+        assertEquals(1, applied.stream().filter(Boolean::booleanValue).count());
+        assertEquals(PaymentStatus.COMPLETED,
+                paymentOrderRepository.findByPaymentLinkId(otherLink).orElseThrow().getStatus());
+    }
+
+    private ResultActions deliver(String payload, String signature) throws Exception {
+        return mockMvc.perform(post(WEBHOOK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(SIGNATURE_HEADER, signature)
+                .content(payload));
+    }
+
+    private <T> List<T> concurrently(Callable<T> task) throws Exception {
+        List<Callable<T>> tasks = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_DELIVERIES; i++) {
+            tasks.add(task);
+        }
+        return runTogether(tasks);
+    }
+
+    private <T> List<T> concurrently(List<String> inputs, ThrowingFunction<T> task) throws Exception {
+        List<Callable<T>> tasks = new ArrayList<>();
+        for (String input : inputs) {
+            tasks.add(() -> task.apply(input));
+        }
+        return runTogether(tasks);
+    }
+
+    // كل الـ threads بتستنى نفس الـ latch عشان الطلبات تتسابق فعلاً
+    private <T> List<T> runTogether(List<Callable<T>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    // الـ processor بيشتغل لوحده (wakeUp و @Scheduled)، نشغله كمان ونستنى لحد ما الـ queue تفضى
+    private void awaitProcessed() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (pendingCount() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("payment callbacks for " + paymentLinkId + " were not processed");
+            }
+            paymentCallbackService.process();
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+
+    private long pendingCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payment_callback WHERE payment_link_id = ? AND status IN ('RECEIVED', 'PROCESSING')",
+                Long.class, paymentLinkId);
+    }
+
+    private long callbackCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payment_callback WHERE payment_link_id = ?", Long.class, paymentLinkId);
+    }
+
+    private Map<String, Long> callbackStatuses() {
+        return jdbcTemplate.queryForList(
+                        "SELECT status FROM payment_callback WHERE payment_link_id = ?", String.class, paymentLinkId)
+                .stream()
+                .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
+    }
+
+    private PaymentStatus currentStatus() {
+        return paymentOrderRepository.findByPaymentLinkId(paymentLinkId).orElseThrow().getStatus();
+    }
+
+    private String payload(String eventId, String status) {
+        return """
+                {"eventId":"%s","paymentLinkId":"%s","paymentId":"pay_%s","status":"%s"}"""
+                .formatted(eventId, paymentLinkId, eventId, status);
+    }
+
+    private static String sign(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(PAYMENT_WEBHOOK_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingFunction<T> {
+        T apply(String input) throws Exception;
+    }
+}
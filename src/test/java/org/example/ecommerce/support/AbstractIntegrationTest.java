@@ -0,0 +1,36 @@
+package org.example.ecommerce.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+
+/**
+ * Base class for {@code @SpringBootTest}s: one SQL Server container shared by all
+ * test classes (so the Spring context cache keeps working), and outgoing mail
+ * pointed at a closed local port instead of the real SMTP account. The mail
+ * dispatcher only runs when a test calls it, and payment callbacks are signed
+ * with {@link #PAYMENT_WEBHOOK_SECRET}.
+ */
+public abstract class AbstractIntegrationTest {
+
+    protected static final String PAYMENT_WEBHOOK_SECRET = "test-webhook-secret";
+
+    protected static final MSSQLServerContainer<?> SQL_SERVER =
+            new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    static {
+        SQL_SERVER.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> SQL_SERVER.getJdbcUrl() + ";encrypt=true;trustServerCertificate=true");
+        registry.add("spring.datasource.username", SQL_SERVER::getUsername);
+        registry.add("spring.datasource.password", SQL_SERVER::getPassword);
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> "2");
+        registry.add("mail.dispatcher.poll-interval-ms", () -> "3600000");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("payment.webhook.secret", () -> PAYMENT_WEBHOOK_SECRET);
+    }
+}
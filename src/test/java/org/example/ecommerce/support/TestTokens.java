@@ -0,0 +1,35 @@
+package org.example.ecommerce.support;
+
+import io.jsonwebtoken.Jwts;
+import org.example.ecommerce.infrastructure.utils.JwtTokenVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Signs tokens shaped like {@code JwtServiceImpl} output without needing a stored user.
+ */
+public final class TestTokens {
+
+    private TestTokens() {
+    }
+
+    public static String token(JwtTokenVerifier verifier, Long userId, String email, String authorities) {
+        return token(verifier, userId, email, authorities, Duration.ofHours(1));
+    }
+
+    public static String token(JwtTokenVerifier verifier, Long userId, String email, String authorities, Duration ttl) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .header().keyId(verifier.activeKid()).and()
+                .subject(email)
+                .claim("id", userId)
+                .claim("username", email)
+                .claim("authorities", authorities)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(verifier.signingKey())
+                .compact();
+    }
+}